@@ -0,0 +1,118 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobListingDetails;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlobContainer;
+import com.microsoft.azure.storage.blob.ListBlobItem;
+
+public class AzureRecursiveListService implements RecursiveListService {
+    private static final Logger log = Logger.getLogger(AzureRecursiveListService.class);
+
+    private final AzureSession session;
+
+    private final OperationContext context;
+
+    private final PathContainerService containerService
+            = new AzurePathContainerService();
+
+    public AzureRecursiveListService(final AzureSession session, final OperationContext context) {
+        this.session = session;
+        this.context = context;
+    }
+
+    @Override
+    public void list(final Path directory, final Listener listener) throws BackgroundException {
+        // List all blobs with prefix of directory using flat listing to not roll up blobs in virtual directories
+        String prefix = StringUtils.EMPTY;
+        if(!containerService.isContainer(directory)) {
+            prefix = containerService.getKey(directory);
+            if(!prefix.endsWith(String.valueOf(Path.DELIMITER))) {
+                prefix += Path.DELIMITER;
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List all blobs in %s with prefix %s", containerService.getContainer(directory), prefix));
+        }
+        try {
+            final CloudBlobContainer container = session.getClient().getContainerReference(containerService.getContainer(directory).getName());
+            ResultContinuation token = null;
+            ResultSegment<ListBlobItem> result;
+            do {
+                final BlobRequestOptions options = new BlobRequestOptions();
+                result = container.listBlobsSegmented(
+                        prefix, true, EnumSet.noneOf(BlobListingDetails.class),
+                        PreferencesFactory.get().getInteger("azure.listing.chunksize"), token, options, context);
+                final List<Path> files = new ArrayList<Path>();
+                for(ListBlobItem object : result.getResults()) {
+                    if(!(object instanceof CloudBlob)) {
+                        continue;
+                    }
+                    final CloudBlob blob = (CloudBlob) object;
+                    final PathAttributes attributes = new PathAttributes();
+                    attributes.setSize(blob.getProperties().getLength());
+                    attributes.setModificationDate(blob.getProperties().getLastModified().getTime());
+                    attributes.setETag(blob.getProperties().getEtag());
+                    if(StringUtils.isNotBlank(blob.getProperties().getContentMD5())) {
+                        attributes.setChecksum(Checksum.parse(Hex.encodeHexString(Base64.decodeBase64(blob.getProperties().getContentMD5()))));
+                    }
+                    // A directory placeholder is designated by a trailing delimiter character.
+                    final EnumSet<AbstractPath.Type> types = blob.getName().endsWith(String.valueOf(Path.DELIMITER))
+                            ? EnumSet.of(Path.Type.directory, Path.Type.placeholder) : EnumSet.of(Path.Type.file);
+                    files.add(new Path(PathNormalizer.normalize(object.getUri().getPath()), types, attributes));
+                }
+                if(!listener.chunk(files)) {
+                    return;
+                }
+                token = result.getContinuationToken();
+            }
+            while(result.getHasMoreResults());
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+}
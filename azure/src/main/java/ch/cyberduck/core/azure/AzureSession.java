@@ -45,6 +45,7 @@ import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.Logging;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Search;
 import ch.cyberduck.core.features.Touch;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.DisabledX509HostnameVerifier;
@@ -232,6 +233,9 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         if(type == AclPermission.class) {
             return (T) new AzureAclPermissionFeature(this, context);
         }
+        if(type == Search.class) {
+            return (T) new AzureSearchFeature(this, context);
+        }
         return super._getFeature(type);
     }
 }
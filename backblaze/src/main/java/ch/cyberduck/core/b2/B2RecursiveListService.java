@@ -0,0 +1,94 @@
+package ch.cyberduck.core.b2;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import synapticloop.b2.exception.B2ApiException;
+import synapticloop.b2.response.B2FileInfoResponse;
+import synapticloop.b2.response.B2ListFilesResponse;
+
+public class B2RecursiveListService implements RecursiveListService {
+    private static final Logger log = Logger.getLogger(B2RecursiveListService.class);
+
+    private final B2Session session;
+
+    private final PathContainerService containerService
+            = new PathContainerService();
+
+    public B2RecursiveListService(final B2Session session) {
+        this.session = session;
+    }
+
+    @Override
+    public void list(final Path directory, final Listener listener) throws BackgroundException {
+        final Path bucket = containerService.getContainer(directory);
+        // List all files with prefix of directory omitting the delimiter to not roll up files in common prefixes
+        final String prefix = containerService.isContainer(directory) ? null
+                : String.format("%s%s", containerService.getKey(directory), String.valueOf(Path.DELIMITER));
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List all files in %s with prefix %s", bucket, prefix));
+        }
+        try {
+            final B2ObjectListService service = new B2ObjectListService(session);
+            String nextFilename = prefix;
+            do {
+                // Only latest version of files not hidden
+                final B2ListFilesResponse response = session.getClient().listFileNames(
+                        new B2FileidProvider(session).getFileid(bucket),
+                        nextFilename, PreferencesFactory.get().getInteger("b2.listing.chunksize"),
+                        prefix, null);
+                final List<Path> files = new ArrayList<Path>();
+                for(B2FileInfoResponse info : response.getFiles()) {
+                    if(StringUtils.endsWith(info.getFileName(), B2DirectoryFeature.PLACEHOLDER)) {
+                        files.add(new Path(String.format("%s%s%s", bucket.getAbsolute(), Path.DELIMITER,
+                                StringUtils.removeEnd(info.getFileName(), B2DirectoryFeature.PLACEHOLDER)),
+                                EnumSet.of(Path.Type.directory, Path.Type.placeholder), new PathAttributes()));
+                    }
+                    else {
+                        files.add(new Path(String.format("%s%s%s", bucket.getAbsolute(), Path.DELIMITER, info.getFileName()),
+                                EnumSet.of(Path.Type.file), service.parse(info)));
+                    }
+                }
+                if(!listener.chunk(files)) {
+                    return;
+                }
+                nextFilename = response.getNextFileName();
+            }
+            while(nextFilename != null);
+        }
+        catch(B2ApiException e) {
+            throw new B2ExceptionMappingService(session).map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+    }
+}
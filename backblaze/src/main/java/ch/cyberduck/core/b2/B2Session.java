@@ -37,6 +37,8 @@ import ch.cyberduck.core.features.Lifecycle;
 import ch.cyberduck.core.features.Location;
 import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.features.Size;
 import ch.cyberduck.core.features.Touch;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
@@ -163,6 +165,12 @@ public class B2Session extends HttpSession<B2ApiClient> {
         if(type == Lifecycle.class) {
             return (T) new B2LifecycleFeature(this);
         }
+        if(type == Size.class) {
+            return (T) new B2SizeFeature(this);
+        }
+        if(type == Search.class) {
+            return (T) new B2SearchFeature(this);
+        }
         return super._getFeature(type);
     }
 }
@@ -32,6 +32,7 @@ import ch.cyberduck.core.ftp.FTPTLSProtocol;
 import ch.cyberduck.core.googledrive.DriveProtocol;
 import ch.cyberduck.core.googlestorage.GoogleStorageProtocol;
 import ch.cyberduck.core.hubic.HubicProtocol;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.irods.IRODSProtocol;
 import ch.cyberduck.core.local.Application;
@@ -129,7 +130,7 @@ public class Terminal {
             log.info(String.format("Parsed options %s from input %s", options, input));
         }
         this.input = input;
-        this.cache = new PathCache(preferences.getInteger("browser.cache.size"));
+        this.cache = PathCache.browser();
         this.progress = input.hasOption(TerminalOptionsBuilder.Params.quiet.name())
                 ? new DisabledListProgressListener() : new TerminalProgressListener();
         this.transcript = input.hasOption(TerminalOptionsBuilder.Params.verbose.name())
@@ -271,6 +272,10 @@ public class Terminal {
         finally {
             this.disconnect(source);
             this.disconnect(destination);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Cache statistics %s", cache.getStatistics()));
+                log.info(String.format("Buffer pool statistics %s", BufferPool.get()));
+            }
             console.printf("%n%s", StringUtils.EMPTY);
         }
         return Exit.failure;
@@ -49,6 +49,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class FinderLocal extends Local {
     private static final Logger log = Logger.getLogger(FinderLocal.class);
@@ -174,6 +178,36 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getOutputStream(final long offset) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            return super.getOutputStream(offset);
+        }
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(resolved.path()), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.position(offset);
+            return new ProxyOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        release(resolved);
+                    }
+                }
+            };
+        }
+        catch(IOException e) {
+            release(resolved);
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
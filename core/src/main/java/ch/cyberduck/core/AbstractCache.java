@@ -18,37 +18,206 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
-    private final Map<T, AttributedList<T>> impl;
+    /**
+     * Number of cached listings compared to find the least recently used listing to evict
+     */
+    private static final int SAMPLE = 16;
+
+    private final ConcurrentMap<T, CachedList<T>> impl
+            = new ConcurrentHashMap<T, CachedList<T>>();
+
+    /**
+     * Listing cached for null parent not permitted as key in concurrent map
+     */
+    private final AtomicReference<CachedList<T>> root
+            = new AtomicReference<CachedList<T>>();
+
+    /**
+     * Parent directory by reference of child
+     */
+    private final Map<CacheReference, Optional<T>> reverse
+            = new ConcurrentHashMap<CacheReference, Optional<T>>();
+
+    private final CacheStatistics statistics
+            = new CacheStatistics();
+
+    /**
+     * Cost of listings
+     */
+    private final CacheWeigher<T> weigher;
+
+    /**
+     * Maximum total weight of cached listings
+     */
+    private final long maximum;
+
+    /**
+     * Total weight of cached listings
+     */
+    private final AtomicLong weight
+            = new AtomicLong();
+
+    /**
+     * Time to live in milliseconds for cached listings or -1 to never expire
+     */
+    private final long ttl;
+
+    /**
+     * Cached listings in the order added. Candidates for eviction are taken from the head.
+     */
+    private final Queue<CachedList<T>> queue
+            = new ConcurrentLinkedQueue<CachedList<T>>();
+
+    /**
+     * Number of listings in queue including listings no longer cached
+     */
+    private final AtomicInteger queued
+            = new AtomicInteger();
+
+    /**
+     * Incremented on every access to order listings by recent use
+     */
+    private final AtomicLong ticker
+            = new AtomicLong();
 
-    private final Map<CacheReference, T> reverse;
+    /**
+     * Only one thread evicts listings at a time. Never held when reading from the cache.
+     */
+    private final Lock eviction
+            = new ReentrantLock();
 
+    /**
+     * @param size Maximum number of directory listings
+     */
     public AbstractCache(int size) {
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            impl = Collections.synchronizedMap(new LinkedHashMap<T, AttributedList<T>>());
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
+        this(size, -1L);
+    }
+
+    /**
+     * @param size Maximum number of directory listings
+     * @param ttl  Time to live in milliseconds of a directory listing or -1 to never expire
+     */
+    public AbstractCache(int size, final long ttl) {
+        this(new CacheWeigher<T>() {
+            @Override
+            public long weigh(final T parent, final AttributedList<T> children) {
+                return 1L;
+            }
+        }, size == Integer.MAX_VALUE ? Long.MAX_VALUE : size, ttl);
+    }
+
+    /**
+     * Bound cache by total weight of directory listings evicting least recently used listings first
+     *
+     * @param weigher Cost of directory listing
+     * @param maximum Maximum total weight of cached directory listings
+     * @param ttl     Time to live in milliseconds of a directory listing or -1 to never expire
+     */
+    public AbstractCache(final CacheWeigher<T> weigher, final long maximum, final long ttl) {
+        this.weigher = weigher;
+        this.maximum = maximum;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Remove reverse references of evicted directory listing
+     */
+    private void evict(final T reference, final CachedList<T> entry) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Evict %s from cache", reference));
         }
-        else if(size == 0) {
-            impl = Collections.emptyMap();
-            reverse = Collections.emptyMap();
+        statistics.evict();
+        for(CacheReference key : entry.index.keySet()) {
+            reverse.remove(key, Optional.ofNullable(reference));
         }
-        else {
-            // Will inflate to the given size
-            impl = Collections.synchronizedMap(new LRUMap<T, AttributedList<T>>(size));
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
+    }
+
+    /**
+     * Evict least recently used listings until the total weight is within the maximum. Listings are compared in
+     * samples taken from the head of the queue.
+     *
+     * @param added Listing just added which is never evicted
+     */
+    private void trim(final CachedList<T> added) {
+        if(weight.get() <= maximum && queued.get() <= 2 * impl.size() + SAMPLE) {
+            return;
         }
+        eviction.lock();
+        try {
+            if(queued.get() > 2 * impl.size() + SAMPLE) {
+                // Discard listings replaced or removed in the meantime
+                for(CachedList<T> entry : queue) {
+                    if(impl.get(entry.reference) != entry && queue.remove(entry)) {
+                        queued.decrementAndGet();
+                    }
+                }
+            }
+            while(weight.get() > maximum) {
+                final List<CachedList<T>> sample = new ArrayList<CachedList<T>>(SAMPLE);
+                CachedList<T> eldest = null;
+                while(sample.size() < SAMPLE) {
+                    final CachedList<T> entry = queue.poll();
+                    if(null == entry) {
+                        break;
+                    }
+                    queued.decrementAndGet();
+                    if(impl.get(entry.reference) != entry) {
+                        // No longer cached
+                        continue;
+                    }
+                    sample.add(entry);
+                    // Listing may have grown since added
+                    this.reweigh(entry);
+                    if(entry != added && (null == eldest || entry.access < eldest.access)) {
+                        eldest = entry;
+                    }
+                }
+                for(CachedList<T> entry : sample) {
+                    if(entry != eldest) {
+                        queue.offer(entry);
+                        queued.incrementAndGet();
+                    }
+                }
+                if(null == eldest) {
+                    // Listing exceeding maximum weight is retained
+                    break;
+                }
+                if(this.discard(eldest.reference, eldest)) {
+                    this.evict(eldest.reference, eldest);
+                }
+            }
+        }
+        finally {
+            eviction.unlock();
+        }
+    }
+
+    /**
+     * @return Hit, miss and eviction counters
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
     }
 
     protected abstract CacheReference key(final T object);
@@ -61,34 +230,129 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @see ch.cyberduck.core.AttributedList#get(Referenceable)
      */
     public T lookup(final CacheReference reference) {
-        final T parent = reverse.get(reference);
-        final AttributedList<T> list = impl.get(parent);
-        if(null == list) {
+        final Optional<T> parent = reverse.get(reference);
+        if(null == parent) {
+            log.warn(String.format("Lookup failed for %s in reverse cache", reference));
+            statistics.miss();
+            return null;
+        }
+        final CachedList<T> entry = this.entry(parent.orElse(null));
+        if(null == entry) {
             log.warn(String.format("Lookup failed for %s in reverse cache", reference));
+            statistics.miss();
             return null;
         }
+        final AttributedList<T> list = entry.list;
+        final T indexed = entry.index.get(reference);
+        if(null != indexed) {
+            // Make sure entry has not been removed from listing since cached
+            if(list.contains(indexed) || list.attributes().isHidden(indexed)) {
+                statistics.hit();
+                return indexed;
+            }
+        }
+        // Fallback for listings modified after being cached
         final T[] entries = list.toArray();
-        for(T entry : entries) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
+        for(T e : entries) {
+            if(this.key(e).equals(reference)) {
+                entry.index.put(reference, e);
+                statistics.hit();
+                return e;
             }
         }
         final List<T> hidden = list.attributes().getHidden();
-        for(T entry : hidden) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
+        for(T e : hidden) {
+            if(this.key(e).equals(reference)) {
+                entry.index.put(reference, e);
+                statistics.hit();
+                return e;
             }
         }
         log.warn(String.format("Lookup failed for %s in reverse cache", reference));
+        statistics.miss();
         return null;
     }
 
+    private CachedList<T> entry(final T reference) {
+        final CachedList<T> entry;
+        if(null == reference) {
+            entry = root.get();
+        }
+        else {
+            entry = impl.get(reference);
+        }
+        if(null == entry) {
+            return null;
+        }
+        if(ttl > 0 && System.currentTimeMillis() - entry.timestamp > ttl) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Expired cache for %s", reference));
+            }
+            if(this.discard(reference, entry)) {
+                this.evict(reference, entry);
+            }
+            return null;
+        }
+        entry.access = ticker.incrementAndGet();
+        if(null != reference) {
+            if(this.reweigh(entry)) {
+                this.trim(entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Recompute weight of listing modified after being added such as by appending chunks of a listing
+     *
+     * @return True if weight of listing has changed
+     */
+    private boolean reweigh(final CachedList<T> entry) {
+        if(entry.size() == entry.size) {
+            return false;
+        }
+        synchronized(entry) {
+            final int size = entry.size();
+            if(size == entry.size) {
+                return false;
+            }
+            final long updated = weigher.weigh(entry.reference, entry.list);
+            if(impl.get(entry.reference) == entry) {
+                weight.addAndGet(updated - entry.weight);
+            }
+            entry.weight = updated;
+            entry.size = size;
+            return true;
+        }
+    }
+
+    /**
+     * @return False if entry is no longer mapped to reference
+     */
+    private boolean discard(final T reference, final CachedList<T> entry) {
+        if(null == reference) {
+            return root.compareAndSet(entry, null);
+        }
+        if(impl.remove(reference, entry)) {
+            synchronized(entry) {
+                weight.addAndGet(-entry.weight);
+            }
+            return true;
+        }
+        return false;
+    }
+
     public boolean isEmpty() {
-        return impl.isEmpty();
+        return null == root.get() && impl.isEmpty();
     }
 
     public Set<T> keySet() {
-        return impl.keySet();
+        if(null == root.get()) {
+            return impl.keySet();
+        }
+        final Set<T> keys = new HashSet<T>(impl.keySet());
+        keys.add(null);
+        return keys;
     }
 
     /**
@@ -96,7 +360,7 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return True if the directory listing of this path is cached
      */
     public boolean containsKey(final T reference) {
-        return impl.containsKey(reference);
+        return null != this.entry(reference);
     }
 
     /**
@@ -106,15 +370,26 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return The previously cached directory listing
      */
     public AttributedList<T> remove(final T reference) {
-        final AttributedList<T> removed = impl.remove(reference);
+        final CachedList<T> removed;
+        if(null == reference) {
+            removed = root.getAndSet(null);
+        }
+        else {
+            removed = impl.remove(reference);
+            if(null != removed) {
+                synchronized(removed) {
+                    weight.addAndGet(-removed.weight);
+                }
+            }
+        }
         if(null == removed) {
             // Not previously in cache
             return AttributedList.emptyList();
         }
-        for(T r : removed) {
-            reverse.remove(this.key(r));
+        for(CacheReference key : removed.index.keySet()) {
+            reverse.remove(key, Optional.ofNullable(reference));
         }
-        return removed;
+        return removed.list;
     }
 
     /**
@@ -124,12 +399,14 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      *                                                   and requests a new filter here.
      */
     public AttributedList<T> get(final T reference) {
-        AttributedList<T> children = impl.get(reference);
-        if(null == children) {
+        final CachedList<T> entry = this.entry(reference);
+        if(null == entry) {
             log.warn(String.format("No cache for %s", reference));
+            statistics.miss();
             return AttributedList.emptyList();
         }
-        return children;
+        statistics.hit();
+        return entry.list;
     }
 
     /**
@@ -138,20 +415,51 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return Previous cached version
      */
     public AttributedList<T> put(final T reference, final AttributedList<T> children) {
+        if(0L == maximum) {
+            // Disabled
+            return null;
+        }
         if(log.isInfoEnabled()) {
             log.info(String.format("Caching %s", reference));
         }
+        final Map<CacheReference, T> index = new ConcurrentHashMap<CacheReference, T>(
+                Math.max(16, (int) ((children.size() + children.attributes().getHidden().size()) / .75f) + 1));
         for(T f : children) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            index.putIfAbsent(this.key(f), f);
         }
         for(T f : children.attributes().getHidden()) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            index.putIfAbsent(this.key(f), f);
         }
-        return impl.put(reference, children);
+        final Optional<T> parent = Optional.ofNullable(reference);
+        for(CacheReference key : index.keySet()) {
+            reverse.put(key, parent);
+        }
+        final CachedList<T> previous;
+        if(null == reference) {
+            previous = root.getAndSet(new CachedList<T>(null, children, index, 0L));
+        }
+        else {
+            final long cost = weigher.weigh(reference, children);
+            final CachedList<T> entry = new CachedList<T>(reference, children, index, cost);
+            entry.access = ticker.incrementAndGet();
+            previous = impl.put(reference, entry);
+            weight.addAndGet(cost);
+            if(null != previous) {
+                synchronized(previous) {
+                    weight.addAndGet(-previous.weight);
+                }
+            }
+            if(maximum != Long.MAX_VALUE) {
+                queue.offer(entry);
+                queued.incrementAndGet();
+                // Evict least recently used listings other than the one just added
+                this.trim(entry);
+            }
+        }
+        if(null == previous) {
+            return null;
+        }
+        return previous.list;
     }
 
     /**
@@ -162,10 +470,11 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     }
 
     public boolean isValid(final T reference) {
-        if(this.isCached(reference)) {
-            return !this.get(reference).attributes().isInvalid();
+        final CachedList<T> entry = this.entry(reference);
+        if(null == entry) {
+            return false;
         }
-        return false;
+        return !entry.list.attributes().isInvalid();
     }
 
     /**
@@ -175,8 +484,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Invalidate %s", reference));
         }
-        if(this.containsKey(reference)) {
-            this.get(reference).attributes().setInvalid(true);
+        final CachedList<T> entry = this.entry(reference);
+        if(null != entry) {
+            entry.list.attributes().setInvalid(true);
         }
         else {
             log.warn(String.format("No cache for %s", reference));
@@ -190,7 +500,13 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Clearing cache %s", this.toString()));
         }
-        impl.clear();
+        root.set(null);
+        for(Map.Entry<T, CachedList<T>> entry : impl.entrySet()) {
+            this.discard(entry.getKey(), entry.getValue());
+        }
+        while(queue.poll() != null) {
+            queued.decrementAndGet();
+        }
         reverse.clear();
     }
 
@@ -198,7 +514,43 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", weight=").append(weight);
+        sb.append(", statistics=").append(statistics);
         sb.append('}');
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Directory listing with index of children by reference
+     */
+    private static final class CachedList<T extends Referenceable> {
+        private final T reference;
+        private final AttributedList<T> list;
+        private final Map<CacheReference, T> index;
+        /**
+         * Weight determined for number of children and hidden files in size
+         */
+        private long weight;
+        private volatile int size;
+        private final long timestamp = System.currentTimeMillis();
+        /**
+         * Last access to order listings by recent use
+         */
+        private volatile long access;
+
+        private CachedList(final T reference, final AttributedList<T> list, final Map<CacheReference, T> index, final long weight) {
+            this.reference = reference;
+            this.list = list;
+            this.index = index;
+            this.weight = weight;
+            this.size = this.size();
+        }
+
+        /**
+         * @return Number of children including hidden files currently in listing
+         */
+        private int size() {
+            return list.size() + list.attributes().getHidden().size();
+        }
+    }
+}
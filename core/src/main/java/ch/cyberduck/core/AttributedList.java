@@ -20,18 +20,22 @@ package ch.cyberduck.core;
 
 import org.apache.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
 
 /**
  * A sortable list with a map to lookup values by key.
+ * <p>
+ * Readers iterate over a snapshot of the list as with a copy on write list. Appending elements
+ * does not copy the backing array and runs in amortized constant time.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -53,8 +57,25 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-            = new CopyOnWriteArrayList<>();
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Published elements. Appending writes past the size of any published snapshot. All
+     * other modifications copy the backing array.
+     */
+    private volatile Snapshot<E> impl
+            = new Snapshot<E>(new Referenceable[0], 0);
+
+    /**
+     * Guards modifications and the index
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Lookup of first position by element. Built on first lookup and discarded
+     * when the list is modified other than by appending.
+     */
+    private Map<E, Integer> index;
 
     /**
      * Metadata of file listing
@@ -94,13 +115,35 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
 
     public boolean add(final E e) {
         if(attributes.getFilter().accept(e)) {
-            return impl.add(e);
+            synchronized(lock) {
+                final Snapshot<E> current = impl;
+                Referenceable[] elements = current.elements;
+                if(current.size == elements.length) {
+                    elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+                }
+                elements[current.size] = e;
+                impl = new Snapshot<E>(elements, current.size + 1);
+                if(index != null) {
+                    index.putIfAbsent(e, current.size);
+                }
+            }
+            return true;
         }
-        return attributes.getHidden().add(e);
+        return attributes.addHidden(e);
     }
 
     public void add(final int index, final E e) {
-        impl.add(index, e);
+        synchronized(lock) {
+            final Snapshot<E> current = impl;
+            if(index < 0 || index > current.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, current.size));
+            }
+            final Referenceable[] elements = new Referenceable[current.size + 1];
+            System.arraycopy(current.elements, 0, elements, 0, index);
+            elements[index] = e;
+            System.arraycopy(current.elements, index, elements, index + 1, current.size - index);
+            this.publish(elements, elements.length);
+        }
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -115,15 +158,53 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public E get(final E reference) {
-        final int index = impl.indexOf(reference);
-        if(-1 == index) {
-            return null;
+        synchronized(lock) {
+            final int index = this.indexOf(reference);
+            if(-1 == index) {
+                return null;
+            }
+            return impl.get(index);
         }
-        return impl.get(index);
     }
 
     public void set(final int i, final E e) {
-        impl.set(i, e);
+        synchronized(lock) {
+            final Snapshot<E> current = impl;
+            if(i < 0 || i >= current.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, current.size));
+            }
+            final Referenceable[] elements = Arrays.copyOf(current.elements, current.size);
+            elements[i] = e;
+            this.publish(elements, elements.length);
+        }
+    }
+
+    /**
+     * Replace consecutive elements with a single copy of the backing array
+     *
+     * @param i            Index of first element to replace
+     * @param replacements Elements replacing current elements starting at index
+     */
+    public void set(final int i, final List<E> replacements) {
+        synchronized(lock) {
+            final Snapshot<E> current = impl;
+            if(i < 0 || i + replacements.size() > current.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d with %d elements for size %d", i, replacements.size(), current.size));
+            }
+            final Referenceable[] elements = Arrays.copyOf(current.elements, current.size);
+            for(int k = 0; k < replacements.size(); k++) {
+                elements[i + k] = replacements.get(k);
+            }
+            this.publish(elements, elements.length);
+        }
+    }
+
+    /**
+     * Replace the backing array and discard the index
+     */
+    private void publish(final Referenceable[] elements, final int size) {
+        impl = new Snapshot<E>(elements, size);
+        index = null;
     }
 
     @Override
@@ -132,13 +213,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
+     * Sort a copy of the current elements and publish the result.
      *
      * @param comparator The comparator to use
-     * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
      */
+    @SuppressWarnings("unchecked")
     private void doSort(final Comparator<E> comparator) {
         if(null == comparator) {
             return;
@@ -146,7 +225,12 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Sort list %s with comparator %s", this, comparator));
         }
-        Collections.sort(impl, comparator);
+        synchronized(lock) {
+            final Snapshot<E> current = impl;
+            final E[] elements = (E[]) Arrays.copyOf(current.elements, current.size);
+            Arrays.sort(elements, comparator);
+            this.publish(elements, elements.length);
+        }
     }
 
     /**
@@ -166,6 +250,7 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * @param filter     Filter
      * @return Filtered list sorted with comparator
      */
+    @SuppressWarnings("unchecked")
     public AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
         boolean needsSorting = false;
         if(null != comparator) {
@@ -187,21 +272,27 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
-            // Add previously hidden files to children
-            final List<E> hidden = attributes.getHidden();
-            if(!hidden.isEmpty()) {
-                impl.addAll(hidden);
+            synchronized(lock) {
+                final Snapshot<E> current = impl;
+                // Add previously hidden files to children
+                final List<E> hidden = attributes.getHidden();
+                final Referenceable[] elements = new Referenceable[current.size + hidden.size()];
+                int size = 0;
+                final List<E> previous = Arrays.asList((E[]) hidden.toArray(new Referenceable[hidden.size()]));
                 // Clear the previously set of hidden files
-                hidden.clear();
-            }
-            for(Iterator<E> iter = impl.iterator(); iter.hasNext(); ) {
-                final E child = iter.next();
-                if(!filter.accept(child)) {
-                    // Child not accepted by filter; add to cached hidden files
-                    attributes.addHidden(child);
-                    // Remove hidden file from current file listing
-                    iter.remove();
+                attributes.clear();
+                for(List<E> l : Arrays.asList(current, previous)) {
+                    for(E child : l) {
+                        if(filter.accept(child)) {
+                            elements[size++] = child;
+                        }
+                        else {
+                            // Child not accepted by filter; add to cached hidden files
+                            attributes.addHidden(child);
+                        }
+                    }
                 }
+                this.publish(elements, size);
             }
             // Saving last filter
             attributes.setFilter(filter);
@@ -216,7 +307,9 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      */
     public void clear() {
         attributes.clear();
-        impl.clear();
+        synchronized(lock) {
+            this.publish(new Referenceable[0], 0);
+        }
     }
 
     public boolean isEmpty() {
@@ -228,29 +321,66 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return this.indexOf(e) != -1;
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        for(E e : impl) {
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final Snapshot<E> current = impl;
+        return (E[]) Arrays.copyOf(current.elements, current.size);
     }
 
+    /**
+     * @return Unmodifiable snapshot of the current elements
+     */
     public List<E> toList() {
         return impl;
     }
 
+    /**
+     * @param e Element with same reference
+     * @return Index of the first element equal to the reference or -1
+     */
+    @SuppressWarnings("unchecked")
     public int indexOf(final E e) {
-        return impl.indexOf(e);
+        synchronized(lock) {
+            final Snapshot<E> current = impl;
+            if(null == index) {
+                index = new HashMap<E, Integer>(Math.max(16, (int) (current.size / .75f) + 1));
+                for(int i = 0; i < current.size; i++) {
+                    index.putIfAbsent((E) current.elements[i], i);
+                }
+            }
+            final Integer i = index.get(e);
+            if(null == i) {
+                return -1;
+            }
+            return i;
+        }
     }
 
     public boolean remove(final E e) {
-        return impl.remove(e);
+        synchronized(lock) {
+            final int i = this.indexOf(e);
+            if(-1 == i) {
+                return false;
+            }
+            final Snapshot<E> current = impl;
+            final Referenceable[] elements = new Referenceable[current.size - 1];
+            System.arraycopy(current.elements, 0, elements, 0, i);
+            System.arraycopy(current.elements, i + 1, elements, i, current.size - i - 1);
+            this.publish(elements, elements.length);
+            return true;
+        }
     }
 
     @Override
@@ -269,4 +399,31 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     public int hashCode() {
         return Objects.hash(impl);
     }
-}
\ No newline at end of file
+
+    /**
+     * Immutable view of the first elements of a backing array
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Referenceable[] elements;
+        private final int size;
+
+        private Snapshot(final Referenceable[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -19,8 +19,11 @@ package ch.cyberduck.core;
  */
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -45,6 +48,11 @@ public class AttributedListAttributes<E> {
      */
     private final List<E> hidden = new ArrayList<E>();
 
+    /**
+     * Index of hidden files
+     */
+    private final Set<E> index = new HashSet<E>();
+
     /**
      * The cached version should be superseded
      * with an updated listing.
@@ -95,6 +103,7 @@ public class AttributedListAttributes<E> {
      * @param child Hidden element
      */
     public boolean addHidden(final E child) {
+        index.add(child);
         return hidden.add(child);
     }
 
@@ -102,7 +111,15 @@ public class AttributedListAttributes<E> {
      * @return Hidden elements
      */
     public List<E> getHidden() {
-        return hidden;
+        return Collections.unmodifiableList(hidden);
+    }
+
+    /**
+     * @param child Element
+     * @return True if element is hidden
+     */
+    public boolean isHidden(final E child) {
+        return index.contains(child);
     }
 
     /**
@@ -136,5 +153,6 @@ public class AttributedListAttributes<E> {
 
     public void clear() {
         hidden.clear();
+        index.clear();
     }
 }
@@ -22,6 +22,7 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.FileChannelOutputStream;
 import ch.cyberduck.core.io.LocalRepeatableFileInputStream;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
@@ -41,12 +42,14 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.Objects;
@@ -393,6 +396,22 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         }
     }
 
+    /**
+     * Write to existing file at offset without truncating
+     *
+     * @param offset Position in file to start writing at
+     */
+    public OutputStream getOutputStream(final long offset) throws AccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.position(offset);
+            return new FileChannelOutputStream(channel);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     public Object lock(final boolean interactive) throws AccessDeniedException {
         return null;
     }
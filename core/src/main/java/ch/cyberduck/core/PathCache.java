@@ -17,7 +17,8 @@ package ch.cyberduck.core;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
-import java.util.List;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 public class PathCache extends AbstractCache<Path> {
 
@@ -30,10 +31,41 @@ public class PathCache extends AbstractCache<Path> {
         };
     }
 
+    /**
+     * @return Cache for directory listings in browser bounded by weight or number of listings with time to live
+     * configured in preferences
+     */
+    public static PathCache browser() {
+        final Preferences preferences = PreferencesFactory.get();
+        if(preferences.getLong("browser.cache.weight") > 0) {
+            return new PathCache(new PathSizeCacheWeigher(), preferences.getLong("browser.cache.weight"),
+                    preferences.getLong("browser.cache.ttl") * 1000L);
+        }
+        return new PathCache(preferences.getInteger("browser.cache.size"),
+                preferences.getLong("browser.cache.ttl") * 1000L);
+    }
+
     public PathCache(final int size) {
         super(size);
     }
 
+    /**
+     * @param size Maximum number of directory listings
+     * @param ttl  Time to live in milliseconds or -1 to never expire
+     */
+    public PathCache(final int size, final long ttl) {
+        super(size, ttl);
+    }
+
+    /**
+     * @param weigher Cost of directory listing
+     * @param maximum Maximum total weight of cached directory listings
+     * @param ttl     Time to live in milliseconds or -1 to never expire
+     */
+    public PathCache(final CacheWeigher<Path> weigher, final long maximum, final long ttl) {
+        super(weigher, maximum, ttl);
+    }
+
     @Override
     protected CacheReference key(final Path file) {
         return new DefaultPathPredicate(file);
@@ -41,7 +73,6 @@ public class PathCache extends AbstractCache<Path> {
 
     @Override
     public boolean isHidden(final Path file) {
-        final List<?> hidden = this.get(file.getParent()).attributes().getHidden();
-        return hidden.contains(file);
+        return this.get(file.getParent()).attributes().isHidden(file);
     }
 }
@@ -0,0 +1,44 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+/**
+ * Estimate retained heap size in bytes of directory listings
+ */
+public class PathSizeCacheWeigher implements CacheWeigher<Path> {
+
+    /**
+     * Approximate size of path with attributes excluding name
+     */
+    private static final long ENTRY = 512L;
+
+    @Override
+    public long weigh(final Path parent, final AttributedList<Path> children) {
+        long bytes = ENTRY;
+        for(Path file : children) {
+            bytes += this.weigh(file);
+        }
+        for(Path file : children.attributes().getHidden()) {
+            bytes += this.weigh(file);
+        }
+        return bytes;
+    }
+
+    private long weigh(final Path file) {
+        // Two bytes per character of absolute path
+        return ENTRY + 2L * file.getAbsolute().length();
+    }
+}
@@ -0,0 +1,40 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+import java.util.List;
+
+/**
+ * List all files contained in a directory and its subdirectories with a single paginated listing omitting
+ * the delimiter instead of listing each directory
+ */
+public interface RecursiveListService {
+    /**
+     * @param directory Container or directory in container
+     * @param listener  Notified with the files of every page retrieved
+     */
+    void list(Path directory, Listener listener) throws BackgroundException;
+
+    interface Listener {
+        /**
+         * @param chunk Files and directory placeholders of single page
+         * @return False to stop listing
+         */
+        boolean chunk(List<Path> chunk) throws BackgroundException;
+    }
+}
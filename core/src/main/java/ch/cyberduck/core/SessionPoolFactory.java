@@ -16,6 +16,8 @@ package ch.cyberduck.core;
  */
 
 import ch.cyberduck.core.pool.DefaultSessionPool;
+import ch.cyberduck.core.pool.MultiplexingSessionFactory;
+import ch.cyberduck.core.pool.PooledSessionFactory;
 import ch.cyberduck.core.pool.SessionPool;
 import ch.cyberduck.core.pool.StatefulSessionPool;
 import ch.cyberduck.core.pool.StatelessSessionPool;
@@ -82,7 +84,16 @@ public class SessionPoolFactory {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Create new pooled connection pool for %s", bookmark));
                 }
-                return new DefaultSessionPool(connect, x509TrustManager, x509KeyManager, vault, cache, transcript, bookmark)
+                final PooledSessionFactory factory;
+                if(bookmark.getProtocol().getType() == Protocol.Type.sftp && preferences.getBoolean("connection.pool.multiplex.enable")) {
+                    // Open sessions on additional channels of a connection
+                    factory = new MultiplexingSessionFactory(connect, x509TrustManager, x509KeyManager, cache, bookmark, vault,
+                            preferences.getInteger("connection.pool.multiplex.channels"));
+                }
+                else {
+                    factory = new PooledSessionFactory(connect, x509TrustManager, x509KeyManager, cache, bookmark, vault);
+                }
+                return new DefaultSessionPool(connect, factory, vault, cache, transcript, bookmark)
                         .withMinIdle(preferences.getInteger("connection.pool.minidle"))
                         .withMaxIdle(preferences.getInteger("connection.pool.maxidle"))
                         .withMaxTotal(preferences.getInteger("connection.pool.maxtotal"));
@@ -0,0 +1,35 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+
+/**
+ * Open additional sessions on channels of the connected and authenticated transport of a session
+ */
+public interface Multiplexing {
+    /**
+     * @param cache Directory listing cache
+     * @return Connected session using a new channel of the transport shared with this session
+     * @throws ConnectionRefusedException Server refused to open another channel on the transport
+     */
+    Session<?> open(Cache<Path> cache) throws BackgroundException;
+}
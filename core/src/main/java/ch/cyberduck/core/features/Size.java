@@ -0,0 +1,40 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+/**
+ * Sum up the size of all files in a directory tree without listing each directory
+ */
+public interface Size {
+    /**
+     * @param directory Directory
+     * @param callback  Notified with running total after each chunk of files
+     * @return Total size of all files contained in directory and its subdirectories
+     */
+    long calculate(Path directory, Callback callback) throws BackgroundException;
+
+    interface Callback {
+        /**
+         * @param size Size of files found so far
+         * @throws ConnectionCanceledException Abort calculation
+         */
+        void update(long size) throws ConnectionCanceledException;
+    }
+}
@@ -51,8 +51,8 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
         catch(NoSuchAlgorithmException e) {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
+        final byte[] buffer = BufferPool.get().borrow(16384);
         try {
-            byte[] buffer = new byte[16384];
             int bytesRead;
             while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
                 md.update(buffer, 0, bytesRead);
@@ -62,6 +62,7 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
         finally {
+            BufferPool.get().release(buffer);
             IOUtils.closeQuietly(in);
         }
         return md.digest();
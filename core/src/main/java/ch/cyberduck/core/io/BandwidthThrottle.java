@@ -2,14 +2,17 @@ package ch.cyberduck.core.io;
 
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Limits throughput of a stream to at most N bytes per T seconds.  Mutable and
+ * Limits throughput of a stream to at most N bytes per second.  Mutable and
  * thread-safe.<p>
  * <p/>
  * In the following example, <tt>throttle</tt> is used to send the contents of
- * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N/T</tt> bytes per second:
+ * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N</tt> bytes per second:
  * <pre>
- *      BandwidthThrottle throttle=new BandwidthThrottle(N, T);
+ *      BandwidthThrottle throttle=new BandwidthThrottle(N);
  *      OutputStream out=...;
  *      byte[] buf=...;
  *      for (int i=0; i<buf.length; ) {
@@ -19,21 +22,15 @@ import org.apache.log4j.Logger;
  *      }
  * </pre>
  * <p/>
- * This class works by allowing exactly N bytes to be sent every T seconds.  If
- * the number of bytes for a given window have been exceeded, subsequent calls
- * to request(..) will block.  The default value of T is 100 milliseconds.
- * Smaller window values T allow fairer bandwidth sharing and less noticeable
- * pauses but may decrease efficiency slightly.<p>
- * <p/>
- * Note that throttles are <i>not</i> cumulative.  In the future, this may allow
- * enable fancier control.  Also, BandwidthThrottle may be able delegate to
- * other throttles.  This would allow, for example, a 15 KB/s Gnutella messaging
- * throttle, with no more than 10 KB/s devoted to uploads.<p>
+ * This class works as a token bucket refilled continuously at the configured rate holding
+ * at most the bytes allowed for one window of 100 milliseconds. Tokens are acquired
+ * with compare-and-set without holding a lock such that concurrent callers are only
+ * delayed when the bucket is empty. A single request is granted at most the bytes of
+ * one window to share bandwidth fairly between threads using the same throttle.<p>
  * <p/>
- * This implementation is based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
- * class from
- * the Freenet project.  It has been simplified and better documented.<p>
-
+ * Throttles are cumulative when created with a parent throttle. Bytes granted must be
+ * available in this and all parent throttles, allowing for example to limit the bandwidth
+ * of a single transfer, of all transfers to a host and of all transfers of the process.<p>
  */
 public final class BandwidthThrottle {
     private static final Logger log = Logger.getLogger(BandwidthThrottle.class);
@@ -43,14 +40,29 @@ public final class BandwidthThrottle {
      */
     private static final int TICKS_PER_SECOND = 10;
     /**
-     * The value of T, in milliseconds.
+     * The window length in nanoseconds
      */
-    private static final int MILLIS_PER_TICK = 1000 / TICKS_PER_SECOND;
+    private static final long NANOS_PER_TICK = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
 
     /**
-     * The bytes to send per tick.  Modified by setThrottle.
+     * No throttling
      */
-    private volatile int bytesPerTick;
+    public static final int UNLIMITED = -1;
+
+    /**
+     * Throttle to acquire bytes from in addition or null
+     */
+    private final BandwidthThrottle parent;
+
+    /**
+     * Bytes per second allowed
+     */
+    private volatile float rate = UNLIMITED;
+
+    /**
+     * Nanoseconds to wait for a single byte. Modified by setRate.
+     */
+    private volatile double nanosPerByte;
 
     /**
      * Whether or not we're only allowing bandwidth to be used every other
@@ -59,32 +71,25 @@ public final class BandwidthThrottle {
     private volatile boolean switching = false;
 
     /**
-     * The number of bytes remaining in this window.
-     */
-    private int availableBytes;
-    /**
-     * The system time when the window is reset so more bytes can be sent.
+     * Time in nanoseconds from which the bucket is filled with tokens. The bucket is empty
+     * if this is the current time and full if it is at least one window in the past.
      */
-    private long nextTickTime;
+    private final AtomicLong empty = new AtomicLong(System.nanoTime() - NANOS_PER_TICK);
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
      */
     public BandwidthThrottle(float bytesPerSecond) {
-        this.setRate(bytesPerSecond);
+        this(null, bytesPerSecond);
     }
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate,
      * only allowing bandwidth to be used every other second if
      * switching is true.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
@@ -92,24 +97,25 @@ public final class BandwidthThrottle {
      *                       every other second.
      */
     public BandwidthThrottle(float bytesPerSecond, boolean switching) {
-        this.setRate(bytesPerSecond);
+        this(null, bytesPerSecond);
         this.setSwitching(switching);
-
     }
 
     /**
-     * No throttling
-     */
-    public static final int UNLIMITED = -1;
-
-    /**
-     * Bytes per second allowed
+     * Creates a new bandwidth throttle at the given throttle rate additionally
+     * limited by the rate of the parent throttle.
+     *
+     * @param parent         Throttle shared with other streams or null
+     * @param bytesPerSecond the limits in bytes (not bits!) per second
+     *                       (not milliseconds!)
      */
-    private float rate = UNLIMITED;
+    public BandwidthThrottle(final BandwidthThrottle parent, float bytesPerSecond) {
+        this.parent = parent;
+        this.setRate(bytesPerSecond);
+    }
 
     /**
-     * Sets the throttle to the given throttle rate.  The default windows size
-     * T is used.  The bytes per windows N is calculated from bytesPerSecond.
+     * Sets the throttle to the given throttle rate.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
@@ -122,11 +128,8 @@ public final class BandwidthThrottle {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Set rate to %s bytes per second", bytesPerSecond));
             }
+            nanosPerByte = bytesPerSecond == 0 ? Double.POSITIVE_INFINITY : TimeUnit.SECONDS.toNanos(1) / (double) bytesPerSecond;
             rate = bytesPerSecond;
-            bytesPerTick = (int) (bytesPerSecond / TICKS_PER_SECOND);
-        }
-        if(switching) {
-            this.fixBytesPerTick(true);
         }
     }
 
@@ -138,92 +141,134 @@ public final class BandwidthThrottle {
     }
 
     /**
-     * Sets whether or not this throttle is switching bandwidth on/off.
+     * @return Throttle additionally limiting the rate or null
+     */
+    public BandwidthThrottle getParent() {
+        return parent;
+    }
+
+    /**
+     * Sets whether or not this throttle is switching bandwidth on/off. The rate is
+     * doubled to keep the average throughput.
      */
     public void setSwitching(boolean switching) {
-        log.debug("setSwitching:" + switching);
-        if(this.switching != switching) {
-            fixBytesPerTick(switching);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Set switching to %s", switching));
         }
         this.switching = switching;
     }
 
     /**
-     * Modifies bytesPerTick to either be double or half of what it was.
-     * This is necessary because of the 'switching', which can effectively
-     * reduce or raise the amount of data transferred.
+     * Blocks until the caller can send at least one byte without violating
+     * bandwidth constraints of this and all parent throttles.  Records the number of byte sent.
+     *
+     * @param desired the number of bytes the caller would like to send
+     * @return the number of bytes the sender is expected to send, which
+     * is always greater than one and less than or equal to desired
      */
-    private void fixBytesPerTick(boolean raise) {
-        int newBytesPerTick = bytesPerTick;
-        if(raise) {
-            newBytesPerTick *= 2;
+    public int request(int desired) {
+        if(desired <= 0) {
+            return desired;
         }
-        else {
-            newBytesPerTick /= 2;
+        final int allowed = this.acquire(desired);
+        if(null == parent) {
+            return allowed;
         }
-        if(newBytesPerTick < 0) // overflowed?
-        {
-            newBytesPerTick = Integer.MAX_VALUE;
+        final int granted = parent.request(allowed);
+        if(granted < allowed) {
+            // Return tokens not granted by parent
+            this.refund(allowed - granted);
         }
-        bytesPerTick = newBytesPerTick;
+        return granted;
     }
 
     /**
-     * Blocks until the caller can send at least one byte without violating
-     * bandwidth constraints.  Records the number of byte sent.
+     * Return bytes previously granted but not sent to this and all parent throttles.
      *
-     * @param desired the number of bytes the caller would like to send
-     * @return the number of bytes the sender is expected to send, which
-     *         is always greater than one and less than or equal to desired
+     * @param unused Number of bytes not sent
      */
-    public synchronized int request(int desired) {
-        if(UNLIMITED == rate) {
-            return desired;
+    public void release(int unused) {
+        if(unused <= 0) {
+            return;
+        }
+        this.refund(unused);
+        if(parent != null) {
+            parent.release(unused);
+        }
+    }
+
+    /**
+     * Return tokens to this throttle only
+     */
+    private void refund(int unused) {
+        if(UNLIMITED != rate) {
+            empty.addAndGet(-this.toNanos(unused));
         }
-        waitForBandwidth();
-        int result = Math.min(desired, availableBytes);
-        availableBytes -= result;
-        return result;
     }
 
     /**
-     * Waits until data is _availableBytes.
+     * Acquire tokens from this throttle only, waiting without holding any lock if
+     * the bucket is empty.
      */
-    private void waitForBandwidth() {
+    private int acquire(int desired) {
         while(true) {
-            long now = System.currentTimeMillis();
-            updateWindow(now);
-            if(availableBytes != 0) {
-                break;
+            if(UNLIMITED == rate) {
+                return desired;
             }
-            try {
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
+            final long now = System.nanoTime();
+            if(switching) {
+                final long millis = System.currentTimeMillis();
+                if((millis / 1000) % 2 != 0) {
+                    // Wait for the next second
+                    this.await(TimeUnit.MILLISECONDS.toNanos(1000 - millis % 1000));
+                    continue;
                 }
-                Thread.sleep(nextTickTime - now);
             }
-            catch(InterruptedException e) {
-                log.error(e.getMessage(), e);
+            final long current = empty.get();
+            // Limit burst to a single window or byte
+            final long start = Math.max(current, now - Math.max(NANOS_PER_TICK, this.toNanos(1L)));
+            final long available = (long) ((now - start) / this.getNanosPerByte());
+            // Avoid granting small remainders by waiting for a tenth of a window or the desired number of bytes if less
+            final long minimum = Math.max(1L, Math.min(desired, (long) (NANOS_PER_TICK / this.getNanosPerByte() / TICKS_PER_SECOND)));
+            if(available < minimum) {
+                this.await(start + this.toNanos(minimum) - now);
+                continue;
+            }
+            final int allowed = (int) Math.min(desired, available);
+            if(empty.compareAndSet(current, start + this.toNanos(allowed))) {
+                return allowed;
             }
         }
     }
 
-    /**
-     * Updates _availableBytes and _nextTickTime if possible.
-     */
-    private void updateWindow(long now) {
-        if(now >= nextTickTime) {
-            if(!switching || ((now / 1000) % 2) == 0) {
-                availableBytes = bytesPerTick;
-                nextTickTime = now + MILLIS_PER_TICK;
-            }
-            else {
-                availableBytes = 0;
-                // the next tick time is the time we'll hit
-                // the next second.
-                long diff = 1000 - (now % 1000);
-                nextTickTime = now + diff;
-            }
+    private double getNanosPerByte() {
+        if(switching) {
+            return nanosPerByte / 2;
+        }
+        return nanosPerByte;
+    }
+
+    private long toNanos(final long bytes) {
+        final double nanos = bytes * this.getNanosPerByte();
+        if(nanos > Long.MAX_VALUE / 2) {
+            return Long.MAX_VALUE / 2;
+        }
+        return (long) Math.ceil(nanos);
+    }
+
+    private void await(final long nanos) {
+        if(nanos <= 0) {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Throttling bandwidth for %d milliseconds", TimeUnit.NANOSECONDS.toMillis(nanos)));
+        }
+        try {
+            // Sleep at most one window to pick up rate changes
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.min(nanos, NANOS_PER_TICK) + TimeUnit.MILLISECONDS.toNanos(1) - 1));
+        }
+        catch(InterruptedException e) {
+            log.error(e.getMessage(), e);
         }
     }
 
@@ -246,4 +291,4 @@ public final class BandwidthThrottle {
     public int hashCode() {
         return (rate != +0.0f ? Float.floatToIntBits(rate) : 0);
     }
-}
\ No newline at end of file
+}
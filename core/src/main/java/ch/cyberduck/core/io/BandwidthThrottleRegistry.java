@@ -0,0 +1,88 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bandwidth throttles shared by all transfers of the process and by all transfers to the same host. Throttles
+ * for a single transfer are created with the throttle for the host as parent which itself is limited by the
+ * process-wide throttle for the transfer direction.
+ */
+public final class BandwidthThrottleRegistry {
+
+    private static final BandwidthThrottleRegistry global = new BandwidthThrottleRegistry();
+
+    public static BandwidthThrottleRegistry get() {
+        return global;
+    }
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final BandwidthThrottle upload
+            = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+
+    private final BandwidthThrottle download
+            = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+
+    private final ConcurrentMap<String, BandwidthThrottle> uploads
+            = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, BandwidthThrottle> downloads
+            = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Connection details
+     * @return New throttle for a single upload transfer limited by the host and process-wide upload bandwidth
+     */
+    public BandwidthThrottle upload(final Host host) {
+        this.refresh();
+        return new BandwidthThrottle(uploads.computeIfAbsent(host.getHostname(), k -> new BandwidthThrottle(upload,
+                preferences.getFloat("queue.upload.bandwidth.host.bytes"))), preferences.getFloat("queue.upload.bandwidth.bytes"));
+    }
+
+    /**
+     * @param host Connection details
+     * @return New throttle for a single download transfer limited by the host and process-wide download bandwidth
+     */
+    public BandwidthThrottle download(final Host host) {
+        this.refresh();
+        return new BandwidthThrottle(downloads.computeIfAbsent(host.getHostname(), k -> new BandwidthThrottle(download,
+                preferences.getFloat("queue.download.bandwidth.host.bytes"))), preferences.getFloat("queue.download.bandwidth.bytes"));
+    }
+
+    /**
+     * Apply current preferences to the process-wide and all per host throttles shared by transfers
+     */
+    public void refresh() {
+        upload.setRate(preferences.getFloat("queue.upload.bandwidth.total.bytes"));
+        download.setRate(preferences.getFloat("queue.download.bandwidth.total.bytes"));
+        final float uploadHost = preferences.getFloat("queue.upload.bandwidth.host.bytes");
+        for(BandwidthThrottle throttle : uploads.values()) {
+            throttle.setRate(uploadHost);
+        }
+        final float downloadHost = preferences.getFloat("queue.download.bandwidth.host.bytes");
+        for(BandwidthThrottle throttle : downloads.values()) {
+            throttle.setRate(downloadHost);
+        }
+    }
+}
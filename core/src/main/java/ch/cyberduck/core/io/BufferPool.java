@@ -0,0 +1,161 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of byte arrays reused for transfer buffers. Buffers are pooled by length and
+ * only returned to the pool if the number of idle buffers of the same length and the total
+ * of idle bytes are within the limits.
+ */
+public final class BufferPool {
+    private static final Logger log = Logger.getLogger(BufferPool.class);
+
+    private static final BufferPool global = new BufferPool(
+            PreferencesFactory.get().getInteger("connection.buffer.pool.size"),
+            PreferencesFactory.get().getLong("connection.buffer.pool.limit"));
+
+    public static BufferPool get() {
+        return global;
+    }
+
+    private final ConcurrentMap<Integer, Queue<byte[]>> idle
+            = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, AtomicInteger> count
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of idle buffers per length
+     */
+    private final int size;
+
+    /**
+     * Maximum number of bytes held in idle buffers
+     */
+    private final long limit;
+
+    private final AtomicLong pooled = new AtomicLong();
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * @param size  Maximum number of idle buffers retained per buffer length
+     * @param limit Maximum number of bytes retained in idle buffers
+     */
+    public BufferPool(final int size, final long limit) {
+        this.size = size;
+        this.limit = limit;
+    }
+
+    /**
+     * @param length Buffer length
+     * @return Buffer from pool or newly allocated buffer if no idle buffer of the requested length is available
+     */
+    public byte[] borrow(final int length) {
+        borrowed.incrementAndGet();
+        final Queue<byte[]> queue = idle.get(length);
+        if(queue != null) {
+            final byte[] buffer = queue.poll();
+            if(buffer != null) {
+                count.get(length).decrementAndGet();
+                pooled.addAndGet(-length);
+                return buffer;
+            }
+        }
+        exhausted.incrementAndGet();
+        if(log.isTraceEnabled()) {
+            log.trace(String.format("No idle buffer with length %d in pool", length));
+        }
+        return new byte[length];
+    }
+
+    /**
+     * Return buffer to pool. The buffer must not be used by the caller afterwards.
+     *
+     * @param buffer Buffer previously borrowed
+     */
+    public void release(final byte[] buffer) {
+        if(null == buffer) {
+            return;
+        }
+        final int length = buffer.length;
+        if(pooled.addAndGet(length) > limit) {
+            pooled.addAndGet(-length);
+            discarded.incrementAndGet();
+            return;
+        }
+        final AtomicInteger c = count.computeIfAbsent(length, k -> new AtomicInteger());
+        if(c.incrementAndGet() > size) {
+            c.decrementAndGet();
+            pooled.addAndGet(-length);
+            discarded.incrementAndGet();
+            return;
+        }
+        idle.computeIfAbsent(length, k -> new ConcurrentLinkedQueue<>()).offer(buffer);
+    }
+
+    /**
+     * @return Number of buffers requested
+     */
+    public long getBorrowed() {
+        return borrowed.get();
+    }
+
+    /**
+     * @return Number of requests that required allocating a new buffer because no idle buffer was available
+     */
+    public long getExhausted() {
+        return exhausted.get();
+    }
+
+    /**
+     * @return Number of buffers not retained on release because the pool was full
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * @return Number of bytes held in idle buffers
+     */
+    public long getPooled() {
+        return pooled.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferPool{");
+        sb.append("borrowed=").append(borrowed);
+        sb.append(", exhausted=").append(exhausted);
+        sb.append(", discarded=").append(discarded);
+        sb.append(", pooled=").append(pooled);
+        sb.append('}');
+        return sb.toString();
+    }
+}
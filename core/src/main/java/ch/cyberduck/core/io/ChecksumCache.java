@@ -0,0 +1,326 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Persistent store of checksums computed for local files. An entry is only reused if size, modification
+ * date and inode of the file are unchanged since the checksum was computed. Entries are appended to a
+ * tab separated file in the application support directory. The number of entries is bounded with the
+ * least recently used evicted first and entries for files no longer found are dropped.
+ */
+public final class ChecksumCache {
+    private static final Logger log = Logger.getLogger(ChecksumCache.class);
+
+    private static final ChecksumCache global = new ChecksumCache(
+            LocalFactory.get(PreferencesFactory.get().getProperty("application.support.path"), "Checksums.tsv"),
+            PreferencesFactory.get().getBoolean("local.checksum.cache.enable"));
+
+    public static ChecksumCache get() {
+        return global;
+    }
+
+    private final Local file;
+
+    private final boolean enabled;
+
+    /**
+     * Maximum number of entries
+     */
+    private final int size;
+
+    /**
+     * Checksum by algorithm and absolute path of local file in access order
+     */
+    private final Map<String, Entry> entries;
+
+    private volatile boolean loaded;
+
+    /**
+     * Number of lines in persistent store
+     */
+    private int lines;
+
+    /**
+     * @param file    Persistent store
+     * @param enabled Reuse previously computed checksums
+     */
+    public ChecksumCache(final Local file, final boolean enabled) {
+        this(file, enabled, PreferencesFactory.get().getInteger("local.checksum.cache.size"));
+    }
+
+    /**
+     * @param size Maximum number of entries retained
+     */
+    public ChecksumCache(final Local file, final boolean enabled, final int size) {
+        this.file = file;
+        this.enabled = enabled;
+        this.size = size;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > ChecksumCache.this.size;
+            }
+        });
+    }
+
+    /**
+     * Reuse stored checksum if the local file is unchanged or compute and store checksum otherwise
+     *
+     * @param local   Local file
+     * @param feature Checksum implementation
+     * @param status  Transfer status passed to checksum implementation
+     * @return Checksum of file contents
+     */
+    public Checksum compute(final Local local, final ChecksumCompute feature, final TransferStatus status) throws BackgroundException {
+        final HashAlgorithm algorithm = this.algorithm(feature);
+        if(!enabled || null == algorithm || StringUtils.containsAny(local.getAbsolute(), '\t', '\n', '\r')) {
+            return feature.compute(local.getInputStream(), status);
+        }
+        if(!loaded) {
+            this.load();
+        }
+        final String key = String.format("%s:%s", algorithm.name(), local.getAbsolute());
+        final Stat before = this.stat(local);
+        if(null == before) {
+            entries.remove(key);
+        }
+        else {
+            final Entry entry = entries.get(key);
+            if(null != entry && entry.stat.equals(before)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Reuse checksum %s for unchanged file %s", entry.checksum, local));
+                }
+                return entry.checksum;
+            }
+        }
+        final Checksum checksum = feature.compute(local.getInputStream(), status);
+        if(null == before || Checksum.NONE == checksum) {
+            return checksum;
+        }
+        // Discard if file was modified while computing checksum
+        if(before.equals(this.stat(local))) {
+            final Entry entry = new Entry(checksum, before);
+            entries.put(key, entry);
+            this.append(local, entry);
+        }
+        return checksum;
+    }
+
+    /**
+     * @return Null if checksum computed by feature is not a plain digest of the file contents
+     */
+    private HashAlgorithm algorithm(final ChecksumCompute feature) {
+        if(feature instanceof MD5ChecksumCompute) {
+            return HashAlgorithm.md5;
+        }
+        if(feature instanceof SHA1ChecksumCompute) {
+            return HashAlgorithm.sha1;
+        }
+        if(feature instanceof SHA256ChecksumCompute) {
+            return HashAlgorithm.sha256;
+        }
+        if(feature instanceof SHA512ChecksumCompute) {
+            return HashAlgorithm.sha512;
+        }
+        if(feature instanceof CRC32ChecksumCompute) {
+            return HashAlgorithm.crc32;
+        }
+        return null;
+    }
+
+    private Stat stat(final Local local) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(Paths.get(local.getAbsolute()), BasicFileAttributes.class);
+            if(!attributes.isRegularFile()) {
+                return null;
+            }
+            return new Stat(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    null == attributes.fileKey() ? StringUtils.EMPTY : attributes.fileKey().toString());
+        }
+        catch(IOException | UnsupportedOperationException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", local, e.getMessage()));
+            return null;
+        }
+    }
+
+    private synchronized void load() {
+        if(loaded) {
+            return;
+        }
+        loaded = true;
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file.getAbsolute()), StandardCharsets.UTF_8)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                lines++;
+                final String[] fields = StringUtils.splitPreserveAllTokens(line, '\t');
+                if(fields.length != 6) {
+                    log.warn(String.format("Skip malformed line %s in %s", line, file));
+                    continue;
+                }
+                if(!Files.exists(Paths.get(fields[5]))) {
+                    // Drop entry for file deleted or moved
+                    continue;
+                }
+                try {
+                    final HashAlgorithm algorithm = HashAlgorithm.valueOf(fields[0]);
+                    entries.put(String.format("%s:%s", algorithm.name(), fields[5]), new Entry(new Checksum(algorithm, fields[1]),
+                            new Stat(Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields[4])));
+                }
+                catch(IllegalArgumentException e) {
+                    log.warn(String.format("Skip malformed line %s in %s", line, file));
+                }
+            }
+        }
+        catch(NoSuchFileException e) {
+            return;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading checksums from %s. %s", file, e.getMessage()));
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Loaded %d checksums from %s", entries.size(), file));
+        }
+        this.lines = lines;
+        if(lines > entries.size()) {
+            // Drop superseded, evicted and missing entries
+            this.save();
+        }
+    }
+
+    private synchronized void append(final Local local, final Entry entry) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(file.getAbsolute()), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(this.toLine(local.getAbsolute(), entry));
+            lines++;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving checksum to %s. %s", file, e.getMessage()));
+        }
+        if(lines > 2 * size) {
+            // Compact store with evicted entries
+            this.save();
+        }
+    }
+
+    private synchronized void save() {
+        final java.nio.file.Path target = Paths.get(file.getAbsolute());
+        final java.nio.file.Path temporary = target.resolveSibling(String.format("%s.tmp", target.getFileName()));
+        try {
+            int count = 0;
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                synchronized(entries) {
+                    // Least recently used first to keep access order when loaded
+                    for(Map.Entry<String, Entry> e : entries.entrySet()) {
+                        writer.write(this.toLine(StringUtils.substringAfter(e.getKey(), ":"), e.getValue()));
+                        count++;
+                    }
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lines = count;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving checksums to %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private String toLine(final String path, final Entry entry) {
+        return String.format("%s\t%s\t%d\t%d\t%s\t%s%n", entry.checksum.algorithm.name(), entry.checksum.hash,
+                entry.stat.size, entry.stat.modified, entry.stat.inode, path);
+    }
+
+    /**
+     * Remove all stored checksums
+     */
+    public synchronized void clear() {
+        entries.clear();
+        lines = 0;
+        try {
+            Files.deleteIfExists(Paths.get(file.getAbsolute()));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private static final class Entry {
+        private final Checksum checksum;
+        private final Stat stat;
+
+        private Entry(final Checksum checksum, final Stat stat) {
+            this.checksum = checksum;
+            this.stat = stat;
+        }
+    }
+
+    /**
+     * File system attributes determining if file is unchanged
+     */
+    private static final class Stat {
+        private final long size;
+        private final long modified;
+        private final String inode;
+
+        private Stat(final long size, final long modified, final String inode) {
+            this.size = size;
+            this.modified = modified;
+            this.inode = inode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Stat)) {
+                return false;
+            }
+            final Stat stat = (Stat) o;
+            return size == stat.size && modified == stat.modified && Objects.equals(inode, stat.inode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modified, inode);
+        }
+    }
+}
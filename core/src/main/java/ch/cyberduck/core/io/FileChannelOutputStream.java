@@ -0,0 +1,36 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+public class FileChannelOutputStream extends ProxyOutputStream implements FileChannelStream {
+
+    private final FileChannel channel;
+
+    public FileChannelOutputStream(final FileChannel channel) {
+        super(Channels.newOutputStream(channel));
+        this.channel = channel;
+    }
+
+    @Override
+    public FileChannel getChannel() {
+        return channel;
+    }
+}
@@ -21,9 +21,11 @@ package ch.cyberduck.core.io;
 import org.jets3t.service.io.RepeatableFileInputStream;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
 
-public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
+public class LocalRepeatableFileInputStream extends RepeatableFileInputStream implements FileChannelStream {
 
     /**
      * Creates a repeatable input stream based on a file.
@@ -34,4 +36,14 @@ public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
     public LocalRepeatableFileInputStream(final File file) throws FileNotFoundException {
         super(file);
     }
+
+    /**
+     * Reading from the channel is not tracked for reset of this stream
+     *
+     * @return Channel sharing the position with this stream
+     */
+    @Override
+    public FileChannel getChannel() {
+        return ((FileInputStream) this.getWrappedInputStream()).getChannel();
+    }
 }
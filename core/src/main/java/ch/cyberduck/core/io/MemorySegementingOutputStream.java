@@ -27,8 +27,14 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
     private final OutputStream proxy;
     private final ByteArrayOutputStream buffer;
 
+    /**
+     * Buffer for segment borrowed from shared pool
+     *
+     * @param proxy     Output stream
+     * @param threshold Segment size
+     */
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold) {
-        this(proxy, threshold, new ByteArrayOutputStream(threshold));
+        this(proxy, threshold, new PooledByteArrayOutputStream(threshold));
     }
 
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final ByteArrayOutputStream buffer) {
@@ -44,4 +50,35 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         // Re-use buffer
         buffer.reset();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            if(buffer instanceof PooledByteArrayOutputStream) {
+                ((PooledByteArrayOutputStream) buffer).release();
+            }
+        }
+    }
+
+    private static final class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+        private final int length;
+
+        public PooledByteArrayOutputStream(final int length) {
+            super(0);
+            this.length = length;
+            this.buf = BufferPool.get().borrow(length);
+        }
+
+        public synchronized void release() {
+            if(buf.length == length) {
+                // Not replaced with larger array
+                BufferPool.get().release(buf);
+            }
+            buf = new byte[0];
+            count = 0;
+        }
+    }
+}
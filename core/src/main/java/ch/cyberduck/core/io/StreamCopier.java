@@ -25,9 +25,12 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -87,42 +90,13 @@ public final class StreamCopier {
     public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
         try {
             try {
-                if(offset > 0) {
-                    skip(in, offset);
+                final FileChannel source = channel(in);
+                final FileChannel target = channel(out);
+                if(source != null && target != null) {
+                    this.copy(source, throttle(in), target, throttle(out));
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
-                }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
-                    }
+                else {
+                    this.copy(in, out);
                 }
             }
             catch(IOException e) {
@@ -148,6 +122,160 @@ public final class StreamCopier {
         }
     }
 
+    private void copy(final InputStream in, final OutputStream out) throws IOException, BackgroundException {
+        if(offset > 0) {
+            skip(in, offset);
+        }
+        final byte[] buffer = BufferPool.get().borrow(chunksize);
+        try {
+            this.copy(in, out, buffer);
+        }
+        finally {
+            BufferPool.get().release(buffer);
+        }
+    }
+
+    private void copy(final InputStream in, final OutputStream out, final byte[] buffer) throws IOException {
+        long total = 0;
+        int len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            // Cast will work because chunk size is int
+            len = limit.intValue();
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            final int read = in.read(buffer, 0, len);
+            if(-1 == read) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            else {
+                listener.recv(read);
+                out.write(buffer, 0, read);
+                progress.progress(read);
+                listener.sent(read);
+                total += read;
+            }
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                len = (int) Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+                progress.setComplete();
+            }
+        }
+    }
+
+    /**
+     * Copy between file channels without reading into a buffer on the heap
+     *
+     * @param in  Channel to read from
+     * @param out Channel to write to
+     */
+    private void copy(final FileChannel in, final BandwidthThrottle read,
+                      final FileChannel out, final BandwidthThrottle write) throws IOException {
+        long position = in.position();
+        if(offset > 0) {
+            if(position + offset > in.size()) {
+                throw new IOResumeException(String.format("Skipped %d bytes instead of %d",
+                        Math.max(0L, in.size() - position), offset));
+            }
+            position += offset;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to %s at position %d", in, out, position));
+        }
+        long total = 0;
+        long len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            len = limit;
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            if(position >= in.size()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            if(null != read) {
+                len = read.request((int) len);
+            }
+            if(null != write) {
+                final long allowed = len;
+                len = write.request((int) len);
+                if(null != read) {
+                    read.release((int) (allowed - len));
+                }
+            }
+            final long transferred = in.transferTo(position, len, out);
+            if(transferred < len) {
+                // Return bandwidth not used
+                if(null != read) {
+                    read.release((int) (len - transferred));
+                }
+                if(null != write) {
+                    write.release((int) (len - transferred));
+                }
+            }
+            listener.recv(transferred);
+            progress.progress(transferred);
+            listener.sent(transferred);
+            position += transferred;
+            total += transferred;
+            len = chunksize;
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the file
+                len = Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from channel", limit));
+                }
+                progress.setComplete();
+            }
+        }
+        // Keep position in sync for streams sharing the channel
+        in.position(position);
+    }
+
+    /**
+     * @return File channel if no other transformation than bandwidth throttling is applied to the stream
+     */
+    private static FileChannel channel(final Object stream) {
+        if(stream instanceof ThrottledInputStream) {
+            return channel(((ThrottledInputStream) stream).getDelegate());
+        }
+        if(stream instanceof ThrottledOutputStream) {
+            return channel(((ThrottledOutputStream) stream).getDelegate());
+        }
+        if(stream instanceof FileChannelStream) {
+            return ((FileChannelStream) stream).getChannel();
+        }
+        if(stream instanceof FileInputStream) {
+            return ((FileInputStream) stream).getChannel();
+        }
+        if(stream instanceof FileOutputStream) {
+            return ((FileOutputStream) stream).getChannel();
+        }
+        return null;
+    }
+
+    private static BandwidthThrottle throttle(final Object stream) {
+        if(stream instanceof ThrottledInputStream) {
+            return ((ThrottledInputStream) stream).getThrottle();
+        }
+        if(stream instanceof ThrottledOutputStream) {
+            return ((ThrottledOutputStream) stream).getThrottle();
+        }
+        return null;
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
@@ -51,6 +51,18 @@ public class ThrottledInputStream extends ProxyInputStream {
      */
     @Override
     public int read(byte[] data, int offset, int len) throws IOException {
-        return delegate.read(data, offset, throttle.request(len));
+        final int allowed = throttle.request(len);
+        final int read = delegate.read(data, offset, allowed);
+        // Return bandwidth not used to other streams sharing the throttle
+        throttle.release(allowed - Math.max(0, read));
+        return read;
     }
-}
\ No newline at end of file
+
+    InputStream getDelegate() {
+        return delegate;
+    }
+
+    BandwidthThrottle getThrottle() {
+        return throttle;
+    }
+}
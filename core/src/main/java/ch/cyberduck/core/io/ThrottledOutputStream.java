@@ -79,4 +79,12 @@ public class ThrottledOutputStream extends ProxyOutputStream {
             offset += length;
         }
     }
+
+    OutputStream getDelegate() {
+        return delegate;
+    }
+
+    BandwidthThrottle getThrottle() {
+        return throttle;
+    }
 }
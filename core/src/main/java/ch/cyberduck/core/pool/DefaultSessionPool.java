@@ -66,6 +66,12 @@ public class DefaultSessionPool implements SessionPool {
     public DefaultSessionPool(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                               final VaultRegistry registry, final PathCache cache, final TranscriptListener transcript,
                               final Host bookmark) {
+        this(connect, new PooledSessionFactory(connect, trust, key, cache, bookmark, registry), registry, cache, transcript, bookmark);
+    }
+
+    public DefaultSessionPool(final ConnectionService connect, final PooledSessionFactory factory,
+                              final VaultRegistry registry, final PathCache cache, final TranscriptListener transcript,
+                              final Host bookmark) {
         this.connect = connect;
         this.registry = registry;
         this.cache = cache;
@@ -76,7 +82,7 @@ public class DefaultSessionPool implements SessionPool {
         configuration.setEvictionPolicyClassName(CustomPoolEvictionPolicy.class.getName());
         configuration.setBlockWhenExhausted(true);
         configuration.setMaxWaitMillis(BORROW_MAX_WAIT_INTERVAL);
-        this.pool = new GenericObjectPool<Session>(new PooledSessionFactory(connect, trust, key, cache, bookmark, registry), configuration);
+        this.pool = new GenericObjectPool<Session>(factory, configuration);
         final AbandonedConfig abandon = new AbandonedConfig();
         abandon.setUseUsageTracking(true);
         this.pool.setAbandonedConfig(abandon);
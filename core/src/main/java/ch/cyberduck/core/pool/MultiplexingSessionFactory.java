@@ -0,0 +1,171 @@
+package ch.cyberduck.core.pool;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.ConnectionService;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.features.Multiplexing;
+import ch.cyberduck.core.ssl.X509KeyManager;
+import ch.cyberduck.core.ssl.X509TrustManager;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Create sessions for the pool on additional channels of connections already open. A new connection is only opened when
+ * all connections carry the maximum number of channels or opening another channel is refused by the server.
+ */
+public class MultiplexingSessionFactory extends PooledSessionFactory {
+    private static final Logger log = Logger.getLogger(MultiplexingSessionFactory.class);
+
+    private final PathCache cache;
+    private final VaultRegistry registry;
+
+    /**
+     * Maximum number of sessions sharing a single connection
+     */
+    private final int channels;
+
+    /**
+     * Sessions with their own connection
+     */
+    private final Map<Session, Connection> connections
+            = new ConcurrentHashMap<Session, Connection>();
+
+    /**
+     * Sessions using a channel of another connection
+     */
+    private final Map<Session, Connection> multiplexed
+            = new ConcurrentHashMap<Session, Connection>();
+
+    public MultiplexingSessionFactory(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
+                                      final PathCache cache, final Host bookmark, final VaultRegistry registry, final int channels) {
+        super(connect, trust, key, cache, bookmark, registry);
+        this.cache = cache;
+        this.registry = registry;
+        this.channels = channels;
+    }
+
+    @Override
+    public Session create() {
+        for(Map.Entry<Session, Connection> entry : connections.entrySet()) {
+            final Session<?> connection = entry.getKey();
+            if(!connection.isConnected()) {
+                continue;
+            }
+            final Multiplexing feature = connection.getFeature(Multiplexing.class);
+            if(null == feature) {
+                continue;
+            }
+            final Connection channel = entry.getValue();
+            if(!channel.acquire()) {
+                continue;
+            }
+            try {
+                final Session<?> session = feature.open(cache).withRegistry(registry);
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Opened session %s on channel %s of connection %s", session, channel, connection));
+                }
+                multiplexed.put(session, channel);
+                return session;
+            }
+            catch(ConnectionRefusedException e) {
+                log.warn(String.format("Server refused to open channel on connection %s. %s", connection, e));
+                // Assume maximum number of channels allowed by server reached
+                channel.saturate();
+            }
+            catch(BackgroundException e) {
+                log.warn(String.format("Failure %s opening channel on connection %s", e, connection));
+                channel.release();
+            }
+        }
+        final Session session = super.create();
+        connections.put(session, new Connection(channels));
+        return session;
+    }
+
+    @Override
+    public void destroyObject(final PooledObject<Session> p) throws BackgroundException {
+        final Session session = p.getObject();
+        try {
+            super.destroyObject(p);
+        }
+        finally {
+            connections.remove(session);
+            final Connection channel = multiplexed.remove(session);
+            if(channel != null) {
+                channel.release();
+            }
+        }
+    }
+
+    /**
+     * Number of sessions using a connection including the session owning the connection
+     */
+    private static final class Connection {
+        private final AtomicInteger count = new AtomicInteger(1);
+        private volatile int limit;
+
+        public Connection(final int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * @return False if the connection has reached the maximum number of channels
+         */
+        public boolean acquire() {
+            while(true) {
+                final int current = count.get();
+                if(current >= limit) {
+                    return false;
+                }
+                if(count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        public void release() {
+            count.decrementAndGet();
+        }
+
+        /**
+         * Release channel failed to open and limit to the number of channels currently open
+         */
+        public void saturate() {
+            limit = count.decrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Connection{");
+            sb.append("count=").append(count);
+            sb.append(", limit=").append(limit);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
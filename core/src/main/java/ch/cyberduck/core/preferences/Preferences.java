@@ -269,6 +269,15 @@ public abstract class Preferences {
         defaults.put("local.list.native", String.valueOf(true));
         defaults.put("local.delimiter", File.separator);
         defaults.put("local.temporaryfiles.shortening.threshold", String.valueOf(240));
+        /*
+          Reuse checksums of local files unchanged in size, modification date and inode. Disabled by default as
+          a file modified within the timestamp resolution of the filesystem keeps its stale checksum
+         */
+        defaults.put("local.checksum.cache.enable", String.valueOf(false));
+        /*
+          Maximum number of checksums of local files retained
+         */
+        defaults.put("local.checksum.cache.size", String.valueOf(10000));
 
         defaults.put("application.name", "Cyberduck");
         final String support = SupportDirectoryFinderFactory.get().find().getAbsolute();
@@ -293,6 +302,15 @@ public abstract class Preferences {
           Maximum number of directory listings to cache using a most recently used implementation
          */
         defaults.put("browser.cache.size", String.valueOf(1000));
+        /*
+          Maximum estimated size in bytes of cached directory listings. Replaces the limit by
+          number of directory listings when set
+         */
+        defaults.put("browser.cache.weight", String.valueOf(-1));
+        /*
+          Time to live in seconds of cached directory listings
+         */
+        defaults.put("browser.cache.ttl", String.valueOf(-1));
         defaults.put("transfer.cache.size", String.valueOf(100));
         defaults.put("icon.cache.size", String.valueOf(200));
 
@@ -386,6 +404,18 @@ public abstract class Preferences {
         defaults.put("browser.date.natural", String.valueOf(true));
 
         defaults.put("browser.delete.concurrency", String.valueOf(10));
+        /*
+          Number of connections to list directories concurrently when calculating size
+         */
+        defaults.put("browser.size.concurrency", String.valueOf(5));
+        /*
+          Number of files handed to delete feature at once while still listing directories
+         */
+        defaults.put("delete.stream.partition", String.valueOf(10000));
+        /*
+          Maximum number of matches returned from a server side recursive search
+         */
+        defaults.put("browser.search.limit", String.valueOf(1000));
 
 
         defaults.put("info.toggle.permission", String.valueOf(1));
@@ -547,13 +577,29 @@ public abstract class Preferences {
             defaults.put("queue.bandwidth.options", options.toString());
         }
         /*
-          Bandwidth throttle upload stream
+          Bandwidth throttle upload stream. Default for each transfer
          */
         defaults.put("queue.upload.bandwidth.bytes", String.valueOf(-1));
         /*
-          Bandwidth throttle download stream
+          Bandwidth throttle download stream. Default for each transfer
          */
         defaults.put("queue.download.bandwidth.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for the sum of all upload transfers
+         */
+        defaults.put("queue.upload.bandwidth.total.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for the sum of all download transfers
+         */
+        defaults.put("queue.download.bandwidth.total.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for the sum of all upload transfers to a single host
+         */
+        defaults.put("queue.upload.bandwidth.host.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for the sum of all download transfers from a single host
+         */
+        defaults.put("queue.download.bandwidth.host.bytes", String.valueOf(-1));
 
         /*
          * Concurrent connections
@@ -571,6 +617,21 @@ public abstract class Preferences {
             options.append(20).append(",");
             defaults.put("queue.connections.options", options.toString());
         }
+        /*
+          Start transfer of files as soon as their status is determined instead of awaiting the
+          preparation of the complete tree. Bulk features are notified per file.
+         */
+        defaults.put("queue.transfer.pipeline", String.valueOf(false));
+        /*
+          Maximum number of tasks waiting in queue when pipelined. Tasks are run in the submitting
+          thread when exceeded.
+         */
+        defaults.put("queue.transfer.pipeline.backlog", String.valueOf(1000));
+        /*
+          Number of directories listed concurrently when preparing a transfer. Listings borrow connections
+          from the same pool as transfers.
+         */
+        defaults.put("queue.transfer.list.concurrency", String.valueOf(5));
 
         /*
           While downloading, update the icon of the downloaded file as a progress indicator
@@ -617,6 +678,10 @@ public abstract class Preferences {
 
         defaults.put("ftp.parser.multiline.strict", String.valueOf(false));
         defaults.put("ftp.parser.reply.strict", String.valueOf(false));
+        /*
+          Number of parsed entries after which progress is reported when reading a directory listing
+         */
+        defaults.put("ftp.listing.chunksize", String.valueOf(1000));
 
         /*
           Send LIST -a
@@ -688,10 +753,31 @@ public abstract class Preferences {
         defaults.put("s3.revisions.enable", String.valueOf(true));
 
         defaults.put("s3.upload.md5", String.valueOf(true));
+        /*
+          Upload with unsigned payload over TLS using AWS4 signatures. Avoids reading the file to compute
+          the SHA-256 hash before the upload. Integrity is verified with the MD5 hash computed while uploading.
+         */
+        defaults.put("s3.upload.payload.unsigned", String.valueOf(true));
 
         defaults.put("s3.upload.multipart", String.valueOf(true));
         defaults.put("s3.upload.multipart.concurrency", String.valueOf(10));
+        /*
+          Adjust part size and concurrency from measured throughput and remember values per host
+         */
+        defaults.put("s3.upload.multipart.adaptive", String.valueOf(true));
+        defaults.put("s3.upload.multipart.concurrency.maximum", String.valueOf(20));
+        defaults.put("s3.upload.multipart.partsize.maximum", String.valueOf(128L * 1024L * 1024L));
         defaults.put("s3.upload.multipart.partsize.minimum", String.valueOf(5L * 1024L * 1024L));
+        /*
+          Number of most recently used hosts to remember part size and concurrency for. Recorded in
+          s3.upload.multipart.size.<hostname> and s3.upload.multipart.concurrency.<hostname>
+         */
+        defaults.put("s3.upload.multipart.hosts.limit", String.valueOf(10));
+        /*
+          Number of parts uploaded concurrently when writing a stream of unknown length. Each part in flight
+          is held in a buffer of s3.upload.multipart.partsize.minimum bytes.
+         */
+        defaults.put("s3.upload.multipart.write.concurrency", String.valueOf(4));
         /*
           Threshold in bytes. Only use multipart uploads for files more than 100MB
          */
@@ -746,6 +832,7 @@ public abstract class Preferences {
         defaults.put("s3.lifecycle.delete.options", "1 7 10 30 60 180 360 720");
 
         defaults.put("s3.delete.multiple.partition", String.valueOf(1000));
+        defaults.put("s3.delete.multiple.concurrency", String.valueOf(5));
 
         defaults.put("azure.metadata.default", StringUtils.EMPTY);
         defaults.put("azure.listing.chunksize", String.valueOf(1000));
@@ -777,6 +864,7 @@ public abstract class Preferences {
         defaults.put("openstack.upload.largeobject.cleanup", String.valueOf(true));
 
         defaults.put("openstack.delete.multiple.partition", String.valueOf(10000));
+        defaults.put("openstack.delete.multiple.concurrency", String.valueOf(5));
 
         defaults.put("googledrive.oauth.clientid", "996125414232.apps.googleusercontent.com");
         defaults.put("googledrive.oauth.clientsecret", "YdaFjo2t74-Q0sThsXgeTv3l");
@@ -784,6 +872,9 @@ public abstract class Preferences {
 //        defaults.put("googledrive.oauth.redirecturi", "x-cyberduck-action:oauth");
 
         defaults.put("googledrive.list.limit", String.valueOf(1000));
+        // Batch requests are limited to 100 calls
+        defaults.put("googledrive.delete.multiple.partition", String.valueOf(100));
+        defaults.put("googledrive.delete.multiple.concurrency", String.valueOf(5));
 
         defaults.put("b2.bucket.acl.default", "allPrivate");
         defaults.put("b2.listing.chunksize", String.valueOf(100));
@@ -876,6 +967,15 @@ public abstract class Preferences {
         defaults.put("connection.pool.minidle", String.valueOf(1));
         defaults.put("connection.pool.maxidle", String.valueOf(5));
         defaults.put("connection.pool.maxtotal", String.valueOf(Integer.MAX_VALUE));
+        /*
+          Open sessions in pool on additional channels of connections already open if supported by the protocol.
+          Disabled by default
+         */
+        defaults.put("connection.pool.multiplex.enable", String.valueOf(false));
+        /*
+          Maximum number of sessions sharing a single connection
+         */
+        defaults.put("connection.pool.multiplex.channels", String.valueOf(4));
 
         /*
           Default login name
@@ -961,6 +1061,14 @@ public abstract class Preferences {
           Buffer size for wrapped buffered streams
          */
         defaults.put("connection.buffer", String.valueOf(8192));
+        /*
+          Maximum number of idle transfer buffers of the same size kept for reuse
+         */
+        defaults.put("connection.buffer.pool.size", String.valueOf(40));
+        /*
+          Maximum number of bytes in idle transfer buffers kept for reuse
+         */
+        defaults.put("connection.buffer.pool.limit", String.valueOf(64L * 1024L * 1024L));
         /*
           SO_SNDBUF
          */
@@ -1012,6 +1120,7 @@ public abstract class Preferences {
 
         defaults.put("sftp.read.maxunconfirmed", String.valueOf(64));
         defaults.put("sftp.write.maxunconfirmed", String.valueOf(64));
+        defaults.put("sftp.readdir.maxunconfirmed", String.valueOf(4));
 
         defaults.put("archive.default", "tar.gz");
 
@@ -1049,6 +1158,11 @@ public abstract class Preferences {
 
         defaults.put("threading.pool.size.max", String.valueOf(20));
         defaults.put("threading.pool.keepalive.seconds", String.valueOf(60L));
+        /*
+          Maximum number of multipart and large object upload segments transferred concurrently to a host
+          for all transfers
+         */
+        defaults.put("threading.parts.host.limit", String.valueOf(20));
 
         defaults.put("dropbox.oauth.clientid", "rjqgs45ntjp1va9");
         defaults.put("dropbox.oauth.clientsecret", "yg1uopbf5c1h1rk");
@@ -1057,6 +1171,22 @@ public abstract class Preferences {
 
         defaults.put("cryptomator.enable", String.valueOf(true));
         defaults.put("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Maximum number of directory IDs and long filenames cached per vault
+         */
+        defaults.put("cryptomator.cache.size", String.valueOf(1000));
+        /*
+          Number of threads decrypting filenames of a directory listing in a vault
+         */
+        defaults.put("vault.decrypt.concurrency", String.valueOf(4));
+        /*
+          Number of file content chunks encrypted or decrypted concurrently in a vault
+         */
+        defaults.put("cryptomator.stream.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        /*
+          Maximum number of file content chunks encrypted or decrypted concurrently for all open streams
+         */
+        defaults.put("cryptomator.stream.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
     }
 
     protected void setLogging() {
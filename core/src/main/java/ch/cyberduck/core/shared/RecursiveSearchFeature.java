@@ -0,0 +1,161 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search all files in the working directory and its subdirectories with a flat listing of each container. Stops
+ * after <code>browser.search.limit</code> matches.
+ */
+public class RecursiveSearchFeature implements Search {
+    private static final Logger log = Logger.getLogger(RecursiveSearchFeature.class);
+
+    private final Session<?> session;
+
+    private final RecursiveListService service;
+
+    private Cache<Path> cache
+            = PathCache.empty();
+
+    public RecursiveSearchFeature(final Session<?> session, final RecursiveListService service) {
+        this.session = session;
+        this.service = service;
+    }
+
+    @Override
+    public AttributedList<Path> search(final Path workdir, final Filter<Path> regex, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final int limit = PreferencesFactory.get().getInteger("browser.search.limit");
+        if(workdir.isRoot()) {
+            for(Path container : session.list(workdir, new DisabledListProgressListener())) {
+                if(!this.search(container, workdir, regex, listener, list, limit)) {
+                    break;
+                }
+            }
+        }
+        else {
+            this.search(workdir, workdir, regex, listener, list, limit);
+        }
+        this.cache(workdir, list);
+        return list;
+    }
+
+    /**
+     * Add matches with their parent directories up to the working directory to the cache the browser filters
+     * search results from. Listings not previously cached are incomplete and marked invalid to be reloaded
+     * when browsed.
+     */
+    private void cache(final Path workdir, final AttributedList<Path> list) {
+        final Map<Path, AttributedList<Path>> parents = new LinkedHashMap<Path, AttributedList<Path>>();
+        for(Path file : list) {
+            Path child = file;
+            while(!child.equals(workdir) && !child.isRoot()) {
+                final Path parent = child.getParent();
+                if(!parents.containsKey(parent)) {
+                    parents.put(parent, new AttributedList<Path>());
+                }
+                final AttributedList<Path> children = parents.get(parent);
+                if(children.contains(child)) {
+                    // Parent directories already added for previous match
+                    break;
+                }
+                children.add(child);
+                child = parent;
+            }
+        }
+        for(Map.Entry<Path, AttributedList<Path>> entry : parents.entrySet()) {
+            final AttributedList<Path> children;
+            if(cache.isCached(entry.getKey())) {
+                final AttributedList<Path> cached = cache.get(entry.getKey());
+                children = new AttributedList<Path>(cached);
+                for(Path file : entry.getValue()) {
+                    if(!cached.contains(file)) {
+                        children.add(file);
+                    }
+                }
+                if(children.size() == cached.size()) {
+                    continue;
+                }
+                if(cached.attributes().isInvalid()) {
+                    children.attributes().setInvalid(true);
+                }
+            }
+            else {
+                children = entry.getValue();
+                children.attributes().setInvalid(true);
+            }
+            cache.put(entry.getKey(), children);
+        }
+    }
+
+    /**
+     * @return False when the maximum number of matches is reached
+     */
+    private boolean search(final Path directory, final Path workdir, final Filter<Path> regex, final ListProgressListener listener,
+                           final AttributedList<Path> list, final int limit) throws BackgroundException {
+        service.list(directory, new RecursiveListService.Listener() {
+            @Override
+            public boolean chunk(final List<Path> chunk) throws BackgroundException {
+                for(Path file : chunk) {
+                    if(file.equals(directory)) {
+                        // Placeholder of directory searched
+                        continue;
+                    }
+                    if(regex.accept(file)) {
+                        list.add(file);
+                        if(list.size() >= limit) {
+                            log.warn(String.format("Stop search in %s after %d matches", workdir, list.size()));
+                            listener.chunk(workdir, list);
+                            return false;
+                        }
+                    }
+                }
+                listener.chunk(workdir, list);
+                return true;
+            }
+        });
+        return list.size() < limit;
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return true;
+    }
+
+    @Override
+    public Search withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+}
@@ -0,0 +1,54 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Size;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sum up size of files with a flat listing of all files in directory and its subdirectories
+ */
+public class RecursiveSizeFeature implements Size {
+
+    private final RecursiveListService service;
+
+    public RecursiveSizeFeature(final RecursiveListService service) {
+        this.service = service;
+    }
+
+    @Override
+    public long calculate(final Path directory, final Callback callback) throws BackgroundException {
+        final AtomicLong size = new AtomicLong();
+        service.list(directory, new RecursiveListService.Listener() {
+            @Override
+            public boolean chunk(final List<Path> chunk) throws BackgroundException {
+                for(Path file : chunk) {
+                    if(file.isFile()) {
+                        size.addAndGet(file.attributes().getSize());
+                    }
+                }
+                callback.update(size.get());
+                return true;
+            }
+        });
+        return size.get();
+    }
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.synchronization;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
@@ -29,15 +30,19 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumCache;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.text.MessageFormat;
 import java.util.TimeZone;
 
 public class ComparisonServiceFilter implements ComparePathFilter {
+    private static final Logger log = Logger.getLogger(ComparisonServiceFilter.class);
 
     private Find finder;
 
@@ -51,6 +56,14 @@ public class ComparisonServiceFilter implements ComparePathFilter {
 
     private final ProgressListener progress;
 
+    private final Session.Case sensitivity;
+
+    /**
+     * Directory listings of transfer
+     */
+    private PathCache cache
+            = PathCache.empty();
+
     public ComparisonServiceFilter(final Session<?> session, final TimeZone tz, final ProgressListener listener) {
         this.finder = session.getFeature(Find.class, new DefaultFindFeature(session));
         this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
@@ -58,6 +71,7 @@ public class ComparisonServiceFilter implements ComparePathFilter {
         this.size = new SizeComparisonService();
         this.checksum = new ChecksumComparisonService();
         this.progress = listener;
+        this.sensitivity = session.getCase();
     }
 
     public ComparisonServiceFilter withFinder(final Find finder) {
@@ -71,6 +85,7 @@ public class ComparisonServiceFilter implements ComparePathFilter {
     }
 
     public ComparisonServiceFilter withCache(final PathCache cache) {
+        this.cache = cache;
         finder.withCache(cache);
         attribute.withCache(cache);
         return this;
@@ -79,19 +94,19 @@ public class ComparisonServiceFilter implements ComparePathFilter {
     @Override
     public Comparison compare(final Path file, final Local local) throws BackgroundException {
         if(local.exists()) {
-            if(finder.find(file)) {
+            if(this.find(file)) {
                 if(file.isDirectory()) {
                     // Do not compare directories
                     return Comparison.equal;
                 }
-                final PathAttributes attributes = attribute.find(file);
+                final PathAttributes attributes = this.attributes(file);
                 {
                     // MD5/ETag Checksum is supported
                     if(Checksum.NONE != attributes.getChecksum()) {
                         progress.message(MessageFormat.format(
                                 LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
-                        local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                                .compute(local.getInputStream(), new TransferStatus()));
+                        local.attributes().setChecksum(ChecksumCache.get().compute(local,
+                                ChecksumComputeFactory.get(attributes.getChecksum().algorithm), new TransferStatus()));
                         final Comparison comparison = checksum.compare(attributes, local.attributes());
                         if(!Comparison.notequal.equals(comparison)) {
                             // Decision is available
@@ -123,11 +138,63 @@ public class ComparisonServiceFilter implements ComparePathFilter {
             }
         }
         else {
-            if(finder.find(file)) {
+            if(this.find(file)) {
                 // Only the remote file exists
                 return Comparison.remote;
             }
         }
         return Comparison.equal;
     }
+
+    /**
+     * Lookup file in cached directory listing of parent before querying the server
+     */
+    private boolean find(final Path file) throws BackgroundException {
+        if(cache.isCached(file.getParent())) {
+            if(this.lookup(file) != null) {
+                return true;
+            }
+            if(Session.Case.sensitive == sensitivity) {
+                // Not found in listing
+                return false;
+            }
+        }
+        return finder.find(file);
+    }
+
+    /**
+     * Use attributes from cached directory listing of parent if it includes size and modification date
+     */
+    private PathAttributes attributes(final Path file) throws BackgroundException {
+        if(cache.isCached(file.getParent())) {
+            final Path found = this.lookup(file);
+            if(found != null) {
+                final PathAttributes attributes = found.attributes();
+                if(attributes.getSize() != -1 && attributes.getModificationDate() != -1) {
+                    return attributes;
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Missing attributes in directory listing for %s", file));
+                }
+            }
+        }
+        return attribute.find(file);
+    }
+
+    /**
+     * @return File from cached listing of parent including files hidden by a transfer filter or null if not found
+     */
+    private Path lookup(final Path file) {
+        final AttributedList<Path> list = cache.get(file.getParent());
+        final Path found = list.get(file);
+        if(found != null) {
+            return found;
+        }
+        for(Path hidden : list.attributes().getHidden()) {
+            if(hidden.equals(file)) {
+                return hidden;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,300 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide scheduler for segments of multipart and large object uploads. Each file obtains its own
+ * queue with a maximum number of concurrent parts. Parts are dispatched in round robin order between
+ * queues to shared threads with a limit on the number of parts running concurrently for a host.
+ */
+public final class PartScheduler {
+    private static final Logger log = Logger.getLogger(PartScheduler.class);
+
+    private static final PartScheduler global = new PartScheduler(
+            PreferencesFactory.get().getInteger("threading.parts.host.limit"));
+
+    public static PartScheduler get() {
+        return global;
+    }
+
+    /**
+     * Threads are reused and terminated when idle
+     */
+    private final ExecutorService executor
+            = Executors.newCachedThreadPool(new NamedThreadFactory("part"));
+
+    /**
+     * Maximum number of parts running concurrently per host
+     */
+    private final int limit;
+
+    /**
+     * Queues in order of next dispatch
+     */
+    private final LinkedList<PartQueue> queues = new LinkedList<PartQueue>();
+
+    /**
+     * Number of running parts by hostname
+     */
+    private final Map<String, Integer> running = new HashMap<String, Integer>();
+
+    /**
+     * @param limit Maximum number of parts running concurrently per host
+     */
+    public PartScheduler(final int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @param hostname    Host parts are transferred to
+     * @param concurrency Maximum number of concurrent parts of this file
+     * @return Queue to submit parts of a single file to
+     */
+    public ThreadPool pool(final String hostname, final int concurrency) {
+        return new PartQueue(hostname, concurrency);
+    }
+
+    /**
+     * @return Number of parts currently running for host
+     */
+    public synchronized int getRunning(final String hostname) {
+        return running.containsKey(hostname) ? running.get(hostname) : 0;
+    }
+
+    private synchronized void enqueue(final PartQueue queue, final Runnable part) {
+        if(queue.shutdown) {
+            throw new RejectedExecutionException(String.format("Queue %s already shutdown", queue));
+        }
+        if(queue.pending.isEmpty() && queue.running.isEmpty()) {
+            queues.addLast(queue);
+        }
+        queue.pending.add(part);
+        this.dispatch();
+    }
+
+    /**
+     * Run next part of each queue in turn until limits are reached
+     */
+    private synchronized void dispatch() {
+        boolean dispatched;
+        do {
+            dispatched = false;
+            for(PartQueue queue : new ArrayList<PartQueue>(queues)) {
+                if(queue.pending.isEmpty() || queue.running.size() >= queue.concurrency) {
+                    continue;
+                }
+                final int count = this.getRunning(queue.hostname);
+                if(count >= limit) {
+                    continue;
+                }
+                final Runnable part = queue.pending.removeFirst();
+                queue.running.add(part);
+                running.put(queue.hostname, count + 1);
+                // Move to end for next part to be dispatched from other file
+                queues.remove(queue);
+                queues.addLast(queue);
+                dispatched = true;
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            part.run();
+                        }
+                        finally {
+                            complete(queue, part);
+                        }
+                    }
+                });
+            }
+        }
+        while(dispatched);
+    }
+
+    private synchronized void complete(final PartQueue queue, final Runnable part) {
+        queue.running.remove(part);
+        final int count = this.getRunning(queue.hostname) - 1;
+        if(count > 0) {
+            running.put(queue.hostname, count);
+        }
+        else {
+            running.remove(queue.hostname);
+        }
+        if(queue.pending.isEmpty() && queue.running.isEmpty()) {
+            queues.remove(queue);
+        }
+        this.notifyAll();
+        this.dispatch();
+    }
+
+    private synchronized void cancel(final PartQueue queue) {
+        queue.shutdown = true;
+        for(Runnable part : queue.pending) {
+            if(part instanceof Future) {
+                ((Future) part).cancel(false);
+            }
+        }
+        queue.pending.clear();
+        for(Runnable part : queue.running) {
+            if(part instanceof Future) {
+                ((Future) part).cancel(true);
+            }
+        }
+        if(queue.running.isEmpty()) {
+            queues.remove(queue);
+        }
+        this.notifyAll();
+    }
+
+    private synchronized boolean await(final PartQueue queue, final long timeout) throws InterruptedException {
+        final long now = System.currentTimeMillis();
+        final long deadline = timeout > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeout;
+        while(!queue.pending.isEmpty() || !queue.running.isEmpty()) {
+            final long remaining = deadline - System.currentTimeMillis();
+            if(remaining <= 0) {
+                return false;
+            }
+            this.wait(remaining);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PartScheduler{");
+        sb.append("limit=").append(limit);
+        sb.append(", running=").append(running);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Parts of a single file
+     */
+    private final class PartQueue extends AbstractExecutorService implements ThreadPool {
+        private final String hostname;
+        private final int concurrency;
+
+        /**
+         * Guarded by scheduler
+         */
+        private final LinkedList<Runnable> pending = new LinkedList<Runnable>();
+        private final Set<Runnable> running = new HashSet<Runnable>();
+        private boolean shutdown;
+
+        private PartQueue(final String hostname, final int concurrency) {
+            this.hostname = hostname;
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public <T> Future<T> execute(final Callable<T> command) {
+            return this.submit(command);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            enqueue(this, command);
+        }
+
+        @Override
+        public void shutdown(final boolean gracefully) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Shutdown queue %s", this));
+            }
+            if(gracefully) {
+                this.shutdown();
+                try {
+                    await(this, Long.MAX_VALUE);
+                }
+                catch(InterruptedException e) {
+                    log.error(String.format("Failure awaiting queue termination. %s", e.getMessage()));
+                }
+            }
+            else {
+                cancel(this);
+            }
+        }
+
+        @Override
+        public AbstractExecutorService executor() {
+            return this;
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized(PartScheduler.this) {
+                shutdown = true;
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            final List<Runnable> remaining;
+            synchronized(PartScheduler.this) {
+                remaining = new ArrayList<Runnable>(pending);
+            }
+            cancel(this);
+            return remaining;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            synchronized(PartScheduler.this) {
+                return shutdown;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized(PartScheduler.this) {
+                return shutdown && pending.isEmpty() && running.isEmpty();
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return await(this, unit.toMillis(timeout));
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("PartQueue{");
+            sb.append("hostname='").append(hostname).append('\'');
+            sb.append(", concurrency=").append(concurrency);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
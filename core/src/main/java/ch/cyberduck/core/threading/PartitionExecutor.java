@@ -0,0 +1,101 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.collections.Partition;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Run requests for partitions of a list concurrently on the threads of the shared part scheduler
+ * and wait for all of them to complete.
+ */
+public class PartitionExecutor<T> {
+    private static final Logger log = Logger.getLogger(PartitionExecutor.class);
+
+    private final PartScheduler scheduler;
+    private final String hostname;
+    private final int concurrency;
+    private final int partition;
+
+    /**
+     * @param hostname    Host requests are sent to
+     * @param concurrency Maximum number of partitions processed concurrently
+     * @param partition   Maximum number of elements in partition
+     */
+    public PartitionExecutor(final String hostname, final int concurrency, final int partition) {
+        this(PartScheduler.get(), hostname, concurrency, partition);
+    }
+
+    public PartitionExecutor(final PartScheduler scheduler, final String hostname, final int concurrency, final int partition) {
+        this.scheduler = scheduler;
+        this.hostname = hostname;
+        this.concurrency = concurrency;
+        this.partition = partition;
+    }
+
+    /**
+     * @param elements List to partition
+     * @param callback Request for single partition
+     * @throws BackgroundException First failure of any partition in order of partitions
+     */
+    public void execute(final List<T> elements, final Callback<T> callback) throws BackgroundException {
+        final ThreadPool pool = scheduler.pool(hostname, concurrency);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for(List<T> p : new Partition<T>(elements, partition)) {
+                results.add(pool.execute(new BackgroundExceptionCallable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        callback.call(p);
+                        return null;
+                    }
+                }));
+            }
+            for(Future<Void> result : results) {
+                try {
+                    result.get();
+                }
+                catch(InterruptedException e) {
+                    log.error("Partition failed with interrupt failure");
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Partition failed with execution failure %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+        }
+        finally {
+            // Cancel partitions not yet started after failure
+            pool.shutdown(false);
+        }
+    }
+
+    public interface Callback<T> {
+        void call(List<T> partition) throws BackgroundException;
+    }
+}
@@ -24,6 +24,7 @@ import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BandwidthThrottleRegistry;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.serializer.Serializer;
@@ -55,7 +56,7 @@ public class CopyTransfer extends Transfer {
 
     public CopyTransfer(final Host source, final Host destination,
                         final Map<Path, Path> selected) {
-        this(source, destination, selected, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.download.bandwidth.bytes")));
+        this(source, destination, selected, BandwidthThrottleRegistry.get().download(source));
     }
 
     public CopyTransfer(final Host source, final Host destination,
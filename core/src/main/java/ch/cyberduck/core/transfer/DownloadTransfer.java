@@ -35,7 +35,7 @@ import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.filter.DownloadDuplicateFilter;
 import ch.cyberduck.core.filter.DownloadRegexFilter;
-import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BandwidthThrottleRegistry;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.local.LocalSymlinkFactory;
 import ch.cyberduck.core.local.features.Symlink;
@@ -96,8 +96,7 @@ public class DownloadTransfer extends Transfer {
     }
 
     public DownloadTransfer(final Host host, final List<TransferItem> roots, final Filter<Path> f, final Comparator<Path> comparator) {
-        super(host, new DownloadRootPathsNormalizer().normalize(roots), new BandwidthThrottle(
-                PreferencesFactory.get().getFloat("queue.download.bandwidth.bytes")));
+        super(host, new DownloadRootPathsNormalizer().normalize(roots), BandwidthThrottleRegistry.get().download(host));
         this.filter = f;
         this.comparator = comparator;
         this.symlinkResolver = new DownloadSymlinkResolver(roots);
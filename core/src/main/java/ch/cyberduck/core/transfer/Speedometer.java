@@ -147,4 +147,13 @@ public class Speedometer {
         this.timestamp = timestamp;
         this.last = transferred;
     }
+
+    /**
+     * Exclude bytes added to the transferred count after reset that are not actually transmitted
+     *
+     * @param bytes Number of bytes skipped such as for resumed files
+     */
+    public void skip(final long bytes) {
+        this.last += bytes;
+    }
 }
\ No newline at end of file
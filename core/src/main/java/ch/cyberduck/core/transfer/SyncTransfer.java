@@ -29,7 +29,7 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Find;
-import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BandwidthThrottleRegistry;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.serializer.Serializer;
@@ -80,7 +80,7 @@ public class SyncTransfer extends Transfer {
 
     public SyncTransfer(final Host host, final TransferItem item, final TransferAction action) {
         super(host, Collections.singletonList(item),
-                new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
+                BandwidthThrottleRegistry.get().upload(host));
         this.init();
         this.item = item;
         this.action = action;
@@ -186,6 +186,10 @@ public class SyncTransfer extends Transfer {
             }
             children.addAll(list);
         }
+        else {
+            // Remember missing directory to skip lookup of each local child when comparing
+            cache.put(directory, new AttributedList<Path>());
+        }
         if(local.exists()) {
             final List<TransferItem> list = upload.list(source, destination, directory, local, listener);
             children.addAll(list);
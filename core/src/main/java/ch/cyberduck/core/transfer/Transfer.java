@@ -32,6 +32,7 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BandwidthThrottleRegistry;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultUrlProvider;
@@ -56,12 +57,12 @@ public abstract class Transfer implements Serializable {
     /**
      * The sum of the file length of all files in the <code>queue</code> or null if unknown
      */
-    private AtomicLong size;
+    private volatile AtomicLong size;
 
     /**
      * The number bytes already transferred of the files in the <code>queue</code> or null if unknown
      */
-    private AtomicLong transferred;
+    private volatile AtomicLong transferred;
 
     public abstract Type getType();
 
@@ -331,6 +332,8 @@ public abstract class Transfer implements Serializable {
                                   StreamListener streamListener) throws BackgroundException;
 
     public void start() {
+        // Pick up changes to bandwidth limits shared with other transfers
+        BandwidthThrottleRegistry.get().refresh();
         state = State.running;
         // Will be set to true in #reset when transfer action is determined
         reset = false;
@@ -382,8 +385,12 @@ public abstract class Transfer implements Serializable {
 
     public void addSize(final long bytes) {
         if(null == size) {
-            // Initialize
-            size = new AtomicLong(0L);
+            synchronized(this) {
+                if(null == size) {
+                    // Initialize
+                    size = new AtomicLong(0L);
+                }
+            }
         }
         if(bytes > 0) {
             size.addAndGet(bytes);
@@ -405,8 +412,12 @@ public abstract class Transfer implements Serializable {
 
     public void addTransferred(final long bytes) {
         if(null == transferred) {
-            // Initialize
-            transferred = new AtomicLong(0L);
+            synchronized(this) {
+                if(null == transferred) {
+                    // Initialize
+                    transferred = new AtomicLong(0L);
+                }
+            }
         }
         if(bytes > 0) {
             transferred.addAndGet(bytes);
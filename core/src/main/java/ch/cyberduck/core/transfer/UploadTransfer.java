@@ -35,7 +35,7 @@ import ch.cyberduck.core.features.Symlink;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.filter.UploadRegexFilter;
-import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BandwidthThrottleRegistry;
 import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -92,8 +92,7 @@ public class UploadTransfer extends Transfer {
     }
 
     public UploadTransfer(final Host host, final List<TransferItem> roots, final Filter<Local> f, final Comparator<Local> comparator) {
-        super(host, new UploadRootPathsNormalizer().normalize(roots), new BandwidthThrottle(
-                PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
+        super(host, new UploadRootPathsNormalizer().normalize(roots), BandwidthThrottleRegistry.get().upload(host));
         this.filter = f;
         this.comparator = comparator;
     }
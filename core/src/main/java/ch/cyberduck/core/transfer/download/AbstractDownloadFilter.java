@@ -59,7 +59,6 @@ import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
@@ -212,21 +211,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                 status.getLength() / preferences.getInteger("queue.connections.limit"));
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
-                        final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
+                            // Segments are written in place to the target file
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true)
                                     .append(true)
                                     .skip(offset)
-                                    .length(length)
-                                    .rename(segmentFile);
+                                    .length(length);
+                            segmentStatus.setPart(segmentNumber);
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -246,7 +242,17 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            for(TransferStatus segment : status.getSegments()) {
+                // Write to final target
+                segment.rename(local);
+            }
+            if(!status.isAppend()) {
+                final TransferStatus first = status.getSegments().get(0);
+                // Preallocate target with no segments complete
+                new SegmentMap(local).create(local, status.getLength(), first.getLength());
+            }
+        }
     }
 
     /**
@@ -260,41 +266,20 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Skip completion for single segment %s", status));
+            if(status.isComplete()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Mark segment %d of %s complete", status.getPart(), local));
+                }
+                new SegmentMap(local).complete(status.getPart());
             }
             return;
         }
         if(status.isComplete()) {
             if(status.isSegmented()) {
-                // Obtain ordered list of segments to reassemble
-                final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
-                    log.info(String.format("Compile %d segments to file %s", segments.size(), local));
-                }
-                if(local.exists()) {
-                    local.delete();
-                }
-                for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
-                    final TransferStatus segmentStatus = iterator.next();
-                    // Segment
-                    final Local segmentFile = segmentStatus.getRename().local;
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Append segment %s to %s", segmentFile, local));
-                    }
-                    segmentFile.copy(local, new Local.CopyOptions().append(true));
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Delete segment %s", segmentFile));
-                    }
-                    segmentFile.delete();
-                    if(!iterator.hasNext()) {
-                        final Local folder = segmentFile.getParent();
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Remove segment folder %s", folder));
-                        }
-                        folder.delete();
-                    }
+                    log.info(String.format("Completed %d segments of file %s", status.getSegments().size(), local));
                 }
+                new SegmentMap(local).delete();
             }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run completion for file %s with status %s", local, status));
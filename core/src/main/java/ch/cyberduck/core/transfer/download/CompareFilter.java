@@ -68,6 +68,13 @@ public class CompareFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(super.accept(file, local, parent)) {
+            if(local.isFile() && new SegmentMap(local).exists()) {
+                // Incomplete segmented download allocated to full length
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Accept file %s with incomplete segments in %s", file, local));
+                }
+                return true;
+            }
             final Comparison comparison = comparisonService.compare(file, local);
             switch(comparison) {
                 case local:
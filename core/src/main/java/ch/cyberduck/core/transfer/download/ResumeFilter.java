@@ -34,6 +34,9 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.List;
+import java.util.Set;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -65,6 +68,12 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
+            if(new SegmentMap(local).exists()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Resume segmented download %s", local));
+                }
+                return super.accept(file, local, parent);
+            }
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
@@ -98,18 +107,20 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent);
         if(status.isSegmented()) {
-            for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
-                if(segmentFile.exists()) {
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Determine if part %s can be skipped", segmentStatus));
-                    }
-                    if(segmentFile.attributes().getSize() > 0) {
-                        segmentStatus.setAppend(true);
-                        segmentStatus.setLength(segmentStatus.getLength() - segmentFile.attributes().getSize());
-                        segmentStatus.setOffset(segmentStatus.getOffset() + segmentFile.attributes().getSize());
+            final List<TransferStatus> segments = status.getSegments();
+            final Set<Integer> completed = new SegmentMap(local).read(status.getLength(), segments.get(0).getLength());
+            if(!completed.isEmpty()) {
+                for(TransferStatus segmentStatus : segments) {
+                    if(completed.contains(segmentStatus.getPart())) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed segment %s", segmentStatus));
+                        }
+                        // Not transferred again and counted as skipped for progress
+                        segmentStatus.setComplete();
                     }
                 }
+                // Keep existing target and segment map
+                status.setAppend(true);
             }
         }
         else {
@@ -0,0 +1,158 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sidecar file next to a segmented download recording the segments written to the target file. The file
+ * starts with the total length and the segment size followed by one byte per segment set when the segment is complete.
+ * Writing a single byte per segment allows concurrent updates without locking.
+ */
+public class SegmentMap {
+    private static final Logger log = Logger.getLogger(SegmentMap.class);
+
+    private static final int HEADER = 2 * Long.BYTES;
+
+    private final Local target;
+
+    private final Local file;
+
+    /**
+     * @param local Download target
+     */
+    public SegmentMap(final Local local) {
+        this.target = local;
+        this.file = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Allocate target file and record segment layout with no segment complete
+     *
+     * @param target   Download target
+     * @param length   Total length of file
+     * @param partsize Length of segments except the last
+     */
+    public void create(final Local target, final long length, final long partsize) throws AccessDeniedException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Allocate %d bytes for %s", length, target));
+        }
+        try (RandomAccessFile f = new RandomAccessFile(target.getAbsolute(), "rw")) {
+            f.setLength(length);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        if(file.isDirectory()) {
+            // Remove segments folder of previous version
+            for(Local segment : file.list()) {
+                segment.delete();
+            }
+            file.delete();
+        }
+        try (RandomAccessFile f = new RandomAccessFile(file.getAbsolute(), "rw")) {
+            f.setLength(0L);
+            f.writeLong(length);
+            f.writeLong(partsize);
+            f.setLength(HEADER + (length + partsize - 1) / partsize);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param length   Total length of file
+     * @param partsize Length of segments except the last
+     * @return Part numbers of completed segments or empty if no map with the same segment layout is found
+     */
+    public Set<Integer> read(final long length, final long partsize) {
+        final Set<Integer> completed = new HashSet<>();
+        if(!file.isFile()) {
+            return completed;
+        }
+        try (RandomAccessFile f = new RandomAccessFile(file.getAbsolute(), "r")) {
+            if(f.length() < HEADER) {
+                return completed;
+            }
+            if(f.readLong() != length || f.readLong() != partsize) {
+                log.warn(String.format("Segment layout in %s does not match", file));
+                return completed;
+            }
+            final byte[] map = new byte[(int) (f.length() - HEADER)];
+            f.readFully(map);
+            for(int i = 0; i < map.length; i++) {
+                if(map[i] != 0) {
+                    completed.add(i + 1);
+                }
+            }
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading segments from %s. %s", file, e.getMessage()));
+        }
+        return completed;
+    }
+
+    /**
+     * Flush data written to target to disk before recording segment as complete to not skip a segment
+     * with contents lost on a crash when resuming
+     *
+     * @param part Segment number starting at 1
+     */
+    public void complete(final int part) throws AccessDeniedException {
+        try (RandomAccessFile f = new RandomAccessFile(target.getAbsolute(), "rw")) {
+            f.getFD().sync();
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        try (RandomAccessFile f = new RandomAccessFile(file.getAbsolute(), "rwd")) {
+            f.seek(HEADER + part - 1);
+            f.write(1);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    public void delete() throws AccessDeniedException {
+        if(file.exists()) {
+            file.delete();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentMap{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
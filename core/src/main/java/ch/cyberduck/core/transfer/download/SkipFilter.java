@@ -41,6 +41,13 @@ public class SkipFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile() && local.exists()) {
+            if(new SegmentMap(local).exists()) {
+                // Incomplete segmented download allocated to full length
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Accept file %s with incomplete segments in %s", file, local));
+                }
+                return super.accept(file, local, parent);
+            }
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skip file %s", file));
             }
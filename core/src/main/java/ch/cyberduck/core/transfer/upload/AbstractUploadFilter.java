@@ -46,6 +46,7 @@ import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Timestamp;
 import ch.cyberduck.core.features.UnixPermission;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.ChecksumCache;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -257,7 +258,7 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
                 if(null == session.getFeature(MultipartWrite.class)) {
                     final ChecksumCompute feature = session.getFeature(Write.class).checksum();
                     if(feature != null) {
-                        status.setChecksum(feature.compute(local.getInputStream(), new TransferStatus()));
+                        status.setChecksum(ChecksumCache.get().compute(local, feature, new TransferStatus()));
                     }
                 }
             }
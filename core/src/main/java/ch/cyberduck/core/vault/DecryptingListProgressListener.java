@@ -16,48 +16,154 @@ package ch.cyberduck.core.vault;
  */
 
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.IndexedListProgressListener;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
-import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
-public class DecryptingListProgressListener extends IndexedListProgressListener {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+public class DecryptingListProgressListener implements ListProgressListener {
     private static final Logger log = Logger.getLogger(DecryptingListProgressListener.class);
 
+    /**
+     * Number of files decrypted in a single task
+     */
+    private static final int BATCH_SIZE = 100;
+
     private final Session<?> session;
     private final Vault vault;
     private final ListProgressListener delegate;
 
+    /**
+     * Maximum number of threads decrypting a chunk
+     */
+    private final int concurrency;
+
+    /**
+     * Pool shared by all chunks of the listing. Created on first chunk large enough to decrypt concurrently
+     */
+    private ThreadPool pool;
+
+    /**
+     * Number of files in list already decrypted
+     */
+    private int index = 0;
+
     public DecryptingListProgressListener(final Session<?> session, final Vault vault,
                                           final ListProgressListener delegate) {
+        this(session, vault, delegate, PreferencesFactory.get().getInteger("vault.decrypt.concurrency"));
+    }
+
+    public DecryptingListProgressListener(final Session<?> session, final Vault vault,
+                                          final ListProgressListener delegate, final int concurrency) {
         this.session = session;
         this.vault = vault;
         this.delegate = delegate;
+        switch(session.getHost().getProtocol().getType()) {
+            case ftp:
+            case irods:
+                // Inflating long filenames must not use the connection concurrently
+                this.concurrency = 1;
+                break;
+            default:
+                this.concurrency = concurrency;
+        }
     }
 
     @Override
-    public void visit(final AttributedList<Path> list, final int index, final Path file) throws ListCanceledException {
-        for(int i = index; i < list.size(); i++) {
-            final Path f = list.get(i);
+    public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+        final int size = list.size();
+        if(index < size) {
+            // Swap decrypted files in one step
+            list.set(index, this.decrypt(list, index, size));
+        }
+        index = size;
+        delegate.chunk(folder, list);
+    }
+
+    /**
+     * @param list List with encrypted files
+     * @param from Index of first file to decrypt
+     * @param to   Index after last file to decrypt
+     * @return Decrypted files or encrypted file on failure
+     */
+    private List<Path> decrypt(final AttributedList<Path> list, final int from, final int to) throws ConnectionCanceledException {
+        final Path[] decrypted = new Path[to - from];
+        final int threads = Math.min(concurrency, (to - from + BATCH_SIZE - 1) / BATCH_SIZE);
+        if(threads <= 1) {
+            for(int i = from; i < to; i++) {
+                decrypted[i - from] = this.decrypt(list.get(i));
+            }
+            return Arrays.asList(decrypted);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Decrypt %d files with %d threads", to - from, threads));
+        }
+        if(null == pool) {
+            pool = ThreadPoolFactory.get("decrypt", concurrency);
+        }
+        final List<Future<Void>> batches = new ArrayList<Future<Void>>();
+        for(int offset = from; offset < to; offset += BATCH_SIZE) {
+            final int start = offset;
+            final int end = Math.min(to, offset + BATCH_SIZE);
+            batches.add(pool.execute(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for(int i = start; i < end; i++) {
+                        decrypted[i - from] = decrypt(list.get(i));
+                    }
+                    return null;
+                }
+            }));
+        }
+        for(Future<Void> batch : batches) {
             try {
-                list.set(i, vault.decrypt(session, f));
+                batch.get();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
             }
-            catch(BackgroundException e) {
-                log.error(String.format("Failure decrypting %s. %s", f, e.getDetail()));
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new ConnectionCanceledException(e.getCause());
             }
         }
+        return Arrays.asList(decrypted);
     }
 
-    @Override
-    public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
-        super.chunk(folder, list);
-        delegate.chunk(folder, list);
+    /**
+     * Release threads of decrypting pool after listing is complete
+     */
+    public void shutdown() {
+        if(pool != null) {
+            pool.shutdown(false);
+            pool = null;
+        }
+    }
+
+    private Path decrypt(final Path f) {
+        try {
+            return vault.decrypt(session, f);
+        }
+        catch(BackgroundException e) {
+            log.error(String.format("Failure decrypting %s. %s", f, e.getDetail()));
+            return f;
+        }
     }
 
     @Override
@@ -49,7 +49,13 @@ public class VaultFinderListService implements ListService {
             if(log.isInfoEnabled()) {
                 log.info(String.format("Found vault %s", cryptomator));
             }
-            return delegate.list(cryptomator.encrypt(session, directory), new DecryptingListProgressListener(session, cryptomator, listener));
+            final DecryptingListProgressListener decrypting = new DecryptingListProgressListener(session, cryptomator, listener);
+            try {
+                return delegate.list(cryptomator.encrypt(session, directory), decrypting);
+            }
+            finally {
+                decrypting.shutdown();
+            }
         }
     }
 }
@@ -36,6 +36,7 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.notification.NotificationServiceFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -53,10 +54,12 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
@@ -98,6 +101,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     private final StreamListener stream;
 
+    /**
+     * Submit files for transfer as soon as their status is determined
+     */
+    private boolean pipeline
+            = PreferencesFactory.get().getBoolean("queue.transfer.pipeline");
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -114,7 +123,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                   final StreamListener stream,
                                   final ConnectionCallback callback,
                                   final Cache<TransferItem> cache) {
-        this(transfer, options, prompt, meter, error, progress, stream, callback, cache, new HashMap<Path, TransferStatus>());
+        this(transfer, options, prompt, meter, error, progress, stream, callback, cache, new ConcurrentHashMap<Path, TransferStatus>());
     }
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
@@ -137,6 +146,18 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         this.table = table;
     }
 
+    /**
+     * @param pipeline Transfer files while the remaining tree is still being prepared
+     */
+    public AbstractTransferWorker withPipeline(final boolean pipeline) {
+        this.pipeline = pipeline;
+        return this;
+    }
+
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
     protected enum Connection {
         source,
         destination
@@ -144,6 +165,13 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     protected abstract Future<TransferStatus> submit(TransferCallable callable) throws BackgroundException;
 
+    /**
+     * Submit listing of directory. Runs in the transfer queue unless a dedicated listing queue is available.
+     */
+    protected Future<TransferStatus> schedule(final TransferCallable callable) throws BackgroundException {
+        return this.submit(callable);
+    }
+
     protected abstract Session<?> borrow(Connection type) throws BackgroundException;
 
     protected abstract void release(Session session, Connection type) throws BackgroundException;
@@ -197,18 +225,26 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             }
             // Reset the cached size of the transfer and progress value
             transfer.reset();
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+            if(pipeline) {
+                meter.reset();
+                // Files are submitted for transfer once their status is determined. Size converges while transferring
+                this.prepare(transfer.getRoots(), new TransferStatus().exists(true), action);
+                this.await();
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, callback);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, callback);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
         }
         finally {
             transfer.post(source, destination, table, callback);
@@ -245,55 +281,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     }
                     Session<?> source = null;
                     Session<?> destination = null;
+                    final TransferStatus status;
                     try {
                         source = borrow(Connection.source);
                         destination = borrow(Connection.destination);
                         // Determine transfer filter implementation from selected overwrite action
                         final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
-                        // Only prepare the path it will be actually transferred
-                        if(!filter.accept(file, local, parent)) {
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Skip file %s by filter %s for transfer %s", file, filter, this));
-                            }
+                        status = determine(filter, file, local, parent, action);
+                        if(null == status) {
                             return null;
                         }
-                        else {
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Accepted file %s in transfer %s", file, this));
-                            }
-                            // Transfer
-                            progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"),
-                                    file.getName(), action.getTitle()));
-                            // Determine transfer status
-                            final TransferStatus status = filter.prepare(file, local, parent);
-                            table.put(file, status);
-                            // Apply filter
-                            filter.apply(
-                                    status.getRename().remote != null ? status.getRename().remote : item.remote,
-                                    status.getRename().local != null ? status.getRename().local : item.local,
-                                    status, progress);
-                            // Add transfer length to total bytes
-                            transfer.addSize(status.getLength() + status.getOffset());
-                            // Add skipped bytes
-                            transfer.addTransferred(status.getOffset());
-                            // Recursive
-                            if(file.isDirectory()) {
-                                final List<TransferItem> children;
-                                // Call recursively for all children
-                                children = transfer.list(source, destination, file, local, new ActionListProgressListener(AbstractTransferWorker.this, progress));
-                                // Put into cache for later reference when transferring
-                                cache.put(item, new AttributedList<TransferItem>(children));
-                                // Call recursively
-                                for(TransferItem f : children) {
-                                    // Change download path relative to parent local folder
-                                    prepare(f.remote, f.local, status, action);
-                                }
-                            }
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
-                            }
-                            return status;
-                        }
                     }
                     catch(ConnectionCanceledException e) {
                         throw e;
@@ -326,6 +323,11 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             release(destination, Connection.destination);
                         }
                     }
+                    if(file.isDirectory()) {
+                        // Sessions are returned to pool before listing children
+                        list(item, status, action);
+                    }
+                    return status;
                 }
 
                 @Override
@@ -344,6 +346,255 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return null;
     }
 
+    /**
+     * Determine transfer status of files in a single task. The transfer is notified of all files accepted at once
+     * before they are submitted for transfer as bulk features rely on being passed more than a single file.
+     *
+     * @param items  Files to transfer
+     * @param parent Transfer status of parent directory
+     * @param action Transfer action for existing files
+     */
+    public Future<TransferStatus> prepare(final List<TransferItem> items, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Find transfer status of %d files for transfer %s", items.size(), this));
+        }
+        if(this.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
+        final List<TransferItem> selected = new ArrayList<TransferItem>();
+        for(TransferItem item : items) {
+            if(prompt.isSelected(item)) {
+                selected.add(item);
+            }
+            else {
+                log.info(String.format("Skip unchecked file %s for transfer %s", item.remote, this));
+            }
+        }
+        if(selected.isEmpty()) {
+            return ConcurrentUtils.constantFuture(null);
+        }
+        return this.submit(new RetryTransferCallable() {
+            /**
+             * Files accepted with transfer status
+             */
+            private final Map<Path, TransferStatus> accepted = new LinkedHashMap<Path, TransferStatus>();
+
+            /**
+             * Index of next file to determine transfer status for. Files already prepared are skipped on retry.
+             */
+            private int next;
+
+            @Override
+            public TransferStatus call() throws BackgroundException {
+                if(parent.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                Session<?> source = null;
+                Session<?> destination = null;
+                try {
+                    source = borrow(Connection.source);
+                    destination = borrow(Connection.destination);
+                    // Determine transfer filter implementation from selected overwrite action
+                    final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
+                    for(; next < selected.size(); next++) {
+                        final TransferItem item = selected.get(next);
+                        final TransferStatus status = determine(filter, item.remote, item.local, parent, action);
+                        if(null != status) {
+                            // Skipped bytes are not part of the measured throughput
+                            meter.skip(skipped(status));
+                            accepted.put(item.remote, status);
+                        }
+                    }
+                    if(!accepted.isEmpty()) {
+                        transfer.pre(source, destination, accepted, callback);
+                    }
+                }
+                catch(ConnectionCanceledException e) {
+                    throw e;
+                }
+                catch(BackgroundException e) {
+                    if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
+                        // Retry immediately
+                        return call();
+                    }
+                    if(table.size() == 0) {
+                        throw e;
+                    }
+                    // Prompt to continue or abort for application errors
+                    else if(error.prompt(e)) {
+                        // Continue
+                        log.warn(String.format("Ignore transfer failure %s", e));
+                        if(next < selected.size()) {
+                            // Skip file failed to prepare
+                            next++;
+                            return call();
+                        }
+                        return null;
+                    }
+                    else {
+                        throw new ConnectionCanceledException(e);
+                    }
+                }
+                finally {
+                    if(source != null) {
+                        // Return session to pool
+                        release(source, Connection.source);
+                    }
+                    if(destination != null) {
+                        // Return session to pool
+                        release(destination, Connection.destination);
+                    }
+                }
+                for(TransferItem item : selected) {
+                    if(accepted.containsKey(item.remote)) {
+                        // Sessions are returned to pool before submitting transfer
+                        transfer(item, action);
+                    }
+                }
+                return parent;
+            }
+
+            @Override
+            public String toString() {
+                final StringBuilder sb = new StringBuilder("TransferCallable{");
+                sb.append("files=").append(selected.size());
+                sb.append('}');
+                return sb.toString();
+            }
+        });
+    }
+
+    /**
+     * Determine transfer status of file and add to table of files to transfer
+     *
+     * @return Null if file is not accepted by filter
+     */
+    private TransferStatus determine(final TransferPathFilter filter, final Path file, final Local local,
+                                     final TransferStatus parent, final TransferAction action) throws BackgroundException {
+        // Only prepare the path it will be actually transferred
+        if(!filter.accept(file, local, parent)) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Skip file %s by filter %s for transfer %s", file, filter, this));
+            }
+            return null;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Accepted file %s in transfer %s", file, this));
+        }
+        // Transfer
+        progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"),
+                file.getName(), action.getTitle()));
+        // Determine transfer status
+        final TransferStatus status = filter.prepare(file, local, parent);
+        table.put(file, status);
+        // Apply filter
+        filter.apply(
+                status.getRename().remote != null ? status.getRename().remote : file,
+                status.getRename().local != null ? status.getRename().local : local,
+                status, progress);
+        // Add transfer length to total bytes
+        transfer.addSize(status.getLength() + status.getOffset());
+        // Add skipped bytes
+        transfer.addTransferred(this.skipped(status));
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
+        }
+        return status;
+    }
+
+    /**
+     * List directory and prepare children as soon as the listing is available. Listings are scheduled
+     * in the order directories are found resulting in a breadth first traversal.
+     *
+     * @param item   Directory to list
+     * @param status Transfer status of directory
+     * @param action Transfer action for existing files
+     */
+    public Future<TransferStatus> list(final TransferItem item, final TransferStatus status, final TransferAction action) throws BackgroundException {
+        if(this.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
+        return this.schedule(new RetryTransferCallable() {
+            @Override
+            public TransferStatus call() throws BackgroundException {
+                if(status.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                Session<?> source = null;
+                Session<?> destination = null;
+                final List<TransferItem> children;
+                try {
+                    source = borrow(Connection.source);
+                    destination = borrow(Connection.destination);
+                    children = transfer.list(source, destination, item.remote, item.local, new ActionListProgressListener(AbstractTransferWorker.this, progress));
+                }
+                catch(ConnectionCanceledException e) {
+                    throw e;
+                }
+                catch(BackgroundException e) {
+                    if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
+                        // Retry immediately
+                        return call();
+                    }
+                    // Prompt to continue or abort for application errors
+                    if(error.prompt(e)) {
+                        // Continue
+                        log.warn(String.format("Ignore listing failure %s", e));
+                        return null;
+                    }
+                    throw new ConnectionCanceledException(e);
+                }
+                finally {
+                    if(source != null) {
+                        // Return session to pool
+                        release(source, Connection.source);
+                    }
+                    if(destination != null) {
+                        // Return session to pool
+                        release(destination, Connection.destination);
+                    }
+                }
+                if(pipeline) {
+                    // Transfer children once their status is determined
+                    prepare(children, status, action);
+                }
+                else {
+                    // Put into cache for later reference when transferring
+                    cache.put(item, new AttributedList<TransferItem>(children));
+                    for(TransferItem f : children) {
+                        // Change download path relative to parent local folder
+                        prepare(f.remote, f.local, status, action);
+                    }
+                }
+                return status;
+            }
+
+            @Override
+            public String toString() {
+                final StringBuilder sb = new StringBuilder("ListCallable{");
+                sb.append("file=").append(item.remote);
+                sb.append(", local=").append(item.local);
+                sb.append('}');
+                return sb.toString();
+            }
+        });
+    }
+
+    /**
+     * @return Bytes not transferred for appended file and segments completed previously
+     */
+    private long skipped(final TransferStatus status) {
+        long skipped = status.getOffset();
+        if(status.isSegmented()) {
+            for(TransferStatus segment : status.getSegments()) {
+                if(segment.isComplete()) {
+                    skipped += segment.getLength();
+                }
+            }
+        }
+        return skipped;
+    }
+
     /**
      * @param item   File to transfer
      * @param action Transfer action for existing files
@@ -359,6 +610,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             final List<TransferStatus> segments = status.getSegments();
             for(final Iterator<TransferStatus> iter = segments.iterator(); iter.hasNext(); ) {
                 final TransferStatus segment = iter.next();
+                if(status.isSegmented() && segment.isComplete()) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Skip completed segment %s", segment));
+                    }
+                    continue;
+                }
                 this.submit(new RetryTransferCallable() {
                     @Override
                     public TransferStatus call() throws BackgroundException {
@@ -368,6 +625,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         // Transfer
                         Session<?> source = null;
                         Session<?> destination = null;
+                        boolean recursive = false;
                         try {
                             source = borrow(Connection.source);
                             destination = borrow(Connection.destination);
@@ -378,11 +636,17 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
                             // Recursive
                             if(item.remote.isDirectory()) {
-                                for(TransferItem f : cache.get(item)) {
-                                    // Recursive
-                                    transfer(f, action);
+                                if(pipeline) {
+                                    // List children after the directory has been transferred
+                                    recursive = true;
+                                }
+                                else {
+                                    for(TransferItem f : cache.get(item)) {
+                                        // Recursive
+                                        transfer(f, action);
+                                    }
+                                    cache.remove(item);
                                 }
-                                cache.remove(item);
                             }
                             // Determine transfer filter implementation from selected overwrite action
                             final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
@@ -432,6 +696,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 release(destination, Connection.destination);
                             }
                         }
+                        if(recursive) {
+                            // Scheduled for listing with sessions returned to pool
+                            list(item, status, action);
+                        }
                         return segment;
                     }
 
@@ -459,6 +727,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 complete = false;
                             }
                         }
+                        // Free memory when last segment was skipped
+                        table.remove(item.remote);
                         if(complete) {
                             final Session<?> source = borrow(Connection.source);
                             final Session<?> destination = borrow(Connection.destination);
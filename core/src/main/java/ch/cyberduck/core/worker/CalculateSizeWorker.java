@@ -26,11 +26,33 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Size;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
+import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class CalculateSizeWorker extends Worker<Long> {
+    private static final Logger log = Logger.getLogger(CalculateSizeWorker.class);
 
     /**
      * Selected files.
@@ -39,46 +61,226 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
 
     private final ProgressListener listener;
 
+    /**
+     * Pool to borrow additional sessions from to list directories concurrently
+     */
+    private final SessionPool pool;
+
+    private final int concurrency;
+
     public CalculateSizeWorker(final List<Path> files, final ProgressListener listener) {
+        this(SessionPool.DISCONNECTED, files, listener, 1);
+    }
+
+    public CalculateSizeWorker(final SessionPool pool, final List<Path> files, final ProgressListener listener) {
+        // Single connection shared with browser cannot be borrowed again
+        this(pool, files, listener, pool instanceof StatefulSessionPool ? 1 :
+                PreferencesFactory.get().getInteger("browser.size.concurrency"));
+    }
+
+    public CalculateSizeWorker(final SessionPool pool, final List<Path> files, final ProgressListener listener, final int concurrency) {
         this.files = files;
         this.listener = listener;
+        this.pool = pool;
+        this.concurrency = concurrency;
     }
 
-    private Long total = 0L;
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Directories not yet listed. Subdirectories are added to the head to keep the backlog small.
+     */
+    private final BlockingDeque<Directory> queue = new LinkedBlockingDeque<Directory>();
+
+    /**
+     * Number of directories queued or currently listed
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * First failure of any thread to stop all others
+     */
+    private final AtomicReference<BackgroundException> failure = new AtomicReference<BackgroundException>();
 
     @Override
     public Long run(final Session<?> session) throws BackgroundException {
+        final Map<Path, AtomicLong> sizes = new LinkedHashMap<Path, AtomicLong>();
         for(Path next : files) {
-            next.attributes().setSize(this.calculateSize(session, next));
+            if(this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            if(next.isDirectory()) {
+                final AtomicLong size = new AtomicLong();
+                sizes.put(next, size);
+                pending.incrementAndGet();
+                queue.addLast(new Directory(next, size));
+            }
+            else if(next.isFile()) {
+                this.add(new AtomicLong(), next.attributes().getSize());
+            }
+        }
+        final int threads = sizes.isEmpty() ? 1 : concurrency;
+        final ThreadPool executor = threads > 1 ? new DefaultThreadPool("size", threads - 1) : null;
+        try {
+            final List<Future<Void>> helpers = new ArrayList<Future<Void>>();
+            for(int i = 1; i < threads; i++) {
+                helpers.add(executor.execute(new BackgroundExceptionCallable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        final Session<?> session;
+                        try {
+                            session = pool.borrow(new BackgroundActionState() {
+                                @Override
+                                public boolean isCanceled() {
+                                    // Stop waiting for a connection from exhausted pool when no directories are left
+                                    return CalculateSizeWorker.this.isCanceled() || pending.get() == 0 || failure.get() != null;
+                                }
+
+                                @Override
+                                public boolean isRunning() {
+                                    return true;
+                                }
+                            });
+                        }
+                        catch(ConnectionCanceledException e) {
+                            if(log.isDebugEnabled()) {
+                                log.debug(String.format("Stop waiting for additional connection with %d directories pending", pending.get()));
+                            }
+                            return null;
+                        }
+                        catch(BackgroundException e) {
+                            // Continue with remaining connections
+                            log.warn(String.format("Failure obtaining additional connection. %s", e.getMessage()));
+                            return null;
+                        }
+                        BackgroundException cause = null;
+                        try {
+                            consume(session);
+                        }
+                        catch(BackgroundException e) {
+                            cause = e;
+                            throw e;
+                        }
+                        finally {
+                            pool.release(session, cause);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            this.consume(session);
+            for(Future<Void> helper : helpers) {
+                try {
+                    helper.get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failure calculating size in helper thread. %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        failure.compareAndSet(null, (BackgroundException) e.getCause());
+                    }
+                    else {
+                        failure.compareAndSet(null, new BackgroundException(e.getCause()));
+                    }
+                }
+            }
         }
-        return total;
+        finally {
+            if(executor != null) {
+                executor.shutdown(false);
+            }
+        }
+        if(failure.get() != null) {
+            throw failure.get();
+        }
+        for(Map.Entry<Path, AtomicLong> entry : sizes.entrySet()) {
+            entry.getKey().attributes().setSize(entry.getValue().get());
+        }
+        return total.get();
     }
 
     /**
-     * Calculates recursively the size of this path if a directory
-     * Potentially lengthy operation
+     * Take directories from queue until no more directories are pending
      *
-     * @param p Directory or file
-     * @return The size of the file or the sum of all containing files if a directory
+     * @param session Connection used by this thread only
      */
-    private long calculateSize(final Session<?> session, final Path p) throws BackgroundException {
-        long size = 0;
-        if(this.isCanceled()) {
-            throw new ConnectionCanceledException();
+    private void consume(final Session<?> session) throws BackgroundException {
+        while(failure.get() == null) {
+            if(this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            final Directory next;
+            try {
+                next = queue.pollFirst(100L, TimeUnit.MILLISECONDS);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            if(null == next) {
+                if(pending.get() == 0) {
+                    // Complete
+                    return;
+                }
+                // Wait for directories still listed by other threads
+                continue;
+            }
+            try {
+                this.calculateSize(session, next);
+            }
+            catch(BackgroundException e) {
+                failure.compareAndSet(null, e);
+                throw e;
+            }
+            finally {
+                pending.decrementAndGet();
+            }
         }
+    }
+
+    /**
+     * Calculates the size of files in this directory and queues subdirectories. Sums up the size of the complete
+     * tree with a single listing if supported by the protocol.
+     *
+     * @param directory Directory with total of the selected file it belongs to
+     */
+    private void calculateSize(final Session<?> session, final Directory directory) throws BackgroundException {
         listener.message(MessageFormat.format(LocaleFactory.localizedString("Getting size of {0}", "Status"),
-                p.getName()));
-        if(p.isDirectory()) {
-            for(Path next : session.getFeature(ListService.class).list(p, new ActionListProgressListener(this, listener))) {
-                size += this.calculateSize(session, next);
+                directory.file.getName()));
+        final Size feature = session.getFeature(Size.class);
+        if(feature != null && !directory.file.isRoot() && !directory.file.getType().contains(Path.Type.decrypted)) {
+            feature.calculate(directory.file, new Size.Callback() {
+                private long previous;
+
+                @Override
+                public void update(final long size) throws ConnectionCanceledException {
+                    if(isCanceled()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    add(directory.size, size - previous);
+                    previous = size;
+                }
+            });
+            return;
+        }
+        for(Path next : session.getFeature(ListService.class).list(directory.file, new ActionListProgressListener(this, listener))) {
+            if(next.isDirectory()) {
+                pending.incrementAndGet();
+                queue.addFirst(new Directory(next, directory.size));
+            }
+            else if(next.isFile()) {
+                this.add(directory.size, next.attributes().getSize());
             }
         }
-        else if(p.isFile()) {
-            size += p.attributes().getSize();
-            total += size;
-            this.update(total);
+    }
+
+    private void add(final AtomicLong size, final long length) {
+        size.addAndGet(length);
+        total.addAndGet(length);
+        synchronized(total) {
+            this.update(total.get());
         }
-        return size;
     }
 
     /**
@@ -96,7 +298,7 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
 
     @Override
     public Long initialize() {
-        return total;
+        return 0L;
     }
 
     @Override
@@ -127,4 +329,17 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Directory {
+        private final Path file;
+        /**
+         * Total of selected directory
+         */
+        private final AtomicLong size;
+
+        public Directory(final Path file, final AtomicLong size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
 }
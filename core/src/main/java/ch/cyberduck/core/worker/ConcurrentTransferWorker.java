@@ -39,10 +39,14 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
@@ -52,8 +56,17 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final SessionPool destination;
 
     private final CompletionService<TransferStatus> completion;
+    // Completed tasks of both pools
+    private final BlockingQueue<Future<TransferStatus>> queue
+            = new LinkedBlockingQueue<Future<TransferStatus>>();
+    // Directory listings completing in the same queue as transfer tasks
+    private final CompletionService<TransferStatus> listing;
+    private final ThreadPool lister;
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
+    // Bound number of pending tasks when pipelined
+    private final Semaphore backlog = new Semaphore(
+            PreferencesFactory.get().getInteger("queue.transfer.pipeline.backlog"));
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -71,7 +84,11 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         final ThreadPool pool = ThreadPoolFactory.get("transfer",
                 transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
                         1 : PreferencesFactory.get().getInteger("queue.connections.limit"));
-        this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor(), queue);
+        this.lister = ThreadPoolFactory.get("list",
+                transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
+                        1 : PreferencesFactory.get().getInteger("queue.transfer.list.concurrency"));
+        this.listing = new ExecutorCompletionService<TransferStatus>(lister.executor(), queue);
     }
 
     @Override
@@ -122,9 +139,50 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to pool", callable));
         }
-        final Future<TransferStatus> f = completion.submit(callable);
+        if(this.isPipeline()) {
+            if(!backlog.tryAcquire()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Run %s in calling thread with backlog exhausted", callable));
+                }
+                // Apply back pressure to producer of tasks
+                final FutureTask<TransferStatus> task = new FutureTask<TransferStatus>(callable);
+                task.run();
+                // Failure is handled when awaiting completion
+                size.incrementAndGet();
+                queue.add(task);
+                return task;
+            }
+            // Count before submitting as task may complete before returning
+            size.incrementAndGet();
+            final Future<TransferStatus> f = completion.submit(new TransferCallable() {
+                @Override
+                public TransferStatus call() throws BackgroundException {
+                    try {
+                        return callable.call();
+                    }
+                    finally {
+                        backlog.release();
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return callable.toString();
+                }
+            });
+            return f;
+        }
         size.incrementAndGet();
-        return f;
+        return completion.submit(callable);
+    }
+
+    @Override
+    protected Future<TransferStatus> schedule(final TransferCallable callable) throws BackgroundException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit %s to listing pool", callable));
+        }
+        size.incrementAndGet();
+        return listing.submit(callable);
     }
 
     @Override
@@ -135,9 +193,6 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                 log.info(String.format("Await completion for %d submitted tasks in queue", size.get()));
             }
             try {
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Await completion for %d submitted tasks in queue", size.get()));
-                }
                 final TransferStatus status = completion.take().get();
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Finished task with return value %s", status));
@@ -161,6 +216,13 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    @Override
+    public void cleanup(final Boolean result) {
+        // Terminate threads of listing pool
+        lister.shutdown(false);
+        super.cleanup(result);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("ConcurrentTransferWorker{");
@@ -18,6 +18,7 @@ package ch.cyberduck.core.worker;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListService;
@@ -29,8 +30,12 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -39,6 +44,7 @@ import java.util.List;
 import java.util.Objects;
 
 public class DeleteWorker extends Worker<List<Path>> {
+    private static final Logger log = Logger.getLogger(DeleteWorker.class);
 
     private final Cache<Path> cache;
     /**
@@ -61,10 +67,12 @@ public class DeleteWorker extends Worker<List<Path>> {
         this.cache = cache;
     }
 
+    /**
+     * @return Selected files and deleted directories
+     */
     @Override
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete feature = session.getFeature(Delete.class);
-        final List<Path> recursive = new ArrayList<Path>();
         for(Path file : files) {
             if(this.isCanceled()) {
                 throw new ConnectionCanceledException();
@@ -72,37 +80,73 @@ public class DeleteWorker extends Worker<List<Path>> {
             if(!feature.isSupported(file)) {
                 throw new UnsupportedException();
             }
-            recursive.addAll(this.compile(session.getFeature(Delete.class), session.getFeature(ListService.class), file));
         }
-        feature.delete(recursive, prompt, new Delete.Callback() {
-            @Override
-            public void delete(final Path file) {
-                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
-                        file.getName()));
+        final Queue queue = new Queue(feature, PreferencesFactory.get().getInteger("delete.stream.partition"));
+        for(Path file : files) {
+            this.compile(session, feature, session.getFeature(ListService.class), queue, file);
+        }
+        queue.flush();
+        final List<Path> deleted = new ArrayList<Path>(queue.directories);
+        for(Path file : files) {
+            if(!deleted.contains(file)) {
+                deleted.add(file);
             }
-        });
-        return recursive;
+        }
+        return deleted;
     }
 
-    protected List<Path> compile(final Delete delete, final ListService list, final Path file) throws BackgroundException {
-        // Compile recursive list
-        final List<Path> recursive = new ArrayList<Path>();
+    /**
+     * Add files to the queue while the directory listing is still in progress for protocols where the listing is
+     * retrieved in pages with independent requests and can be interleaved with delete requests on the same connection.
+     *
+     * @return True if files can be deleted while listing a directory
+     */
+    protected boolean isStreaming(final Session<?> session) {
+        switch(session.getHost().getProtocol().getType()) {
+            case s3:
+            case googlestorage:
+            case dropbox:
+            case googledrive:
+            case swift:
+            case dav:
+            case azure:
+            case b2:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Walk tree and add files to delete queue with children ahead of their parent directory
+     */
+    protected void compile(final Session<?> session, final Delete delete, final ListService list,
+                           final Queue queue, final Path file) throws BackgroundException {
+        if(this.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
         if(file.isFile() || file.isSymbolicLink()) {
-            recursive.add(file);
+            queue.add(file);
         }
         else if(file.isDirectory()) {
             if(!delete.isRecursive()) {
-                for(Path child : list.list(file, new ActionListProgressListener(this, listener)).filter(filter)) {
-                    if(this.isCanceled()) {
-                        throw new ConnectionCanceledException();
+                final QueueListProgressListener stream = new QueueListProgressListener(queue, this.isStreaming(session));
+                try {
+                    // Add files not yet passed in a chunk. Listing is not retained while descending into subdirectories
+                    stream.add(list.list(file, stream));
+                }
+                catch(ListCanceledException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
                     }
-                    recursive.addAll(this.compile(delete, list, child));
+                    throw e;
+                }
+                for(Path directory : stream.directories) {
+                    this.compile(session, delete, list, queue, directory);
                 }
             }
             // Add parent after children
-            recursive.add(file);
+            queue.add(file);
         }
-        return recursive;
     }
 
     @Override
@@ -126,6 +170,110 @@ public class DeleteWorker extends Worker<List<Path>> {
         return Collections.emptyList();
     }
 
+    /**
+     * Adds files to the delete queue as soon as they are passed in a chunk of the listing and only keeps
+     * references to subdirectories
+     */
+    private final class QueueListProgressListener extends ActionListProgressListener {
+        private final Queue queue;
+        private final boolean streaming;
+        /**
+         * Subdirectories found in listing
+         */
+        private final List<Path> directories = new ArrayList<Path>();
+        /**
+         * Number of entries already seen in the list accumulated by the listing service
+         */
+        private int index;
+
+        public QueueListProgressListener(final Queue queue, final boolean streaming) {
+            super(DeleteWorker.this, listener);
+            this.queue = queue;
+            this.streaming = streaming;
+        }
+
+        @Override
+        public void chunk(final Path parent, final AttributedList<Path> chunk) throws ConnectionCanceledException {
+            super.chunk(parent, chunk);
+            if(streaming) {
+                try {
+                    this.add(chunk);
+                }
+                catch(BackgroundException e) {
+                    throw new ListCanceledException(chunk, e);
+                }
+            }
+        }
+
+        /**
+         * Add entries of the listing past the ones already seen
+         *
+         * @param list Accumulated listing
+         */
+        public void add(final AttributedList<Path> list) throws BackgroundException {
+            for(; index < list.size(); index++) {
+                final Path child = list.get(index);
+                if(!filter.accept(child)) {
+                    continue;
+                }
+                if(child.isFile() || child.isSymbolicLink()) {
+                    queue.add(child);
+                }
+                else if(child.isDirectory()) {
+                    directories.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounded buffer of files passed to the delete feature in order whenever the partition size is reached
+     */
+    protected final class Queue {
+        private final Delete feature;
+        private final int partition;
+
+        private final List<Path> pending = new ArrayList<Path>();
+        /**
+         * Deleted directories to invalidate in cache
+         */
+        private final List<Path> directories = new ArrayList<Path>();
+
+        public Queue(final Delete feature, final int partition) {
+            this.feature = feature;
+            this.partition = partition;
+        }
+
+        public void add(final Path file) throws BackgroundException {
+            pending.add(file);
+            if(pending.size() >= partition) {
+                this.flush();
+            }
+        }
+
+        public void flush() throws BackgroundException {
+            if(pending.isEmpty()) {
+                return;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Delete %d files in queue", pending.size()));
+            }
+            feature.delete(new ArrayList<Path>(pending), prompt, new Delete.Callback() {
+                @Override
+                public void delete(final Path file) {
+                    listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                            file.getName()));
+                }
+            });
+            for(Path file : pending) {
+                if(file.isDirectory()) {
+                    directories.add(file);
+                }
+            }
+            pending.clear();
+        }
+    }
+
     @Override
     public boolean equals(final Object o) {
         if(this == o) {
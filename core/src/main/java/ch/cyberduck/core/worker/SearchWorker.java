@@ -58,7 +58,8 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
             throw new ConnectionCanceledException();
         }
         // Get filtered list from search
-        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(), new ActionListProgressListener(this, listener));
+        final AttributedList<Path> list = search.search(workdir,
+                search.isRecursive() ? filter : new RecursiveSearchFilter(), new ActionListProgressListener(this, listener));
         if(!search.isRecursive()) {
             for(Iterator<Path> iter = list.iterator(); iter.hasNext(); ) {
                 final Path file = iter.next();
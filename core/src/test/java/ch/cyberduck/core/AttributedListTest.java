@@ -2,8 +2,12 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -53,4 +57,79 @@ public class AttributedListTest {
         assertTrue(list2.add(a));
         assertEquals(list1, list2);
     }
+
+    @Test
+    public void testSnapshotIteration() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        final Iterator<Path> iter = list.iterator();
+        final List<Path> snapshot = list.toList();
+        assertTrue(list.add(b));
+        assertEquals(a, iter.next());
+        assertFalse(iter.hasNext());
+        assertEquals(1, snapshot.size());
+        assertEquals(2, list.size());
+        list.remove(a);
+        assertEquals(1, snapshot.size());
+        assertEquals(a, snapshot.get(0));
+        assertEquals(Collections.singletonList(b), list.toList());
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(list.add(new Path(String.format("/f%d", i), EnumSet.of(Path.Type.file))));
+        }
+        assertEquals(500, list.indexOf(new Path("/f500", EnumSet.of(Path.Type.file))));
+        assertEquals(-1, list.indexOf(new Path("/f500", EnumSet.of(Path.Type.directory))));
+        // Index is updated when appending
+        final Path appended = new Path("/f1000", EnumSet.of(Path.Type.file));
+        list.add(appended);
+        assertEquals(1000, list.indexOf(appended));
+        assertSame(appended, list.get(new Path("/f1000", EnumSet.of(Path.Type.file))));
+        list.remove(new Path("/f0", EnumSet.of(Path.Type.file)));
+        assertFalse(list.contains(new Path("/f0", EnumSet.of(Path.Type.file))));
+        assertEquals(499, list.indexOf(new Path("/f500", EnumSet.of(Path.Type.file))));
+        list.filter(new Comparator<Path>() {
+            @Override
+            public int compare(final Path o1, final Path o2) {
+                return o2.getName().compareTo(o1.getName());
+            }
+        });
+        assertEquals(0, list.indexOf(new Path("/f999", EnumSet.of(Path.Type.file))));
+        list.set(0, new Path("/g", EnumSet.of(Path.Type.file)));
+        assertEquals(-1, list.indexOf(new Path("/f999", EnumSet.of(Path.Type.file))));
+        assertEquals(0, list.indexOf(new Path("/g", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testSetRange() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 5; i++) {
+            list.add(new Path("/f" + i, EnumSet.of(Path.Type.file)));
+        }
+        final Iterator<Path> snapshot = list.iterator();
+        list.set(2, Arrays.asList(new Path("/g2", EnumSet.of(Path.Type.file)), new Path("/g3", EnumSet.of(Path.Type.file))));
+        assertEquals(5, list.size());
+        assertEquals(new Path("/f1", EnumSet.of(Path.Type.file)), list.get(1));
+        assertEquals(new Path("/g2", EnumSet.of(Path.Type.file)), list.get(2));
+        assertEquals(new Path("/g3", EnumSet.of(Path.Type.file)), list.get(3));
+        assertEquals(new Path("/f4", EnumSet.of(Path.Type.file)), list.get(4));
+        assertEquals(-1, list.indexOf(new Path("/f2", EnumSet.of(Path.Type.file))));
+        // Iteration on previous snapshot unaffected
+        for(int i = 0; i < 3; i++) {
+            snapshot.next();
+        }
+        assertEquals(new Path("/f3", EnumSet.of(Path.Type.file)), snapshot.next());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetRangeOutOfBounds() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path("/f", EnumSet.of(Path.Type.file)));
+        list.set(0, Arrays.asList(new Path("/g", EnumSet.of(Path.Type.file)), new Path("/h", EnumSet.of(Path.Type.file))));
+    }
 }
@@ -3,7 +3,12 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -85,4 +90,143 @@ public class PathCacheTest {
         assertFalse(cache.isHidden(new Path(parent, "a", EnumSet.of(Path.Type.file))));
         assertTrue(cache.isHidden(new Path(parent, "b", EnumSet.of(Path.Type.file))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLookupModifiedListing() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path parent = new Path("/p", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path(parent, "a", EnumSet.of(Path.Type.file));
+        list.add(a);
+        cache.put(parent, list);
+        assertSame(a, cache.lookup(new DefaultPathPredicate(new Path(parent, "a", EnumSet.of(Path.Type.file)))));
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path(parent, "a", EnumSet.of(Path.Type.directory)))));
+        list.remove(a);
+        assertNull(cache.lookup(new DefaultPathPredicate(a)));
+        cache.remove(parent);
+        assertNull(cache.lookup(new DefaultPathPredicate(a)));
+    }
+
+    @Test
+    public void testLookupEvicted() throws Exception {
+        final PathCache cache = new PathCache(1);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path f = new Path(a, "f", EnumSet.of(Path.Type.file));
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(f)));
+        assertSame(f, cache.lookup(new DefaultPathPredicate(f)));
+        cache.put(b, new AttributedList<Path>(Collections.singletonList(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+        assertFalse(cache.isCached(a));
+        assertNull(cache.lookup(new DefaultPathPredicate(f)));
+        assertNotNull(cache.lookup(new DefaultPathPredicate(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+    }
+
+    @Test
+    public void testEvictByWeight() throws Exception {
+        final PathCache cache = new PathCache(new ChildCountCacheWeigher<Path>(), 5L, -1L);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(new Path(a, "f", EnumSet.of(Path.Type.file)))));
+        cache.put(b, new AttributedList<Path>(Collections.singletonList(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.isCached(a));
+        assertTrue(cache.isCached(b));
+        // Access to make b least recently used
+        cache.get(a);
+        cache.put(c, new AttributedList<Path>(Collections.singletonList(new Path(c, "f", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.isCached(a));
+        assertFalse(cache.isCached(b));
+        assertTrue(cache.isCached(c));
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+        assertEquals(1L, cache.getStatistics().getEvictions());
+        // Listing exceeding maximum weight is retained
+        cache.put(b, new AttributedList<Path>(Arrays.asList(
+                new Path(b, "f1", EnumSet.of(Path.Type.file)), new Path(b, "f2", EnumSet.of(Path.Type.file)),
+                new Path(b, "f3", EnumSet.of(Path.Type.file)), new Path(b, "f4", EnumSet.of(Path.Type.file)),
+                new Path(b, "f5", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.isCached(b));
+        assertFalse(cache.isCached(a));
+        assertFalse(cache.isCached(c));
+        assertEquals(3L, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testReweighModifiedListing() throws Exception {
+        final PathCache cache = new PathCache(new ChildCountCacheWeigher<Path>(), 5L, -1L);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>(Collections.singletonList(new Path(a, "f", EnumSet.of(Path.Type.file))));
+        cache.put(a, list);
+        cache.put(b, new AttributedList<Path>(Collections.singletonList(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.isCached(b));
+        // Append chunk to cached listing
+        list.add(new Path(a, "f2", EnumSet.of(Path.Type.file)));
+        list.add(new Path(a, "f3", EnumSet.of(Path.Type.file)));
+        assertSame(list, cache.get(a));
+        assertTrue(cache.isCached(a));
+        assertFalse(cache.isCached(b));
+        assertEquals(1L, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE, 1L);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(new Path(a, "f", EnumSet.of(Path.Type.file)))));
+        Thread.sleep(10L);
+        assertFalse(cache.isCached(a));
+        assertEquals(AttributedList.<Path>emptyList(), cache.get(a));
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path(a, "f", EnumSet.of(Path.Type.file)))));
+        assertEquals(1L, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path f = new Path(a, "f", EnumSet.of(Path.Type.file));
+        cache.get(a);
+        assertEquals(1L, cache.getStatistics().getMisses());
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(f)));
+        cache.get(a);
+        assertSame(f, cache.lookup(new DefaultPathPredicate(f)));
+        assertEquals(2L, cache.getStatistics().getHits());
+        assertEquals(1L, cache.getStatistics().getMisses());
+        assertEquals(0L, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testConcurrentEviction() throws Exception {
+        final PathCache cache = new PathCache(10);
+        final int threads = 8;
+        final int directories = 500;
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        for(int t = 0; t < threads; t++) {
+            final int thread = t;
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    }
+                    catch(InterruptedException e) {
+                        return;
+                    }
+                    for(int i = 0; i < directories; i++) {
+                        final Path directory = new Path(String.format("/%d/%d", thread, i), EnumSet.of(Path.Type.directory));
+                        final Path f = new Path(directory, "f", EnumSet.of(Path.Type.file));
+                        cache.put(directory, new AttributedList<Path>(Collections.singletonList(f)));
+                        cache.get(directory);
+                        cache.lookup(new DefaultPathPredicate(f));
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(10, cache.keySet().size());
+        assertEquals(threads * directories - 10, cache.getStatistics().getEvictions());
+    }
+}
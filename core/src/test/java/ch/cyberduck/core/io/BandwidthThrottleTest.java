@@ -0,0 +1,111 @@
+package ch.cyberduck.core.io;
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class BandwidthThrottleTest {
+
+    @Test
+    public void testUnlimited() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+        assertEquals(Integer.MAX_VALUE, throttle.request(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testRequestLimitedToWindow() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(1000f);
+        final int granted = throttle.request(10000);
+        assertTrue(granted > 0);
+        assertTrue(granted <= 100);
+    }
+
+    @Test
+    public void testParentLimits() {
+        final BandwidthThrottle parent = new BandwidthThrottle(1000f);
+        final BandwidthThrottle throttle = new BandwidthThrottle(parent, BandwidthThrottle.UNLIMITED);
+        final int granted = throttle.request(10000);
+        assertTrue(granted > 0);
+        assertTrue(granted <= 100);
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        final BandwidthThrottle parent = new BandwidthThrottle(100000f);
+        final AtomicLong total = new AtomicLong();
+        final List<Thread> threads = new ArrayList<Thread>();
+        final long start = System.currentTimeMillis();
+        for(int i = 0; i < 4; i++) {
+            final BandwidthThrottle throttle = new BandwidthThrottle(parent, BandwidthThrottle.UNLIMITED);
+            final Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long sent = 0;
+                    while(sent < 25000) {
+                        sent += throttle.request(1024);
+                    }
+                    total.addAndGet(sent);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for(Thread t : threads) {
+            t.join();
+        }
+        // 100000 bytes with initial burst of 10000 bytes
+        assertTrue(System.currentTimeMillis() - start >= 800);
+        assertTrue(total.get() >= 100000);
+    }
+
+    @Test
+    public void testRelease() {
+        final BandwidthThrottle parent = new BandwidthThrottle(1000f);
+        final BandwidthThrottle throttle = new BandwidthThrottle(parent, 1000f);
+        final int granted = throttle.request(100);
+        throttle.release(granted);
+        assertEquals(granted, throttle.request(granted));
+    }
+
+    @Test
+    public void testRegistry() {
+        final BandwidthThrottle a = BandwidthThrottleRegistry.get().download(new Host(new TestProtocol(), "a"));
+        final BandwidthThrottle b = BandwidthThrottleRegistry.get().download(new Host(new TestProtocol(), "a"));
+        final BandwidthThrottle c = BandwidthThrottleRegistry.get().download(new Host(new TestProtocol(), "c"));
+        assertNotSame(a, b);
+        assertSame(a.getParent(), b.getParent());
+        assertNotSame(a.getParent(), c.getParent());
+        assertSame(a.getParent().getParent(), c.getParent().getParent());
+        assertNotSame(a.getParent().getParent(), BandwidthThrottleRegistry.get().upload(new Host(new TestProtocol(), "a")).getParent().getParent());
+    }
+
+    @Test
+    public void testRegistryRefresh() {
+        final BandwidthThrottle a = BandwidthThrottleRegistry.get().upload(new Host(new TestProtocol(), "refresh"));
+        assertEquals(BandwidthThrottle.UNLIMITED, a.getRate(), 0f);
+        assertEquals(BandwidthThrottle.UNLIMITED, a.getParent().getParent().getRate(), 0f);
+        try {
+            PreferencesFactory.get().setProperty("queue.upload.bandwidth.total.bytes", 1000f);
+            PreferencesFactory.get().setProperty("queue.upload.bandwidth.host.bytes", 500f);
+            BandwidthThrottleRegistry.get().refresh();
+            assertEquals(BandwidthThrottle.UNLIMITED, a.getRate(), 0f);
+            assertEquals(500f, a.getParent().getRate(), 0f);
+            assertEquals(1000f, a.getParent().getParent().getRate(), 0f);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.upload.bandwidth.total.bytes");
+            PreferencesFactory.get().deleteProperty("queue.upload.bandwidth.host.bytes");
+            BandwidthThrottleRegistry.get().refresh();
+        }
+        assertEquals(BandwidthThrottle.UNLIMITED, a.getParent().getRate(), 0f);
+        assertEquals(BandwidthThrottle.UNLIMITED, a.getParent().getParent().getRate(), 0f);
+    }
+}
@@ -0,0 +1,38 @@
+package ch.cyberduck.core.io;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        final BufferPool pool = new BufferPool(2, Long.MAX_VALUE);
+        final byte[] buffer = pool.borrow(1024);
+        assertEquals(1024, buffer.length);
+        assertEquals(1L, pool.getExhausted());
+        pool.release(buffer);
+        assertEquals(1024L, pool.getPooled());
+        assertSame(buffer, pool.borrow(1024));
+        assertEquals(1L, pool.getExhausted());
+        assertEquals(0L, pool.getPooled());
+        assertNotSame(buffer, pool.borrow(2048));
+        assertEquals(2L, pool.getExhausted());
+        assertEquals(3L, pool.getBorrowed());
+    }
+
+    @Test
+    public void testBounded() {
+        final BufferPool pool = new BufferPool(2, 4096L);
+        pool.release(new byte[1024]);
+        pool.release(new byte[1024]);
+        pool.release(new byte[1024]);
+        assertEquals(1L, pool.getDiscarded());
+        assertEquals(2048L, pool.getPooled());
+        pool.release(new byte[2048]);
+        pool.release(new byte[2048]);
+        assertEquals(2L, pool.getDiscarded());
+        assertEquals(4096L, pool.getPooled());
+    }
+}
@@ -0,0 +1,127 @@
+package ch.cyberduck.core.io;
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChecksumCacheTest {
+
+    @Test
+    public void testReuseUnchanged() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(file, "a");
+        final AtomicInteger count = new AtomicInteger();
+        final ChecksumCompute feature = new SHA256ChecksumCompute() {
+            @Override
+            public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
+                count.incrementAndGet();
+                return super.compute(in, status);
+            }
+        };
+        final ChecksumCache cache = new ChecksumCache(store, true);
+        final Checksum checksum = cache.compute(file, feature, new TransferStatus());
+        assertEquals(new SHA256ChecksumCompute().compute(file.getInputStream(), new TransferStatus()), checksum);
+        assertEquals(checksum, cache.compute(file, feature, new TransferStatus()));
+        assertEquals(1, count.get());
+        // Load from persistent store
+        assertEquals(checksum, new ChecksumCache(store, true).compute(file, feature, new TransferStatus()));
+        assertEquals(1, count.get());
+        // Different algorithm
+        new ChecksumCache(store, true).compute(file, new MD5ChecksumCompute(), new TransferStatus());
+        assertEquals(1, count.get());
+        this.write(file, "ab");
+        assertEquals(new SHA256ChecksumCompute().compute(file.getInputStream(), new TransferStatus()),
+                cache.compute(file, feature, new TransferStatus()));
+        assertEquals(2, count.get());
+        file.delete();
+        store.delete();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(file, "a");
+        final AtomicInteger count = new AtomicInteger();
+        final ChecksumCompute feature = new SHA256ChecksumCompute() {
+            @Override
+            public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
+                count.incrementAndGet();
+                return super.compute(in, status);
+            }
+        };
+        final ChecksumCache cache = new ChecksumCache(store, false);
+        cache.compute(file, feature, new TransferStatus());
+        cache.compute(file, feature, new TransferStatus());
+        assertEquals(2, count.get());
+        file.delete();
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local a = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(a, "a");
+        final Local b = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(b, "b");
+        final AtomicInteger count = new AtomicInteger();
+        final ChecksumCompute feature = new SHA256ChecksumCompute() {
+            @Override
+            public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
+                count.incrementAndGet();
+                return super.compute(in, status);
+            }
+        };
+        final ChecksumCache cache = new ChecksumCache(store, true, 1);
+        cache.compute(a, feature, new TransferStatus());
+        cache.compute(b, feature, new TransferStatus());
+        assertEquals(2, count.get());
+        cache.compute(b, feature, new TransferStatus());
+        assertEquals(2, count.get());
+        // Evicted
+        cache.compute(a, feature, new TransferStatus());
+        assertEquals(3, count.get());
+        a.delete();
+        b.delete();
+        store.delete();
+    }
+
+    @Test
+    public void testDropMissingOnLoad() throws Exception {
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local a = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(a, "a");
+        final Local b = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write(b, "b");
+        final ChecksumCache cache = new ChecksumCache(store, true);
+        cache.compute(a, new SHA256ChecksumCompute(), new TransferStatus());
+        cache.compute(b, new SHA256ChecksumCompute(), new TransferStatus());
+        assertEquals(2, Files.readAllLines(Paths.get(store.getAbsolute())).size());
+        a.delete();
+        // Compact store on load
+        new ChecksumCache(store, true).compute(b, new SHA256ChecksumCompute(), new TransferStatus());
+        assertEquals(1, Files.readAllLines(Paths.get(store.getAbsolute())).size());
+        b.delete();
+        store.delete();
+    }
+
+    private void write(final Local file, final String content) throws Exception {
+        final OutputStream out = file.getOutputStream(false);
+        IOUtils.write(content, out, StandardCharsets.UTF_8);
+        out.close();
+    }
+}
@@ -1,5 +1,6 @@
 package ch.cyberduck.core.io;
 
+import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -11,7 +12,11 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
 import java.nio.charset.Charset;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -168,4 +173,30 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] bytes = RandomStringUtils.random(98765).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), "t");
+        final File target = File.createTempFile(UUID.randomUUID().toString(), "t");
+        try {
+            Files.write(source.toPath(), bytes);
+            final TransferStatus status = new TransferStatus();
+            final BytecountStreamListener listener = new BytecountStreamListener(new DisabledStreamListener());
+            new StreamCopier(status, status).withOffset(100L).withLimit(50000L).withListener(listener).transfer(
+                    new LocalRepeatableFileInputStream(source),
+                    new ThrottledOutputStream(new FileOutputStream(target), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)));
+            assertTrue(status.isComplete());
+            assertEquals(50000L, status.getOffset());
+            assertEquals(50000L, listener.getSent());
+            assertEquals(50000L, listener.getRecv());
+            final byte[] expected = new byte[50000];
+            System.arraycopy(bytes, 100, expected, 0, expected.length);
+            assertArrayEquals(expected, Files.readAllBytes(target.toPath()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
 }
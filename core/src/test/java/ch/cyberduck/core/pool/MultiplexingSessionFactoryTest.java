@@ -0,0 +1,177 @@
+package ch.cyberduck.core.pool;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestLoginConnectionService;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
+import ch.cyberduck.core.features.Multiplexing;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class MultiplexingSessionFactoryTest {
+
+    @Test
+    public void testCreateChannel() throws Exception {
+        final MultiplexingSessionFactory factory = new MultiplexingSessionFactory(new TestLoginConnectionService(),
+                new DisabledX509TrustManager(), new DefaultX509KeyManager(), PathCache.empty(), this.host("ch.cyberduck.core.pool.MultiplexingSessionFactoryTest$Multiplexed"),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), 2);
+        final Session connection = factory.create();
+        assertTrue(connection instanceof MultiplexedSession);
+        final Session channel = factory.create();
+        assertFalse(channel instanceof MultiplexedSession);
+        // Maximum number of channels reached
+        final Session second = factory.create();
+        assertTrue(second instanceof MultiplexedSession);
+        assertFalse(factory.create() instanceof MultiplexedSession);
+        assertTrue(factory.create() instanceof MultiplexedSession);
+        factory.destroyObject(new DefaultPooledObject<Session>(channel));
+        assertFalse(factory.create() instanceof MultiplexedSession);
+    }
+
+    @Test
+    public void testDestroyConnectionWithChannelOpen() throws Exception {
+        final MultiplexingSessionFactory factory = new MultiplexingSessionFactory(new TestLoginConnectionService(),
+                new DisabledX509TrustManager(), new DefaultX509KeyManager(), PathCache.empty(), this.host("ch.cyberduck.core.pool.MultiplexingSessionFactoryTest$Multiplexed"),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), 2);
+        final Session connection = factory.create();
+        final Session channel = factory.create();
+        assertFalse(channel instanceof MultiplexedSession);
+        factory.destroyObject(new DefaultPooledObject<Session>(connection));
+        assertTrue(channel.isConnected());
+        // No channel opened on connection destroyed
+        assertTrue(factory.create() instanceof MultiplexedSession);
+        factory.destroyObject(new DefaultPooledObject<Session>(channel));
+        assertFalse(factory.create() instanceof MultiplexedSession);
+        assertTrue(factory.create() instanceof MultiplexedSession);
+    }
+
+    @Test
+    public void testChannelRefused() throws Exception {
+        final MultiplexingSessionFactory factory = new MultiplexingSessionFactory(new TestLoginConnectionService(),
+                new DisabledX509TrustManager(), new DefaultX509KeyManager(), PathCache.empty(), this.host("ch.cyberduck.core.pool.MultiplexingSessionFactoryTest$Refused"),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), 2);
+        assertTrue(factory.create() instanceof RefusedSession);
+        assertTrue(factory.create() instanceof RefusedSession);
+        assertTrue(factory.create() instanceof RefusedSession);
+    }
+
+    @Test
+    public void testChannelFailureTransient() throws Exception {
+        final MultiplexingSessionFactory factory = new MultiplexingSessionFactory(new TestLoginConnectionService(),
+                new DisabledX509TrustManager(), new DefaultX509KeyManager(), PathCache.empty(), this.host("ch.cyberduck.core.pool.MultiplexingSessionFactoryTest$Interrupted"),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), 2);
+        assertTrue(factory.create() instanceof InterruptedSession);
+        // Failure opening channel
+        assertTrue(factory.create() instanceof InterruptedSession);
+        // Channel limit of connections not lowered
+        assertFalse(factory.create() instanceof InterruptedSession);
+        assertFalse(factory.create() instanceof InterruptedSession);
+        assertTrue(factory.create() instanceof InterruptedSession);
+    }
+
+    private Host host(final String prefix) {
+        return new Host(new TestProtocol() {
+            @Override
+            public String getPrefix() {
+                return prefix;
+            }
+        });
+    }
+
+    public static class MultiplexedSession extends NullSession {
+        public MultiplexedSession(final Host h) {
+            super(h);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T _getFeature(final Class<T> type) {
+            if(type == Multiplexing.class) {
+                return (T) new Multiplexing() {
+                    @Override
+                    public Session<?> open(final Cache<Path> cache) throws BackgroundException {
+                        return new NullSession(host);
+                    }
+                };
+            }
+            return super._getFeature(type);
+        }
+    }
+
+    public static class RefusedSession extends NullSession {
+        public RefusedSession(final Host h) {
+            super(h);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T _getFeature(final Class<T> type) {
+            if(type == Multiplexing.class) {
+                return (T) new Multiplexing() {
+                    @Override
+                    public Session<?> open(final Cache<Path> cache) throws BackgroundException {
+                        throw new ConnectionRefusedException("t", new RuntimeException());
+                    }
+                };
+            }
+            return super._getFeature(type);
+        }
+    }
+
+    public static class InterruptedSession extends NullSession {
+        private static final AtomicBoolean failure = new AtomicBoolean(true);
+
+        public InterruptedSession(final Host h) {
+            super(h);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T _getFeature(final Class<T> type) {
+            if(type == Multiplexing.class) {
+                return (T) new Multiplexing() {
+                    @Override
+                    public Session<?> open(final Cache<Path> cache) throws BackgroundException {
+                        if(failure.getAndSet(false)) {
+                            throw new ConnectionTimeoutException("t", new RuntimeException());
+                        }
+                        return new NullSession(host);
+                    }
+                };
+            }
+            return super._getFeature(type);
+        }
+    }
+}
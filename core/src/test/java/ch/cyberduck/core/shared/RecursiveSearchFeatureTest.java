@@ -0,0 +1,176 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RecursiveSearchFeatureTest {
+
+    @Test
+    public void testSearchContainers() throws Exception {
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(root, "a", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path b = new Path(root, "b", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final RecursiveSearchFeature feature = new RecursiveSearchFeature(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws BackgroundException {
+                return new AttributedList<>(Arrays.asList(a, b));
+            }
+        }, new RecursiveListService() {
+            @Override
+            public void list(final Path directory, final Listener listener) throws BackgroundException {
+                listener.chunk(Arrays.asList(
+                        new Path(directory, "d", EnumSet.of(Path.Type.directory, Path.Type.placeholder)),
+                        new Path(new Path(directory, "d", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file))));
+            }
+        });
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> search = feature.search(root, new NullFilter<Path>() {
+            @Override
+            public boolean accept(final Path file) {
+                return file.getName().equals("f");
+            }
+        }, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) {
+                assertEquals(root, parent);
+                chunks.incrementAndGet();
+            }
+        });
+        assertEquals(2, chunks.get());
+        assertEquals(2, search.size());
+        assertTrue(search.contains(new Path("/a/d/f", EnumSet.of(Path.Type.file))));
+        assertTrue(search.contains(new Path("/b/d/f", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testCacheMatches() throws Exception {
+        final Path container = new Path("/c", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path d = new Path(container, "d", EnumSet.of(Path.Type.directory));
+        final Path f = new Path(new Path(d, "e", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        final Path g = new Path(container, "f", EnumSet.of(Path.Type.file));
+        final PathCache cache = new PathCache(10);
+        final AttributedList<Path> listing = new AttributedList<>(Arrays.asList(d, new Path(container, "h", EnumSet.of(Path.Type.file))));
+        cache.put(container, listing);
+        final RecursiveSearchFeature feature = new RecursiveSearchFeature(new NullSession(new Host(new TestProtocol())), new RecursiveListService() {
+            @Override
+            public void list(final Path directory, final Listener listener) throws BackgroundException {
+                listener.chunk(Arrays.asList(f, g));
+            }
+        });
+        feature.withCache(cache);
+        assertEquals(2, feature.search(container, new NullFilter<Path>() {
+            @Override
+            public boolean accept(final Path file) {
+                return file.getName().equals("f");
+            }
+        }, new DisabledListProgressListener()).size());
+        // Previous listing kept and match added
+        assertEquals(3, cache.get(container).size());
+        assertTrue(cache.get(container).contains(g));
+        assertTrue(cache.isValid(container));
+        // Intermediate directories added with incomplete listings
+        assertTrue(cache.get(d).contains(f.getParent()));
+        assertFalse(cache.isValid(d));
+        assertTrue(cache.get(f.getParent()).contains(f));
+        assertFalse(cache.isValid(f.getParent()));
+    }
+
+    @Test
+    public void testSkipDirectory() throws Exception {
+        final Path directory = new Path("/a/d", EnumSet.of(Path.Type.directory));
+        final RecursiveSearchFeature feature = new RecursiveSearchFeature(new NullSession(new Host(new TestProtocol())), new RecursiveListService() {
+            @Override
+            public void list(final Path d, final Listener listener) throws BackgroundException {
+                listener.chunk(Arrays.asList(
+                        new Path("/a/d", EnumSet.of(Path.Type.directory, Path.Type.placeholder)),
+                        new Path("/a/d/f", EnumSet.of(Path.Type.file))));
+            }
+        });
+        final AttributedList<Path> search = feature.search(directory, new NullFilter<Path>(), new DisabledListProgressListener());
+        assertEquals(1, search.size());
+        assertTrue(search.contains(new Path("/a/d/f", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(root, "a", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path b = new Path(root, "b", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final List<Path> listed = new ArrayList<>();
+        final AtomicInteger pages = new AtomicInteger();
+        final RecursiveSearchFeature feature = new RecursiveSearchFeature(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) throws BackgroundException {
+                return new AttributedList<>(Arrays.asList(a, b));
+            }
+        }, new RecursiveListService() {
+            @Override
+            public void list(final Path directory, final Listener listener) throws BackgroundException {
+                listed.add(directory);
+                for(int page = 0; page < 10; page++) {
+                    pages.incrementAndGet();
+                    final List<Path> chunk = new ArrayList<>();
+                    for(int i = 0; i < 3; i++) {
+                        chunk.add(new Path(directory, String.format("f-%d-%d", page, i), EnumSet.of(Path.Type.file)));
+                    }
+                    if(!listener.chunk(chunk)) {
+                        return;
+                    }
+                }
+            }
+        });
+        PreferencesFactory.get().setProperty("browser.search.limit", 5);
+        try {
+            final AtomicInteger size = new AtomicInteger();
+            final AttributedList<Path> search = feature.search(root, new NullFilter<Path>(), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path parent, final AttributedList<Path> list) {
+                    size.set(list.size());
+                }
+            });
+            assertEquals(5, search.size());
+            assertEquals(5, size.get());
+            // Stop listing with second page of first container
+            assertEquals(2, pages.get());
+            assertEquals(Arrays.asList(a), listed);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("browser.search.limit");
+        }
+    }
+}
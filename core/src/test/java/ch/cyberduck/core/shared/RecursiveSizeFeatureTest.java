@@ -0,0 +1,58 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Size;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecursiveSizeFeatureTest {
+
+    @Test
+    public void testCalculate() throws Exception {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setSize(3L);
+        final List<Long> totals = new ArrayList<>();
+        final long size = new RecursiveSizeFeature(new RecursiveListService() {
+            @Override
+            public void list(final Path directory, final Listener listener) throws BackgroundException {
+                listener.chunk(Arrays.asList(
+                        new Path(directory, "d", EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes),
+                        new Path(directory, "f1", EnumSet.of(Path.Type.file), attributes)));
+                listener.chunk(Arrays.asList(
+                        new Path(directory, "f2", EnumSet.of(Path.Type.file), attributes)));
+            }
+        }).calculate(new Path("/d", EnumSet.of(Path.Type.directory)), new Size.Callback() {
+            @Override
+            public void update(final long size) {
+                totals.add(size);
+            }
+        });
+        assertEquals(6L, size);
+        assertEquals(Arrays.asList(3L, 6L), totals);
+    }
+}
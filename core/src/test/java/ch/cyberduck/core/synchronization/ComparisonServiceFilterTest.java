@@ -1,5 +1,6 @@
 package ch.cyberduck.core.synchronization;
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
@@ -8,6 +9,7 @@ import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
@@ -17,13 +19,16 @@ import ch.cyberduck.core.io.HashAlgorithm;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.TimeZone;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ComparisonServiceFilterTest {
 
@@ -239,4 +244,132 @@ public class ComparisonServiceFilterTest {
         assertTrue(found.get());
         assertTrue(attr.get());
     }
+
+    @Test
+    public void testCompareAttributesFromCachedListing() throws Exception {
+        final Find find = new Find() {
+            @Override
+            public boolean find(final Path file) throws BackgroundException {
+                fail();
+                return false;
+            }
+
+            @Override
+            public Find withCache(Cache<Path> cache) {
+                return this;
+            }
+        };
+        final AtomicBoolean attr = new AtomicBoolean();
+        final AttributesFinder attributes = new AttributesFinder() {
+            @Override
+            public PathAttributes find(final Path file) throws BackgroundException {
+                attr.set(true);
+                return new PathAttributes();
+            }
+
+            @Override
+            public AttributesFinder withCache(Cache<Path> cache) {
+                return this;
+            }
+        };
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(0L);
+        a.attributes().setModificationDate(1L);
+        final Path b = new Path(directory, "b", EnumSet.of(Path.Type.file));
+        b.attributes().setSize(0L);
+        cache.put(directory, new AttributedList<Path>(Arrays.asList(a, b)));
+        final ComparisonServiceFilter s = new ComparisonServiceFilter(new NullSession(new Host(new TestProtocol())) {
+        }, TimeZone.getDefault(), new DisabledProgressListener()).withFinder(find).withAttributes(attributes).withCache(cache);
+        final NullLocal local = new NullLocal("t") {
+            @Override
+            public LocalAttributes attributes() {
+                return new LocalAttributes("/t") {
+                    @Override
+                    public long getSize() {
+                        return 2L;
+                    }
+                };
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        assertEquals(Comparison.local, s.compare(new Path(directory, "a", EnumSet.of(Path.Type.file)), local));
+        assertFalse(attr.get());
+        // Missing modification date in listing
+        s.compare(new Path(directory, "b", EnumSet.of(Path.Type.file)), local);
+        assertTrue(attr.get());
+        // Not found in listing
+        assertEquals(Comparison.local, s.compare(new Path(directory, "c", EnumSet.of(Path.Type.file)), local));
+    }
+
+    @Test
+    public void testCompareHiddenInCachedListing() throws Exception {
+        final Find find = new Find() {
+            @Override
+            public boolean find(final Path file) throws BackgroundException {
+                fail();
+                return false;
+            }
+
+            @Override
+            public Find withCache(Cache<Path> cache) {
+                return this;
+            }
+        };
+        final AttributesFinder attributes = new AttributesFinder() {
+            @Override
+            public PathAttributes find(final Path file) throws BackgroundException {
+                fail();
+                return null;
+            }
+
+            @Override
+            public AttributesFinder withCache(Cache<Path> cache) {
+                return this;
+            }
+        };
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(2L);
+        a.attributes().setModificationDate(1L);
+        final AttributedList<Path> list = new AttributedList<Path>();
+        // Rejected by transfer filter
+        list.attributes().addHidden(a);
+        cache.put(directory, list);
+        final ComparisonServiceFilter s = new ComparisonServiceFilter(new NullSession(new Host(new TestProtocol())) {
+        }, TimeZone.getDefault(), new DisabledProgressListener()).withFinder(find).withAttributes(attributes).withCache(cache);
+        assertEquals(Comparison.remote, s.compare(new Path(directory, "a", EnumSet.of(Path.Type.file)), new NullLocal("t") {
+            @Override
+            public boolean exists() {
+                return false;
+            }
+        }));
+        assertEquals(Comparison.equal, s.compare(new Path(directory, "a", EnumSet.of(Path.Type.file)), new NullLocal("t") {
+            @Override
+            public LocalAttributes attributes() {
+                return new LocalAttributes("/t") {
+                    @Override
+                    public long getSize() {
+                        return 2L;
+                    }
+
+                    @Override
+                    public long getModificationDate() {
+                        return 1L;
+                    }
+                };
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        }));
+    }
 }
@@ -0,0 +1,129 @@
+package ch.cyberduck.core.threading;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PartSchedulerTest {
+
+    @Test
+    public void testLimitPerHost() throws Exception {
+        final PartScheduler scheduler = new PartScheduler(2);
+        final ThreadPool a = scheduler.pool("a", 10);
+        final ThreadPool b = scheduler.pool("a", 10);
+        final ThreadPool c = scheduler.pool("c", 10);
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maximum = new AtomicInteger();
+        final List<Future<Integer>> parts = new ArrayList<Future<Integer>>();
+        for(int i = 0; i < 10; i++) {
+            for(ThreadPool pool : new ThreadPool[]{a, b}) {
+                parts.add(pool.execute(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        final int current = concurrent.incrementAndGet();
+                        synchronized(maximum) {
+                            maximum.set(Math.max(maximum.get(), current));
+                        }
+                        Thread.sleep(5L);
+                        concurrent.decrementAndGet();
+                        return current;
+                    }
+                }));
+            }
+        }
+        final CountDownLatch other = new CountDownLatch(1);
+        c.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                other.countDown();
+                return null;
+            }
+        });
+        // Not blocked by limit of other host
+        assertTrue(other.await(1L, TimeUnit.SECONDS));
+        for(Future<Integer> part : parts) {
+            part.get();
+        }
+        assertEquals(2, maximum.get());
+        a.shutdown(true);
+        b.shutdown(true);
+        c.shutdown(true);
+        assertEquals(0, scheduler.getRunning("a"));
+    }
+
+    @Test
+    public void testFair() throws Exception {
+        final PartScheduler scheduler = new PartScheduler(1);
+        final ThreadPool large = scheduler.pool("h", 10);
+        final ThreadPool small = scheduler.pool("h", 10);
+        final CountDownLatch block = new CountDownLatch(1);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        large.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                block.await();
+                return null;
+            }
+        });
+        for(int i = 0; i < 5; i++) {
+            large.execute(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    order.add("large");
+                    return null;
+                }
+            });
+        }
+        final Future<Void> f = small.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                order.add("small");
+                return null;
+            }
+        });
+        block.countDown();
+        f.get();
+        large.shutdown(true);
+        // Small file is not queued behind all parts of large file
+        assertTrue(order.indexOf("small") <= 1);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() throws Exception {
+        final PartScheduler scheduler = new PartScheduler(1);
+        final ThreadPool pool = scheduler.pool("h", 1);
+        final CountDownLatch block = new CountDownLatch(1);
+        pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                block.await();
+                return null;
+            }
+        });
+        final Future<Void> pending = pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        });
+        pool.shutdown(false);
+        assertTrue(pending.isCancelled());
+        assertEquals(0, scheduler.getRunning("x"));
+        pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        });
+    }
+}
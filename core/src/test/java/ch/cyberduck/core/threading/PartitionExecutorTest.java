@@ -0,0 +1,47 @@
+package ch.cyberduck.core.threading;
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PartitionExecutorTest {
+
+    @Test
+    public void testExecute() throws Exception {
+        final List<Integer> elements = new ArrayList<Integer>();
+        for(int i = 0; i < 25; i++) {
+            elements.add(i);
+        }
+        final List<Integer> done = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger partitions = new AtomicInteger();
+        new PartitionExecutor<Integer>(new PartScheduler(2), "a", 2, 10).execute(elements, new PartitionExecutor.Callback<Integer>() {
+            @Override
+            public void call(final List<Integer> partition) throws BackgroundException {
+                assertTrue(partition.size() <= 10);
+                partitions.incrementAndGet();
+                done.addAll(partition);
+            }
+        });
+        assertEquals(3, partitions.get());
+        assertEquals(25, done.size());
+        assertTrue(done.containsAll(elements));
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testFailure() throws Exception {
+        new PartitionExecutor<Integer>(new PartScheduler(2), "a", 2, 1).execute(new ArrayList<Integer>(Collections.nCopies(5, 1)), new PartitionExecutor.Callback<Integer>() {
+            @Override
+            public void call(final List<Integer> partition) throws BackgroundException {
+                throw new NotfoundException("f");
+            }
+        });
+    }
+}
@@ -33,6 +33,7 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.UUID;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -70,4 +71,24 @@ public class CompareFilterTest {
                 filter.accept(new Path("/n", EnumSet.of(Path.Type.directory)), new NullLocal("/n"),
                         new TransferStatus().exists(true)));
     }
+
+    @Test
+    public void testAcceptEqualIncompleteSegments() throws Exception {
+        final CompareFilter filter = new CompareFilter(new DisabledDownloadSymlinkResolver(),
+                new NullSession(new Host(new TestProtocol())), new DownloadFilterOptions(), new ComparisonServiceFilter(
+                new NullSession(new Host(new TestProtocol())), null, new DisabledProgressListener()) {
+            @Override
+            public Comparison compare(final Path file, final Local local) throws BackgroundException {
+                return Comparison.equal;
+            }
+        });
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SegmentMap map = new SegmentMap(local);
+        map.create(local, 25L, 10L);
+        assertTrue(filter.accept(file, local, new TransferStatus().exists(true)));
+        map.delete();
+        assertFalse(filter.accept(file, local, new TransferStatus().exists(true)));
+        local.delete();
+    }
 }
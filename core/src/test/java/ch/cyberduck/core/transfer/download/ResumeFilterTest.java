@@ -1,13 +1,20 @@
 package ch.cyberduck.core.transfer.download;
 
+import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultDownloadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
@@ -15,6 +22,7 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.UUID;
 
 import static org.junit.Assert.*;
 
@@ -140,4 +148,67 @@ public class ResumeFilterTest {
         final TransferStatus status = f.prepare(p, local, new TransferStatus());
         assertFalse(status.isAppend());
     }
+
+    @Test
+    public void testPrepareCompletedSegments() throws Exception {
+        final Preferences preferences = PreferencesFactory.get();
+        preferences.setProperty("queue.download.segments", true);
+        preferences.setProperty("queue.download.segments.threshold", 10L);
+        preferences.setProperty("queue.download.segments.size", 10L);
+        preferences.setProperty("queue.connections.limit", 2);
+        try {
+            final NullSession session = new NullSession(new Host(new TestProtocol())) {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T _getFeature(final Class<T> type) {
+                    if(type == Download.class) {
+                        return (T) new DefaultDownloadFeature(this.getFeature(Read.class)) {
+                            @Override
+                            public boolean offset(final Path file) throws BackgroundException {
+                                return true;
+                            }
+                        };
+                    }
+                    return super._getFeature(type);
+                }
+            };
+            final ResumeFilter f = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session);
+            f.withAttributes(new AttributesFinder() {
+                @Override
+                public PathAttributes find(final Path file) {
+                    return file.attributes();
+                }
+
+                @Override
+                public AttributesFinder withCache(final Cache<Path> cache) {
+                    return this;
+                }
+            });
+            final Path p = new Path("a", EnumSet.of(Path.Type.file));
+            p.attributes().setSize(25L);
+            final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+            final SegmentMap map = new SegmentMap(local);
+            // Part size of total length divided by connections limit
+            map.create(local, 25L, 12L);
+            map.complete(1);
+            map.complete(3);
+            final TransferStatus status = f.prepare(p, local, new TransferStatus().exists(true));
+            assertTrue(status.isAppend());
+            // Offset and length of file unchanged
+            assertEquals(0L, status.getOffset());
+            assertEquals(25L, status.getLength());
+            assertEquals(3, status.getSegments().size());
+            assertTrue(status.getSegments().get(0).isComplete());
+            assertFalse(status.getSegments().get(1).isComplete());
+            assertTrue(status.getSegments().get(2).isComplete());
+            map.delete();
+            local.delete();
+        }
+        finally {
+            preferences.deleteProperty("queue.download.segments");
+            preferences.deleteProperty("queue.download.segments.threshold");
+            preferences.deleteProperty("queue.download.segments.size");
+            preferences.deleteProperty("queue.connections.limit");
+        }
+    }
 }
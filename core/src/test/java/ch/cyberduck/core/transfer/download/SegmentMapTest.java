@@ -0,0 +1,46 @@
+package ch.cyberduck.core.transfer.download;
+
+import ch.cyberduck.core.Local;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SegmentMapTest {
+
+    @Test
+    public void testComplete() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SegmentMap map = new SegmentMap(local);
+        assertFalse(map.exists());
+        map.create(local, 25L, 10L);
+        assertTrue(map.exists());
+        assertEquals(25L, local.attributes().getSize());
+        assertTrue(map.read(25L, 10L).isEmpty());
+        final OutputStream out = local.getOutputStream(10L);
+        IOUtils.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, out);
+        out.close();
+        map.complete(2);
+        map.complete(3);
+        assertEquals(new HashSet<>(Arrays.asList(2, 3)), map.read(25L, 10L));
+        // Different layout
+        assertEquals(Collections.emptySet(), map.read(25L, 5L));
+        final byte[] content = Files.readAllBytes(Paths.get(local.getAbsolute()));
+        assertEquals(25, content.length);
+        assertEquals(0, content[9]);
+        assertEquals(1, content[10]);
+        assertEquals(10, content[19]);
+        map.delete();
+        assertFalse(map.exists());
+        local.delete();
+    }
+}
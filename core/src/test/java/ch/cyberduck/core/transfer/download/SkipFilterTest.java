@@ -1,6 +1,7 @@
 package ch.cyberduck.core.transfer.download;
 
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
@@ -11,6 +12,7 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.UUID;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -63,4 +65,17 @@ public class SkipFilterTest {
                 )
         );
     }
+
+    @Test
+    public void testAcceptIncompleteSegments() throws Exception {
+        SkipFilter f = new SkipFilter(new DisabledDownloadSymlinkResolver(), new NullSession(new Host(new TestProtocol())));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SegmentMap map = new SegmentMap(local);
+        map.create(local, 25L, 10L);
+        assertTrue(local.exists());
+        assertTrue(f.accept(new Path("a", EnumSet.of(Path.Type.file)), local, new TransferStatus().exists(true)));
+        map.delete();
+        assertFalse(f.accept(new Path("a", EnumSet.of(Path.Type.file)), local, new TransferStatus().exists(true)));
+        local.delete();
+    }
 }
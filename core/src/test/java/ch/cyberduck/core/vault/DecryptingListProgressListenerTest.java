@@ -0,0 +1,127 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Vault;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DecryptingListProgressListenerTest {
+
+    @Test
+    public void testDecryptChunksWithSinglePool() throws Exception {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        final Vault vault = new Vault() {
+            @Override
+            public Vault create(final Session<?> session, final String region, final VaultCredentials credentials) {
+                return this;
+            }
+
+            @Override
+            public Vault load(final Session<?> session, final PasswordCallback prompt) {
+                return this;
+            }
+
+            @Override
+            public void close() {
+                //
+            }
+
+            @Override
+            public boolean contains(final Path file) {
+                return true;
+            }
+
+            @Override
+            public Path encrypt(final Session<?> session, final Path file) {
+                return file;
+            }
+
+            @Override
+            public Path encrypt(final Session<?> session, final Path file, final boolean metadata) {
+                return file;
+            }
+
+            @Override
+            public Path decrypt(final Session<?> session, final Path file) throws BackgroundException {
+                threads.add(Thread.currentThread());
+                return new Path(file.getParent(), file.getName().toUpperCase(), file.getType());
+            }
+
+            @Override
+            public long toCiphertextSize(final long cleartextFileSize) {
+                return cleartextFileSize;
+            }
+
+            @Override
+            public long toCleartextSize(final long ciphertextFileSize) {
+                return ciphertextFileSize;
+            }
+
+            @Override
+            public <T> T getFeature(final Session<?> session, final Class<T> type, final T delegate) {
+                return delegate;
+            }
+
+            @Override
+            public State getState() {
+                return State.open;
+            }
+
+            @Override
+            public Path getHome() {
+                return null;
+            }
+        };
+        final DecryptingListProgressListener listener = new DecryptingListProgressListener(
+                new NullSession(new Host(new TestProtocol())), vault, new DisabledListProgressListener(), 2);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        try {
+            for(int chunk = 0; chunk < 3; chunk++) {
+                for(int i = 0; i < 500; i++) {
+                    list.add(new Path(directory, String.format("f-%d-%d", chunk, i), EnumSet.of(Path.Type.file)));
+                }
+                listener.chunk(directory, list);
+            }
+        }
+        finally {
+            listener.shutdown();
+        }
+        assertEquals(1500, list.size());
+        for(Path file : list) {
+            assertTrue(file.getName().startsWith("F-"));
+        }
+        // Threads of pool reused for all chunks
+        assertEquals(2, threads.size());
+    }
+}
@@ -1,18 +1,37 @@
 package ch.cyberduck.core.worker;
 
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledPasswordCallback;
 import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestLoginConnectionService;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Size;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class CalculateSizeWorkerTest {
 
@@ -46,4 +65,116 @@ public class CalculateSizeWorkerTest {
             }
         }.run(new NullSession(new Host(new TestProtocol()))), 0L);
     }
+
+    @Test
+    public void testRunConcurrent() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path s1 = new Path(directory, "s1", EnumSet.of(Path.Type.directory));
+        final Path s2 = new Path(directory, "s2", EnumSet.of(Path.Type.directory));
+        final Path x = new Path(s1, "x", EnumSet.of(Path.Type.directory));
+        final Map<Path, AttributedList<Path>> tree = new HashMap<Path, AttributedList<Path>>();
+        tree.put(directory, new AttributedList<Path>(Arrays.asList(this.file(directory, "a", 1L), s1, s2)));
+        tree.put(s1, new AttributedList<Path>(Arrays.asList(this.file(s1, "b", 2L), x)));
+        tree.put(x, new AttributedList<Path>(Collections.singletonList(this.file(x, "c", 4L))));
+        tree.put(s2, new AttributedList<Path>(Collections.singletonList(this.file(s2, "d", 8L))));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return tree.get(file);
+            }
+        };
+        final StatelessSessionPool pool = new StatelessSessionPool(
+                new TestLoginConnectionService(), session, PathCache.empty(),
+                new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        final AtomicLong latest = new AtomicLong();
+        assertEquals(15L, new CalculateSizeWorker(pool, Collections.singletonList(directory),
+                new DisabledProgressListener(), 3) {
+            @Override
+            protected void update(final long size) {
+                latest.set(size);
+            }
+        }.run(session), 0L);
+        assertEquals(15L, latest.get());
+        assertEquals(15L, directory.attributes().getSize());
+    }
+
+    @Test
+    public void testRunSizeFeature() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                fail();
+                return null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Size.class) {
+                    return (T) new Size() {
+                        @Override
+                        public long calculate(final Path directory, final Callback callback) throws BackgroundException {
+                            callback.update(5L);
+                            callback.update(7L);
+                            return 7L;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final List<Long> updates = new ArrayList<Long>();
+        assertEquals(7L, new CalculateSizeWorker(Collections.singletonList(directory), new DisabledProgressListener()) {
+            @Override
+            protected void update(final long size) {
+                updates.add(size);
+            }
+        }.run(session), 0L);
+        assertEquals(Arrays.asList(5L, 7L), updates);
+        assertEquals(7L, directory.attributes().getSize());
+    }
+
+    @Test(timeout = 10000L)
+    public void testRunPoolExhausted() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Map<Path, AttributedList<Path>> tree = new HashMap<Path, AttributedList<Path>>();
+        tree.put(directory, new AttributedList<Path>(Collections.singletonList(this.file(directory, "a", 1L))));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return tree.get(file);
+            }
+        };
+        final StatelessSessionPool pool = new StatelessSessionPool(
+                new TestLoginConnectionService(), session, PathCache.empty(),
+                new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+            @Override
+            public Session<?> borrow(final BackgroundActionState callback) throws BackgroundException {
+                // No connection available until canceled
+                while(!callback.isCanceled()) {
+                    try {
+                        Thread.sleep(10L);
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                }
+                throw new ConnectionCanceledException();
+            }
+        };
+        assertEquals(1L, new CalculateSizeWorker(pool, Collections.singletonList(directory),
+                new DisabledProgressListener(), 3) {
+            @Override
+            protected void update(final long size) {
+                //
+            }
+        }.run(session), 0L);
+    }
+
+    private Path file(final Path parent, final String name, final long size) {
+        final Path file = new Path(parent, name, EnumSet.of(Path.Type.file));
+        file.attributes().setSize(size);
+        return file;
+    }
 }
@@ -17,10 +17,12 @@ package ch.cyberduck.core.worker;
 
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
@@ -40,6 +42,7 @@ import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -47,8 +50,10 @@ import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -206,6 +211,88 @@ public class ConcurrentTransferWorkerTest {
         }
     }
 
+    @Test
+    public void testPipeline() throws Exception {
+        final int files = 20;
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final List<TransferItem> children = new ArrayList<TransferItem>();
+        for(int i = 1; i <= files; i++) {
+            children.add(new TransferItem(new Path(directory, "t" + i, EnumSet.of(Path.Type.file)), new NullLocal("/d/t" + i)));
+        }
+        final Set<Path> transferred = Collections.synchronizedSet(new HashSet<Path>());
+        final Host host = new Host(new TestProtocol(), "test.cyberduck.ch");
+        final Transfer t = new DownloadTransfer(host, Collections.singletonList(new TransferItem(directory, new NullLocal("/d")))) {
+            @Override
+            public List<TransferItem> list(final Session<?> source, final Session<?> destination, final Path folder, final Local local,
+                                           final ListProgressListener listener) throws BackgroundException {
+                // Children are only listed after parent directory is transferred
+                assertTrue(transferred.contains(folder));
+                return children;
+            }
+
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, final Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback callback,
+                                 final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                assertNotNull(source);
+                this.addTransferred(status.getLength());
+                transferred.add(file);
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return new AbstractDownloadFilter(new DisabledDownloadSymlinkResolver(), source, null) {
+                    @Override
+                    public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
+                        return true;
+                    }
+
+                    @Override
+                    public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
+                        assertFalse(transferred.contains(file));
+                        return new TransferStatus().length(file.isFile() ? 1L : 0L);
+                    }
+
+                    @Override
+                    public void apply(final Path file, final Local local, final TransferStatus status, final ProgressListener listener) throws BackgroundException {
+                        //
+                    }
+
+                    @Override
+                    public void complete(final Path file, final Local local, final TransferOptions options, final TransferStatus status, final ProgressListener listener) throws BackgroundException {
+                        assertTrue(transferred.contains(file));
+                    }
+                };
+            }
+        };
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        final DefaultSessionPool pool = new DefaultSessionPool(connection, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()),
+                PathCache.empty(), new DisabledTranscriptListener(), host);
+        final ConcurrentTransferWorker worker = new ConcurrentTransferWorker(
+                pool, SessionPool.DISCONNECTED, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledLoginCallback(), new DisabledProgressListener(), new DisabledStreamListener()
+        );
+        worker.withPipeline(true);
+        pool.withMaxTotal(3);
+        final Session<?> session = worker.borrow(ConcurrentTransferWorker.Connection.source);
+        assertTrue(worker.run(session, session));
+        worker.release(session, ConcurrentTransferWorker.Connection.source);
+        assertTrue(transferred.contains(directory));
+        for(TransferItem child : children) {
+            assertTrue(transferred.contains(child.remote));
+        }
+        assertEquals(files, t.getSize().longValue());
+        assertEquals(files, t.getTransferred().longValue());
+        assertTrue(t.isComplete());
+    }
+
     @Test
     public void testBorrowTimeoutNoSessionAvailable() throws Exception {
         final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
@@ -272,4 +359,87 @@ public class ConcurrentTransferWorkerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSubmitBacklogExhaustedFailure() throws Exception {
+        final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
+        final Transfer transfer = new UploadTransfer(host,
+                new Path("/t", EnumSet.of(Path.Type.directory)),
+                new NullLocal("l"));
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline.backlog", 0);
+        final ConcurrentTransferWorker worker;
+        try {
+            worker = new ConcurrentTransferWorker(
+                    new DefaultSessionPool(connection, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                            new DefaultVaultRegistry(new DisabledPasswordCallback()),
+                            PathCache.empty(), new DisabledTranscriptListener(), host), SessionPool.DISCONNECTED, transfer, new TransferOptions(), new TransferSpeedometer(transfer), new DisabledTransferPrompt(), new DisabledTransferErrorCallback(),
+                    new DisabledLoginCallback(), new DisabledProgressListener(), new DisabledStreamListener()
+            );
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.transfer.pipeline.backlog");
+        }
+        worker.withPipeline(true);
+        final Thread caller = Thread.currentThread();
+        // Run in calling thread with no backlog available
+        final Future<TransferStatus> future = worker.submit(new TransferWorker.TransferCallable() {
+            @Override
+            public TransferStatus call() throws BackgroundException {
+                assertSame(caller, Thread.currentThread());
+                throw new ConnectionRefusedException("d", new RuntimeException());
+            }
+        });
+        assertTrue(future.isDone());
+        try {
+            worker.await();
+            fail();
+        }
+        catch(ConnectionRefusedException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testScheduleListing() throws Exception {
+        final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
+        final Transfer transfer = new UploadTransfer(host,
+                new Path("/t", EnumSet.of(Path.Type.directory)),
+                new NullLocal("l"));
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        final ConcurrentTransferWorker worker = new ConcurrentTransferWorker(
+                new DefaultSessionPool(connection, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        new DefaultVaultRegistry(new DisabledPasswordCallback()),
+                        PathCache.empty(), new DisabledTranscriptListener(), host), SessionPool.DISCONNECTED, transfer, new TransferOptions(), new TransferSpeedometer(transfer), new DisabledTransferPrompt(), new DisabledTransferErrorCallback(),
+                new DisabledLoginCallback(), new DisabledProgressListener(), new DisabledStreamListener()
+        );
+        worker.withPipeline(true);
+        final int directories = 100;
+        final int files = 10;
+        final AtomicInteger listed = new AtomicInteger();
+        final AtomicInteger transferred = new AtomicInteger();
+        for(int i = 0; i < directories; i++) {
+            worker.schedule(new TransferWorker.TransferCallable() {
+                @Override
+                public TransferStatus call() throws BackgroundException {
+                    assertTrue(Thread.currentThread().getName().startsWith("list"));
+                    listed.incrementAndGet();
+                    for(int j = 0; j < files; j++) {
+                        // Completes immediately and must be counted before returning to the listing
+                        worker.submit(new TransferWorker.TransferCallable() {
+                            @Override
+                            public TransferStatus call() throws BackgroundException {
+                                transferred.incrementAndGet();
+                                return new TransferStatus().complete();
+                            }
+                        });
+                    }
+                    return new TransferStatus();
+                }
+            });
+        }
+        worker.await();
+        assertEquals(directories, listed.get());
+        assertEquals(directories * files, transferred.get());
+        worker.cleanup(true);
+    }
+}
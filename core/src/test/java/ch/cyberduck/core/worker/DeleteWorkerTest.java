@@ -10,13 +10,16 @@ import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -77,7 +80,74 @@ public class DeleteWorkerTest {
         final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
                 Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))),
                 PathCache.empty(), new DisabledProgressListener());
-        assertEquals(4, worker.run(session).size());
+        assertEquals(Arrays.asList(new Path("/t/d", EnumSet.of(Path.Type.directory)), new Path("/t", EnumSet.of(Path.Type.directory))),
+                worker.run(session));
+    }
+
+    @Test
+    public void testDeleteWhileListing() throws Exception {
+        final List<Path> deleted = new ArrayList<Path>();
+        final Session session = new NullSession(new Host(new TestProtocol(Scheme.https))) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final LoginCallback prompt, final Callback callback) throws BackgroundException {
+                            deleted.addAll(files);
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path file) {
+                            return true;
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    final AttributedList<Path> list = new AttributedList<Path>(Collections.singletonList(
+                            new Path("/t/a", EnumSet.of(Path.Type.file))));
+                    listener.chunk(file, list);
+                    // Deleted before listing is complete
+                    assertEquals(Collections.singletonList(new Path("/t/a", EnumSet.of(Path.Type.file))), deleted);
+                    list.add(new Path("/t/d", EnumSet.of(Path.Type.directory)));
+                    listener.chunk(file, list);
+                    return list;
+                }
+                if(file.equals(new Path("/t/d", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                            new Path("/t/d/b", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                fail();
+                return null;
+            }
+        };
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+                Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))),
+                PathCache.empty(), new DisabledProgressListener());
+        PreferencesFactory.get().setProperty("delete.stream.partition", 1);
+        try {
+            worker.run(session);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("delete.stream.partition");
+        }
+        assertEquals(Arrays.asList(
+                new Path("/t/a", EnumSet.of(Path.Type.file)),
+                new Path("/t/d/b", EnumSet.of(Path.Type.file)),
+                new Path("/t/d", EnumSet.of(Path.Type.directory)),
+                new Path("/t", EnumSet.of(Path.Type.directory))), deleted);
     }
 
     @Test
@@ -0,0 +1,37 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.PartScheduler;
+
+/**
+ * Shared threads for encrypting and decrypting file content chunks of all open vault streams. Kept apart
+ * from the scheduler of transfer parts as uploading parts may wait for chunks to be encrypted.
+ */
+final class ChunkScheduler {
+
+    private static final PartScheduler global = new PartScheduler(
+            PreferencesFactory.get().getInteger("cryptomator.stream.threads"));
+
+    private ChunkScheduler() {
+        //
+    }
+
+    public static PartScheduler get() {
+        return global;
+    }
+}
@@ -15,6 +15,10 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+
 import org.apache.commons.io.IOUtils;
 import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.Cryptor;
@@ -22,7 +26,16 @@ import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CryptoInputStream extends InputStream {
 
@@ -38,12 +51,38 @@ public class CryptoInputStream extends InputStream {
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    /**
+     * Maximum number of chunks read ahead and decrypted concurrently
+     */
+    private final int concurrency;
+
+    /**
+     * Chunks read ahead in order of chunk index
+     */
+    private final Deque<DecryptChunkCallable> pending = new ArrayDeque<DecryptChunkCallable>();
+
+    private ThreadPool pool;
+
+    /**
+     * No more ciphertext to read from proxy
+     */
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset) throws IOException {
+        this(proxy, cryptor, header, chunkIndexOffset, PreferencesFactory.get().getInteger("cryptomator.stream.concurrency"));
+    }
+
+    /**
+     * @param concurrency Number of chunks to read ahead and decrypt concurrently
+     */
+    public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset,
+                             final int concurrency) throws IOException {
         this.proxy = proxy;
         this.cryptor = cryptor;
         this.header = header;
         this.chunkSize = cryptor.fileContentCryptor().ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.concurrency = Math.max(1, concurrency);
     }
 
     public InputStream getProxy() {
@@ -53,9 +92,12 @@ public class CryptoInputStream extends InputStream {
     @Override
     public int read() throws IOException {
         if(!buffer.hasRemaining()) {
-            this.readNextChunk();
+            final int read = this.readNextChunk();
+            if(read == IOUtils.EOF) {
+                return IOUtils.EOF;
+            }
         }
-        return buffer.get();
+        return buffer.get() & 0xFF;
     }
 
     @Override
@@ -77,19 +119,120 @@ public class CryptoInputStream extends InputStream {
     }
 
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
+        // Read ahead ciphertext chunks to decrypt concurrently
+        while(!eof && pending.size() < concurrency) {
+            final byte[] ciphertext = BufferPool.get().borrow(chunkSize);
+            final int read = IOUtils.read(proxy, ciphertext);
+            if(read < chunkSize) {
+                eof = true;
+            }
+            if(read == 0) {
+                BufferPool.get().release(ciphertext);
+                break;
+            }
+            final DecryptChunkCallable chunk = new DecryptChunkCallable(ciphertext, read, chunkIndexOffset++);
+            chunk.submit();
+            pending.add(chunk);
+        }
+        if(pending.isEmpty()) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
         try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            // Results are returned in order of chunk index
+            buffer = pending.remove().get();
         }
-        catch(CryptoException e) {
-            throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        return buffer.remaining();
+    }
+
+    private Future<ByteBuffer> submit(final Callable<ByteBuffer> task) {
+        if(concurrency == 1) {
+            // Decrypt in calling thread
+            final FutureTask<ByteBuffer> future = new FutureTask<ByteBuffer>(task);
+            future.run();
+            return future;
+        }
+        if(null == pool) {
+            pool = ChunkScheduler.get().pool("decrypt", concurrency);
+        }
+        return pool.execute(task);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            for(DecryptChunkCallable chunk : pending) {
+                chunk.cancel();
+            }
+            pending.clear();
+            if(pool != null) {
+                pool.shutdown(false);
+            }
+        }
+        finally {
+            proxy.close();
+        }
+    }
+
+    private final class DecryptChunkCallable implements Callable<ByteBuffer> {
+        private final byte[] ciphertext;
+        private final int length;
+        private final long chunkIndex;
+
+        /**
+         * Set when decryption starts or the chunk is cancelled to release the ciphertext buffer exactly once
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Future<ByteBuffer> future;
+
+        public DecryptChunkCallable(final byte[] ciphertext, final int length, final long chunkIndex) {
+            this.ciphertext = ciphertext;
+            this.length = length;
+            this.chunkIndex = chunkIndex;
+        }
+
+        public void submit() {
+            future = CryptoInputStream.this.submit(this);
+        }
+
+        public ByteBuffer get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        /**
+         * Return ciphertext buffer to pool if decryption has not started yet
+         */
+        public void cancel() {
+            future.cancel(false);
+            if(claimed.compareAndSet(false, true)) {
+                BufferPool.get().release(ciphertext);
+            }
+        }
+
+        @Override
+        public ByteBuffer call() throws IOException {
+            if(!claimed.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            try {
+                return cryptor.fileContentCryptor().decryptChunk(ByteBuffer.wrap(ciphertext, 0, length), chunkIndex, header, true);
+            }
+            catch(CryptoException e) {
+                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+            }
+            finally {
+                // Reuse buffer for next chunk
+                BufferPool.get().release(ciphertext);
+            }
         }
-        return read;
     }
-}
\ No newline at end of file
+}
@@ -16,9 +16,12 @@ package ch.cyberduck.core.cryptomator;
  */
 
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.random.NonceGenerator;
+import ch.cyberduck.core.threading.ThreadPool;
 
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -26,9 +29,17 @@ import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -36,7 +47,15 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
     public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
                               final NonceGenerator nonces, final long chunkIndexOffset) {
-        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
+        this(proxy, cryptor, header, nonces, chunkIndexOffset, PreferencesFactory.get().getInteger("cryptomator.stream.concurrency"));
+    }
+
+    /**
+     * @param concurrency Number of chunks to encrypt concurrently
+     */
+    public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
+                              final NonceGenerator nonces, final long chunkIndexOffset, final int concurrency) {
+        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset, concurrency),
                 cryptor.fileContentCryptor().cleartextChunkSize()));
         this.proxy = proxy;
     }
@@ -63,14 +82,27 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        /**
+         * Maximum number of chunks encrypted concurrently
+         */
+        private final int concurrency;
+
+        /**
+         * Chunks submitted for encryption in order of chunk index
+         */
+        private final Deque<EncryptChunkCallable> pending = new ArrayDeque<EncryptChunkCallable>();
+
+        private ThreadPool pool;
+
         public EncryptingOutputStream(final OutputStream proxy, final Cryptor cryptor, final FileHeader header,
-                                      final NonceGenerator nonces, final long chunkIndexOffset) {
+                                      final NonceGenerator nonces, final long chunkIndexOffset, final int concurrency) {
             super(proxy);
             this.cryptor = cryptor;
             this.header = header;
             this.chunksize = cryptor.fileContentCryptor().cleartextChunkSize();
             this.nonces = nonces;
             this.chunkIndexOffset = chunkIndexOffset;
+            this.concurrency = Math.max(1, concurrency);
         }
 
         @Override
@@ -80,17 +112,131 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                // Copy as the segmenting stream reuses its buffer
+                final byte[] cleartext = BufferPool.get().borrow(chunksize);
+                System.arraycopy(b, chunkOffset, cleartext, 0, chunkLen);
+                // Chunk index and nonce are assigned in order of writes
+                final EncryptChunkCallable chunk = new EncryptChunkCallable(cleartext, chunkLen, chunkIndexOffset++, nonces.next());
+                chunk.submit();
+                pending.add(chunk);
+                while(pending.size() >= concurrency) {
+                    this.writeNextChunk();
+                }
+            }
+        }
+
+        private void writeNextChunk() throws IOException {
+            final ByteBuffer encryptedChunk;
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+                encryptedChunk = pending.remove().get();
+            }
+            catch(InterruptedException e) {
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
                 }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
             }
-            catch(CryptoException e) {
-                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+            super.write(encryptedChunk.array());
+        }
+
+        private Future<ByteBuffer> submit(final Callable<ByteBuffer> task) {
+            if(concurrency == 1) {
+                // Encrypt in calling thread
+                final FutureTask<ByteBuffer> future = new FutureTask<ByteBuffer>(task);
+                future.run();
+                return future;
+            }
+            if(null == pool) {
+                pool = ChunkScheduler.get().pool("encrypt", concurrency);
+            }
+            return pool.execute(task);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!pending.isEmpty()) {
+                this.writeNextChunk();
+            }
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                while(!pending.isEmpty()) {
+                    this.writeNextChunk();
+                }
+            }
+            finally {
+                for(EncryptChunkCallable chunk : pending) {
+                    chunk.cancel();
+                }
+                pending.clear();
+                if(pool != null) {
+                    pool.shutdown(false);
+                }
+                super.close();
+            }
+        }
+
+        private final class EncryptChunkCallable implements Callable<ByteBuffer> {
+            private final byte[] cleartext;
+            private final int length;
+            private final long chunkIndex;
+            private final byte[] nonce;
+
+            /**
+             * Set when encryption starts or the chunk is cancelled to release the cleartext buffer exactly once
+             */
+            private final AtomicBoolean claimed = new AtomicBoolean();
+
+            private Future<ByteBuffer> future;
+
+            public EncryptChunkCallable(final byte[] cleartext, final int length, final long chunkIndex, final byte[] nonce) {
+                this.cleartext = cleartext;
+                this.length = length;
+                this.chunkIndex = chunkIndex;
+                this.nonce = nonce;
+            }
+
+            public void submit() {
+                future = EncryptingOutputStream.this.submit(this);
+            }
+
+            public ByteBuffer get() throws InterruptedException, ExecutionException {
+                return future.get();
+            }
+
+            /**
+             * Return cleartext buffer to pool if encryption has not started yet
+             */
+            public void cancel() {
+                future.cancel(false);
+                if(claimed.compareAndSet(false, true)) {
+                    BufferPool.get().release(cleartext);
+                }
+            }
+
+            @Override
+            public ByteBuffer call() throws IOException {
+                if(!claimed.compareAndSet(false, true)) {
+                    throw new CancellationException();
+                }
+                try {
+                    return cryptor.fileContentCryptor().encryptChunk(ByteBuffer.wrap(cleartext, 0, length), chunkIndex, header, nonce);
+                }
+                catch(CryptoException e) {
+                    throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+                }
+                finally {
+                    // Reuse buffer for next chunk
+                    BufferPool.get().release(cleartext);
+                }
             }
         }
     }
@@ -221,6 +221,12 @@ public class CryptoVault implements Vault {
             }
         }
         cryptor = null;
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Directory ID cache statistics %s", directoryProvider.getStatistics()));
+            log.info(String.format("Long filename cache statistics %s", filenameProvider.getStatistics()));
+        }
+        directoryProvider.clear();
+        filenameProvider.clear();
     }
 
     private void open(final KeyFile keyFile, final CharSequence passphrase) throws VaultException, CryptoAuthenticationException {
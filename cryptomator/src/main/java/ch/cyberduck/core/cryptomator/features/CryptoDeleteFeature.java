@@ -58,6 +58,16 @@ public class CryptoDeleteFeature implements Delete {
             }
         }
         proxy.delete(encrypted, prompt, callback);
+        for(Path f : files) {
+            if(f.isDirectory()) {
+                vault.getDirectoryProvider().delete(f);
+            }
+        }
+        for(Path f : encrypted) {
+            if(filenameProvider.isDeflated(f.getName())) {
+                filenameProvider.delete(f.getName());
+            }
+        }
     }
 
     @Override
@@ -38,8 +38,13 @@ public class CryptoListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        return delegate.list(vault.encrypt(session, directory),
-                new DecryptingListProgressListener(session, vault, listener));
+        final DecryptingListProgressListener decrypting = new DecryptingListProgressListener(session, vault, listener);
+        try {
+            return delegate.list(vault.encrypt(session, directory), decrypting);
+        }
+        finally {
+            decrypting.shutdown();
+        }
     }
 
     @Override
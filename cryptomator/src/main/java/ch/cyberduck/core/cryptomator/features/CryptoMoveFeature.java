@@ -21,13 +21,12 @@ import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
-import ch.cyberduck.core.features.Vault;
 
 public class CryptoMoveFeature implements Move {
 
     private final Session<?> session;
     private final Move proxy;
-    private final Vault vault;
+    private final CryptoVault vault;
 
     public CryptoMoveFeature(final Session<?> session, final Move delegate, final Delete delete, final CryptoVault cryptomator) {
         this.session = session;
@@ -42,6 +41,11 @@ public class CryptoMoveFeature implements Move {
                 vault.contains(file) ? vault.encrypt(session, file, file.isDirectory()) : file,
                 vault.contains(renamed) ? vault.encrypt(session, renamed, file.isDirectory()) : renamed,
                 exists, callback);
+        if(file.isDirectory()) {
+            // Directory IDs are retained but cached for previous clear text path
+            vault.getDirectoryProvider().delete(file);
+            vault.getDirectoryProvider().delete(renamed);
+        }
     }
 
     @Override
@@ -22,10 +22,13 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.cryptomator.CryptoInputStream;
 import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.log4j.Logger;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
@@ -34,6 +37,7 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public class CryptoReadFeature implements Read {
+    private static final Logger log = Logger.getLogger(CryptoReadFeature.class);
 
     private final Session<?> session;
     private final Read proxy;
@@ -49,24 +53,82 @@ public class CryptoReadFeature implements Read {
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
             final Path encrypted = vault.encrypt(session, file);
-            // Header
             final Cryptor cryptor = vault.getCryptor();
+            final int headerSize = cryptor.fileHeaderCryptor().headerSize();
+            if(status.isAppend() && status.getOffset() > 0) {
+                // Header
+                final FileHeader header = this.header(encrypted, headerSize, callback);
+                // Start reading at beginning of chunk containing offset
+                final int cleartextChunkSize = cryptor.fileContentCryptor().cleartextChunkSize();
+                final long chunkIndex = status.getOffset() / cleartextChunkSize;
+                final long ciphertextOffset = headerSize + chunkIndex * cryptor.fileContentCryptor().ciphertextChunkSize();
+                final long ciphertextLength;
+                if(-1L == status.getLength()) {
+                    ciphertextLength = -1L;
+                }
+                else {
+                    // Read to end of chunk containing last byte requested as chunks are authenticated as a whole
+                    final long chunks = (status.getOffset() + status.getLength() + cleartextChunkSize - 1) / cleartextChunkSize;
+                    long ciphertextEnd = headerSize + chunks * cryptor.fileContentCryptor().ciphertextChunkSize();
+                    if(file.attributes().getSize() != -1L) {
+                        // Last chunk of file may be shorter
+                        ciphertextEnd = Math.min(ciphertextEnd, vault.toCiphertextSize(file.attributes().getSize()));
+                    }
+                    ciphertextLength = ciphertextEnd - ciphertextOffset;
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Read %s from ciphertext offset %d with length %d for cleartext offset %d",
+                            encrypted, ciphertextOffset, ciphertextLength, status.getOffset()));
+                }
+                final InputStream proxy = this.proxy.read(encrypted,
+                        new TransferStatus(status).skip(ciphertextOffset).length(ciphertextLength), callback);
+                // Content
+                final InputStream stream = new CryptoInputStream(proxy, cryptor, header, chunkIndex);
+                // Discard cleartext of chunk before offset
+                IOUtils.skipFully(stream, status.getOffset() % cleartextChunkSize);
+                if(-1L == status.getLength()) {
+                    return stream;
+                }
+                // Discard cleartext of chunk after range requested
+                return new BoundedInputStream(stream, status.getLength());
+            }
+            // Header
             final InputStream proxy = this.proxy.read(encrypted,
                     new TransferStatus(status).length(vault.toCiphertextSize(status.getLength())), callback);
-            final ByteBuffer headerBuffer = ByteBuffer.allocate(cryptor.fileHeaderCryptor().headerSize());
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(headerSize);
             final int read = IOUtils.read(proxy, headerBuffer.array());
             final FileHeader header = cryptor.fileHeaderCryptor().decryptHeader(headerBuffer);
             // Content
-            return new CryptoInputStream(proxy, cryptor, header, vault.numberOfChunks(status.getOffset()));
+            return new CryptoInputStream(proxy, cryptor, header, 0L);
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map(e);
         }
     }
 
+    /**
+     * Read file header in separate request
+     */
+    private FileHeader header(final Path encrypted, final int headerSize, final ConnectionCallback callback) throws BackgroundException, IOException {
+        final InputStream in = proxy.read(encrypted, new TransferStatus().append(true).skip(0L).length(headerSize), callback);
+        try {
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(headerSize);
+            IOUtils.readFully(in, headerBuffer.array());
+            return vault.getCryptor().fileHeaderCryptor().decryptHeader(headerBuffer);
+        }
+        finally {
+            in.close();
+        }
+    }
+
     @Override
     public boolean offset(final Path file) throws BackgroundException {
-        return false;
+        try {
+            return proxy.offset(vault.encrypt(session, file));
+        }
+        catch(NotfoundException e) {
+            return false;
+        }
     }
 
     @Override
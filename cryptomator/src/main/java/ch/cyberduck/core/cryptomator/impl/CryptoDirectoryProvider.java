@@ -16,6 +16,7 @@ package ch.cyberduck.core.cryptomator.impl;
  */
 
 import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.CacheStatistics;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.RandomStringService;
@@ -25,12 +26,18 @@ import ch.cyberduck.core.cryptomator.ContentReader;
 import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.collections4.map.AbstractLinkedMap;
+import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
 
 public class CryptoDirectoryProvider {
     private static final Logger log = Logger.getLogger(CryptoDirectoryProvider.class);
@@ -44,9 +51,31 @@ public class CryptoDirectoryProvider {
     private final RandomStringService random
             = new UUIDRandomStringService();
 
+    /**
+     * Directory ID by absolute clear text path of directory
+     */
+    private final Map<String, String> cache;
+
+    private final CacheStatistics statistics
+            = new CacheStatistics();
+
     public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator) {
+        this(vault, cryptomator, PreferencesFactory.get().getInteger("cryptomator.cache.size"));
+    }
+
+    /**
+     * @param size Maximum number of directory IDs to cache
+     */
+    public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator, final int size) {
         this.dataRoot = new Path(vault, DATA_DIR_NAME, vault.getType());
         this.cryptomator = cryptomator;
+        this.cache = Collections.synchronizedMap(new LRUMap<String, String>(size) {
+            @Override
+            protected boolean removeLRU(final AbstractLinkedMap.LinkEntry<String, String> entry) {
+                statistics.evict();
+                return true;
+            }
+        });
     }
 
     /**
@@ -102,6 +131,12 @@ public class CryptoDirectoryProvider {
             return ROOT_DIR_ID;
         }
         if(StringUtils.isBlank(directoryId)) {
+            final String cached = cache.get(directory.getAbsolute());
+            if(null != cached) {
+                statistics.hit();
+                return cached;
+            }
+            statistics.miss();
             final Path parent = this.toEncrypted(session, directory.getParent().attributes().getDirectoryId(), directory.getParent());
             final String cleartextName = directory.getName();
             final String ciphertextName = this.toEncrypted(session, parent.attributes().getDirectoryId(), cleartextName, EnumSet.of(Path.Type.directory));
@@ -111,7 +146,9 @@ public class CryptoDirectoryProvider {
                     log.debug(String.format("Read directory ID for folder %s from %s", directory, ciphertextName));
                 }
                 final Path metadataFile = new Path(parent, ciphertextName, EnumSet.of(Path.Type.file, Path.Type.encrypted));
-                return new ContentReader(session).read(metadataFile);
+                final String id = new ContentReader(session).read(metadataFile);
+                cache.put(directory.getAbsolute(), id);
+                return id;
             }
             catch(NotfoundException e) {
                 log.warn(String.format("Missing directory ID for folder %s", directory));
@@ -120,4 +157,39 @@ public class CryptoDirectoryProvider {
         }
         return directoryId;
     }
+
+    /**
+     * Remove cached directory ID for directory and all its descendants after the directory has been
+     * moved or deleted.
+     *
+     * @param directory Clear text directory
+     */
+    public void delete(final Path directory) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Remove cached directory ID for folder %s", directory));
+        }
+        final String prefix = directory.isRoot() ? directory.getAbsolute() : directory.getAbsolute() + Path.DELIMITER;
+        synchronized(cache) {
+            for(Iterator<String> iter = cache.keySet().iterator(); iter.hasNext(); ) {
+                final String key = iter.next();
+                if(key.equals(directory.getAbsolute()) || key.startsWith(prefix)) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear all cached directory IDs
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return Hit, miss and eviction counters for directory ID lookups
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
 }
@@ -15,6 +15,7 @@ package ch.cyberduck.core.cryptomator.impl;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.CacheStatistics;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.cryptomator.ContentReader;
@@ -22,12 +23,17 @@ import ch.cyberduck.core.cryptomator.ContentWriter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.collections4.map.AbstractLinkedMap;
+import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 import org.cryptomator.cryptolib.common.MessageDigestSupplier;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
 
 import com.google.common.io.BaseEncoding;
 
@@ -44,8 +50,30 @@ public class CryptoFilenameProvider {
 
     private final Path metadataRoot;
 
+    /**
+     * Long filename by shortened name
+     */
+    private final Map<String, String> cache;
+
+    private final CacheStatistics statistics
+            = new CacheStatistics();
+
     public CryptoFilenameProvider(final Path vault) {
+        this(vault, PreferencesFactory.get().getInteger("cryptomator.cache.size"));
+    }
+
+    /**
+     * @param size Maximum number of long filenames to cache
+     */
+    public CryptoFilenameProvider(final Path vault, final int size) {
         this.metadataRoot = new Path(vault, METADATA_DIR_NAME, vault.getType());
+        this.cache = Collections.synchronizedMap(new LRUMap<String, String>(size) {
+            @Override
+            protected boolean removeLRU(final AbstractLinkedMap.LinkEntry<String, String> entry) {
+                statistics.evict();
+                return true;
+            }
+        });
     }
 
     public boolean isDeflated(final String filename) {
@@ -53,7 +81,15 @@ public class CryptoFilenameProvider {
     }
 
     public String inflate(final Session<?> session, final String shortName) throws BackgroundException {
-        return new ContentReader(session).read(resolve(shortName));
+        final String cached = cache.get(shortName);
+        if(null != cached) {
+            statistics.hit();
+            return cached;
+        }
+        statistics.miss();
+        final String filename = new ContentReader(session).read(this.resolve(shortName));
+        cache.put(shortName, filename);
+        return filename;
     }
 
     public String deflate(final Session<?> session, final String filename) throws BackgroundException {
@@ -78,6 +114,7 @@ public class CryptoFilenameProvider {
             mkdir.mkdir(secondLevel, null, new TransferStatus());
         }
         new ContentWriter(session).write(metadataFile, longFileNameBytes);
+        cache.put(shortName, filename);
         if(log.isInfoEnabled()) {
             log.info(String.format("Deflated %s to %s", filename, shortName));
         }
@@ -91,4 +128,27 @@ public class CryptoFilenameProvider {
         final Path second = new Path(first, filename.substring(2, 4), metadataRoot.getType());
         return new Path(second, filename, EnumSet.of(Path.Type.file, Path.Type.encrypted, Path.Type.vault));
     }
+
+    /**
+     * Remove cached long filename after the metadata file has been deleted
+     *
+     * @param shortName Shortened filename
+     */
+    public void delete(final String shortName) {
+        cache.remove(shortName);
+    }
+
+    /**
+     * Clear all cached long filenames
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return Hit, miss and eviction counters for long filename lookups
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
 }
@@ -24,6 +24,7 @@ import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultCredentials;
@@ -150,4 +151,61 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteConcurrent() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0, 4);
+
+        final byte[] cleartext = RandomUtils.nextBytes(vault.getCryptor().fileContentCryptor().cleartextChunkSize() * 10 + 1);
+        stream.write(cleartext, 0, cleartext.length);
+        stream.close();
+
+        final byte[] read = new byte[cleartext.length];
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, 4);
+        IOUtils.readFully(cryptoInputStream, read);
+        assertEquals(IOUtils.EOF, cryptoInputStream.read());
+        cryptoInputStream.close();
+
+        assertArrayEquals(cleartext, read);
+    }
+
+    @Test
+    public void testCloseReleasesReadAheadBuffers() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0, 4);
+        final byte[] cleartext = RandomUtils.nextBytes(vault.getCryptor().fileContentCryptor().cleartextChunkSize() * 10 + 1);
+        stream.write(cleartext, 0, cleartext.length);
+        stream.close();
+
+        final int chunksize = vault.getCryptor().fileContentCryptor().ciphertextChunkSize();
+        // Ciphertext buffers for read ahead are borrowed from pool
+        for(int i = 0; i < 4; i++) {
+            BufferPool.get().release(new byte[chunksize]);
+        }
+        final long pooled = BufferPool.get().getPooled();
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, 4);
+        assertEquals(cleartext[0] & 0xFF, cryptoInputStream.read());
+        // Cancel chunks read ahead
+        cryptoInputStream.close();
+        final long timeout = System.currentTimeMillis() + 5000L;
+        while(BufferPool.get().getPooled() < pooled && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+        }
+        assertEquals(pooled, BufferPool.get().getPooled());
+    }
+}
@@ -0,0 +1,160 @@
+package ch.cyberduck.core.cryptomator.features;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.cryptomator.CryptoOutputStream;
+import ch.cyberduck.core.cryptomator.CryptoVault;
+import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Directory;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.vault.VaultCredentials;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class CryptoReadFeatureTest {
+
+    private CryptoVault getVault(final Path home) throws Exception {
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Directory.class) {
+                    return (T) new Directory() {
+
+                        @Override
+                        public Path mkdir(final Path folder, final String region, final TransferStatus status) throws BackgroundException {
+                            return folder;
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path workdir) {
+                            return true;
+                        }
+
+                        @Override
+                        public Directory withWriter(final Write writer) {
+                            return this;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final CryptoVault vault = new CryptoVault(home, new DisabledPasswordStore());
+        vault.create(session, null, new VaultCredentials("test"));
+        return vault;
+    }
+
+    @Test
+    public void testReadOffset() throws Exception {
+        final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
+        final CryptoVault vault = this.getVault(home);
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final byte[] cleartext = RandomUtils.nextBytes(chunksize * 3 + 100);
+        final ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        ciphertext.write(vault.getCryptor().fileHeaderCryptor().encryptHeader(header).array());
+        final CryptoOutputStream<?> out = new CryptoOutputStream<>(new StatusOutputStream<Void>(ciphertext) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0);
+        out.write(cleartext);
+        out.close();
+        final byte[] encrypted = ciphertext.toByteArray();
+        assertEquals(vault.toCiphertextSize(cleartext.length), encrypted.length);
+        final CryptoReadFeature feature = new CryptoReadFeature(new NullSession(new Host(new TestProtocol())), new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                if(status.isAppend()) {
+                    final int length = -1L == status.getLength() ? encrypted.length - (int) status.getOffset() : (int) status.getLength();
+                    return new ByteArrayInputStream(encrypted, (int) status.getOffset(), length);
+                }
+                return new ByteArrayInputStream(encrypted);
+            }
+
+            @Override
+            public boolean offset(final Path file) throws BackgroundException {
+                return true;
+            }
+        }, vault);
+        final Path file = new Path(home, "f", EnumSet.of(Path.Type.file, Path.Type.encrypted));
+        assertTrue(feature.offset(file));
+        {
+            final InputStream in = feature.read(file, new TransferStatus().length(cleartext.length), new DisabledConnectionCallback());
+            assertArrayEquals(cleartext, IOUtils.toByteArray(in));
+            in.close();
+        }
+        {
+            // Offset within second chunk ending in third chunk
+            final long offset = chunksize + 10;
+            final long length = chunksize + 20;
+            final InputStream in = feature.read(file, new TransferStatus().append(true).skip(offset).length(length), new DisabledConnectionCallback());
+            final byte[] read = new byte[(int) length];
+            IOUtils.readFully(in, read);
+            in.close();
+            assertArrayEquals(Arrays.copyOfRange(cleartext, (int) offset, (int) (offset + length)), read);
+        }
+        {
+            // Offset within second chunk ending in last chunk with size unknown
+            final long offset = chunksize + 10;
+            final long length = chunksize * 2 + 20;
+            final InputStream in = feature.read(file, new TransferStatus().append(true).skip(offset).length(length), new DisabledConnectionCallback());
+            assertArrayEquals(Arrays.copyOfRange(cleartext, (int) offset, (int) (offset + length)), IOUtils.toByteArray(in));
+            in.close();
+        }
+        {
+            // Offset within last chunk ending before end of file with size known
+            final Path known = new Path(home, "f", EnumSet.of(Path.Type.file, Path.Type.encrypted));
+            known.attributes().setSize(cleartext.length);
+            final long offset = chunksize * 3 + 10;
+            final long length = 20;
+            final InputStream in = feature.read(known, new TransferStatus().append(true).skip(offset).length(length), new DisabledConnectionCallback());
+            assertArrayEquals(Arrays.copyOfRange(cleartext, (int) offset, (int) (offset + length)), IOUtils.toByteArray(in));
+            in.close();
+        }
+        {
+            // Resume to end of file
+            final long offset = 5;
+            final InputStream in = feature.read(file, new TransferStatus().append(true).skip(offset).length(cleartext.length - offset), new DisabledConnectionCallback());
+            assertArrayEquals(Arrays.copyOfRange(cleartext, (int) offset, cleartext.length), IOUtils.toByteArray(in));
+            in.close();
+        }
+    }
+}
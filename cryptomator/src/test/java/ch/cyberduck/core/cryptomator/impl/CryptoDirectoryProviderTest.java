@@ -37,6 +37,7 @@ import org.junit.Test;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -95,4 +96,58 @@ public class CryptoDirectoryProviderTest {
         assertNotNull(provider.toEncrypted(session, null, f));
         assertEquals(provider.toEncrypted(session, null, f), provider.toEncrypted(session, null, f));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testToEncryptedDirectoryCached() throws Exception {
+        final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
+        final AtomicInteger reads = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                            reads.incrementAndGet();
+                            final String masterKey = "{\n" +
+                                    "  \"scryptSalt\": \"NrC7QGG/ouc=\",\n" +
+                                    "  \"scryptCostParam\": 16384,\n" +
+                                    "  \"scryptBlockSize\": 8,\n" +
+                                    "  \"primaryMasterKey\": \"Q7pGo1l0jmZssoQh9rXFPKJE9NIXvPbL+HcnVSR9CHdkeR8AwgFtcw==\",\n" +
+                                    "  \"hmacMasterKey\": \"xzBqT4/7uEcQbhHFLC0YmMy4ykVKbuvJEA46p1Xm25mJNuTc20nCbw==\",\n" +
+                                    "  \"versionMac\": \"hlNr3dz/CmuVajhaiGyCem9lcVIUjDfSMLhjppcXOrM=\",\n" +
+                                    "  \"version\": 5\n" +
+                                    "}";
+                            return IOUtils.toInputStream(masterKey, Charset.defaultCharset());
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) throws BackgroundException {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final CryptoVault vault = new CryptoVault(home, new DisabledPasswordStore());
+        vault.load(session, new DisabledPasswordCallback() {
+            @Override
+            public void prompt(final Credentials credentials, final String title, final String reason, final LoginOptions options) throws LoginCanceledException {
+                credentials.setPassword("vault");
+            }
+        });
+        assertEquals(1, reads.get());
+        final CryptoDirectoryProvider provider = new CryptoDirectoryProvider(home, vault, 10);
+        final Path f = new Path("/vault/f", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(f, "c", EnumSet.of(Path.Type.directory));
+        assertEquals(provider.toEncrypted(session, null, c), provider.toEncrypted(session, null, c));
+        // Read directory ID of parent and child once
+        assertEquals(3, reads.get());
+        assertEquals(1L, provider.getStatistics().getHits());
+        provider.delete(f);
+        provider.toEncrypted(session, null, c);
+        assertEquals(5, reads.get());
+    }
+}
@@ -174,26 +174,59 @@ public class FTPClient extends FTPSClient {
     }
 
     public List<String> list(final FTPCmd command, final String pathname) throws IOException {
-        this.pret(command, pathname);
-
-        Socket socket = _openDataConnection_(command, pathname);
-
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(socket.getInputStream(), getControlEncoding()));
-        ArrayList<String> results = new ArrayList<String>();
-        String line;
-        while((line = reader.readLine()) != null) {
-            _commandSupport_.fireReplyReceived(-1, line);
-            results.add(line);
+        final ArrayList<String> results = new ArrayList<String>();
+        try (BufferedReader reader = this.stream(command, pathname)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                results.add(line);
+            }
         }
+        return results;
+    }
 
-        reader.close();
-        socket.close();
+    /**
+     * Open data connection for command. Lines are read from the data connection as requested
+     * without buffering the complete response.
+     *
+     * @return Reader for response lines. Closing the reader closes the data connection and
+     * reads the final reply of the command from the control connection.
+     */
+    public BufferedReader stream(final FTPCmd command, final String pathname) throws IOException {
+        this.pret(command, pathname);
 
-        if(!this.completePendingCommand()) {
+        final Socket socket = _openDataConnection_(command, pathname);
+        if(null == socket) {
             throw new FTPException(this.getReplyCode(), this.getReplyString());
         }
-        return results;
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            private boolean closed;
+
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if(closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                    socket.close();
+                }
+                finally {
+                    if(!completePendingCommand()) {
+                        throw new FTPException(getReplyCode(), getReplyString());
+                    }
+                }
+            }
+        };
     }
 
     /**
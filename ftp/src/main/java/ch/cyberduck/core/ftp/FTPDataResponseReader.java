@@ -5,6 +5,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 
@@ -12,4 +13,12 @@ public interface FTPDataResponseReader {
 
     AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException;
+
+    /**
+     * Parse lines as read from the data connection
+     *
+     * @param replies Response lines read from data connection
+     */
+    AttributedList<Path> read(Path parent, BufferedReader replies, ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException;
 }
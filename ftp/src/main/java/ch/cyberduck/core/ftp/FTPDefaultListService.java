@@ -26,8 +26,8 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
 
 public class FTPDefaultListService implements ListService {
 
@@ -61,18 +61,18 @@ public class FTPDefaultListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new FTPDataFallback(session, keychain, prompt).data(new DataConnectionAction<List<String>>() {
+            return new FTPDataFallback(session, keychain, prompt).data(new DataConnectionAction<AttributedList<Path>>() {
                 @Override
-                public List<String> execute() throws BackgroundException {
-                    try {
-                        return session.getClient().list(command.getCommand(), command.getArg());
+                public AttributedList<Path> execute() throws BackgroundException {
+                    // Parse lines as read from the data connection
+                    try (BufferedReader replies = session.getClient().stream(command.getCommand(), command.getArg())) {
+                        return reader.read(directory, replies, listener);
                     }
                     catch(IOException e) {
                         throw new FTPExceptionMappingService().map(e);
                     }
                 }
             }, listener);
-            return reader.read(directory, list, listener);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
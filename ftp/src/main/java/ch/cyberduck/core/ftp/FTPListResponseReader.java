@@ -25,13 +25,16 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.List;
@@ -43,28 +46,75 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final boolean lenient;
 
+    private final int chunksize;
+
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.chunksize = chunksize;
     }
 
     @Override
     public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
+        final Listing listing = new Listing(directory, listener);
         // Call hook for those implementors which need to perform some action upon the list after it has been created
         // from the server stream, but before any clients see the list
         parser.preParse(replies);
         for(String line : replies) {
+            listing.parse(line);
+        }
+        return listing.finish();
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader replies, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final Listing listing = new Listing(directory, listener);
+        // Only pass leading lines to hook for parsers removing or detecting the format from header lines
+        final List<String> head = new ArrayList<String>();
+        String line;
+        while(head.size() < chunksize && (line = replies.readLine()) != null) {
+            head.add(line);
+        }
+        parser.preParse(head);
+        for(String l : head) {
+            listing.parse(l);
+        }
+        // Parse remaining lines as received from the server
+        while((line = replies.readLine()) != null) {
+            listing.parse(line);
+        }
+        return listing.finish();
+    }
+
+    private final class Listing {
+        private final Path directory;
+        private final ListProgressListener listener;
+        private final AttributedList<Path> children = new AttributedList<Path>();
+
+        /**
+         * At least one entry successfully parsed
+         */
+        private boolean success = false;
+
+        public Listing(final Path directory, final ListProgressListener listener) {
+            this.directory = directory;
+            this.listener = listener;
+        }
+
+        public void parse(final String line) throws ConnectionCanceledException {
             final FTPFile f = parser.parseFTPEntry(line);
             if(null == f) {
-                continue;
+                return;
             }
             final String name = f.getName();
             if(!success) {
@@ -73,13 +123,13 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                     // Workaround for #2434. STAT of symbolic link directory only lists the directory itself.
                     if(directory.getName().equals(name)) {
                         log.warn(String.format("Skip %s matching parent directory name", f.getName()));
-                        continue;
+                        return;
                     }
                     if(name.contains(String.valueOf(Path.DELIMITER))) {
                         if(!name.startsWith(directory.getAbsolute() + Path.DELIMITER)) {
                             // Workaround for #2434.
                             log.warn(String.format("Skip %s with delimiter in name", name));
-                            continue;
+                            return;
                         }
                     }
                 }
@@ -89,7 +139,7 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Skip %s", f.getName()));
                 }
-                continue;
+                return;
             }
             final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
             switch(f.getType()) {
@@ -163,10 +213,16 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                 parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
             }
             children.add(parsed);
+            if(children.size() % chunksize == 0) {
+                listener.chunk(directory, children);
+            }
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
+
+        public AttributedList<Path> finish() throws FTPInvalidListException {
+            if(!success) {
+                throw new FTPInvalidListException(children);
+            }
+            return children;
         }
-        return children;
     }
 }
@@ -26,10 +26,12 @@ import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.date.MDTMMillisecondsDateFormatter;
 import ch.cyberduck.core.date.MDTMSecondsDateFormatter;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.Date;
 import java.util.EnumSet;
@@ -43,21 +45,57 @@ import java.util.regex.Pattern;
 public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     private static final Logger log = Logger.getLogger(FTPMlsdListResponseReader.class);
 
+    private final int chunksize;
+
     public FTPMlsdListResponseReader() {
-        //
+        this(PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPMlsdListResponseReader(final int chunksize) {
+        this.chunksize = chunksize;
     }
 
     @Override
     public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
+        final Listing listing = new Listing(directory, listener);
         for(String line : replies) {
-            final Map<String, Map<String, String>> file = this.parseFacts(line);
+            listing.parse(line);
+        }
+        return listing.finish();
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader replies, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final Listing listing = new Listing(directory, listener);
+        String line;
+        while((line = replies.readLine()) != null) {
+            listing.parse(line);
+        }
+        return listing.finish();
+    }
+
+    private final class Listing {
+        private final Path directory;
+        private final ListProgressListener listener;
+        private final AttributedList<Path> children = new AttributedList<Path>();
+
+        /**
+         * At least one entry successfully parsed
+         */
+        private boolean success = false;
+
+        public Listing(final Path directory, final ListProgressListener listener) {
+            this.directory = directory;
+            this.listener = listener;
+        }
+
+        public void parse(final String line) throws ConnectionCanceledException {
+            final Map<String, Map<String, String>> file = FTPMlsdListResponseReader.this.parseFacts(line);
             if(null == file) {
                 log.error(String.format("Error parsing line %s", line));
-                continue;
+                return;
             }
             for(Map.Entry<String, Map<String, String>> f : file.entrySet()) {
                 final String name = f.getKey();
@@ -156,19 +194,25 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                 }
                 if(facts.containsKey("modify")) {
                     // Time values are always represented in UTC
-                    parsed.attributes().setModificationDate(this.parseTimestamp(facts.get("modify")));
+                    parsed.attributes().setModificationDate(FTPMlsdListResponseReader.this.parseTimestamp(facts.get("modify")));
                 }
                 if(facts.containsKey("create")) {
                     // Time values are always represented in UTC
-                    parsed.attributes().setCreationDate(this.parseTimestamp(facts.get("create")));
+                    parsed.attributes().setCreationDate(FTPMlsdListResponseReader.this.parseTimestamp(facts.get("create")));
                 }
                 children.add(parsed);
+                if(children.size() % chunksize == 0) {
+                    listener.chunk(directory, children);
+                }
             }
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
+
+        public AttributedList<Path> finish() throws FTPInvalidListException {
+            if(!success) {
+                throw new FTPInvalidListException(children);
+            }
+            return children;
         }
-        return children;
     }
 
     /**
@@ -26,10 +26,14 @@ import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.test.IntegrationTest;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -251,4 +255,24 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testReadStream() throws Exception {
+        final List<Integer> chunks = new ArrayList<Integer>();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2)
+                .read(new Path("/", EnumSet.of(Path.Type.directory)), new BufferedReader(new StringReader(StringUtils.join(Arrays.asList(
+                        "total 3",
+                        "-rw-r--r--   1 ftp      ftp             4 Feb 05 06:51 a",
+                        "-rw-r--r--   1 ftp      ftp             4 Feb 05 06:51 b",
+                        "drwxr-xr-x   2 ftp      ftp          4096 Feb 05 06:51 c"), '\n'))), new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path parent, AttributedList<Path> list) throws ListCanceledException {
+                        chunks.add(list.size());
+                    }
+                }
+        );
+        assertEquals(3, list.size());
+        assertEquals(Collections.singletonList(2), chunks);
+        assertTrue(list.get(2).isDirectory());
+    }
 }
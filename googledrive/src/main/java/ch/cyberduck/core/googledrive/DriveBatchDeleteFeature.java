@@ -20,12 +20,15 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.PartitionExecutor;
 
 import org.apache.http.client.HttpResponseException;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.google.api.client.googleapis.batch.BatchRequest;
@@ -44,6 +47,35 @@ public class DriveBatchDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final LoginCallback prompt, final Callback callback) throws BackgroundException {
+        final List<Path> regular = new ArrayList<>();
+        // Delete folders after all files that may be contained
+        final List<Path> folders = new ArrayList<>();
+        for(Path file : files) {
+            if(file.isDirectory()) {
+                folders.add(file);
+            }
+            else {
+                regular.add(file);
+            }
+        }
+        new PartitionExecutor<Path>(session.getHost().getHostname(),
+                PreferencesFactory.get().getInteger("googledrive.delete.multiple.concurrency"),
+                PreferencesFactory.get().getInteger("googledrive.delete.multiple.partition")).execute(regular, new PartitionExecutor.Callback<Path>() {
+            @Override
+            public void call(final List<Path> partition) throws BackgroundException {
+                delete(partition, callback);
+            }
+        });
+        // Folders in order given with children ahead of parent
+        for(Path folder : folders) {
+            this.delete(Collections.singletonList(folder), callback);
+        }
+    }
+
+    private void delete(final List<Path> files, final Callback callback) throws BackgroundException {
+        if(files.isEmpty()) {
+            return;
+        }
         final BatchRequest batch = session.getClient().batch();
         final List<BackgroundException> failures = new ArrayList<>();
         for(Path file : files) {
@@ -19,11 +19,11 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.FileChannelInputStream;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 
@@ -40,7 +40,7 @@ public class LocalReadFeature implements Read {
         try {
             final FileChannel channel = FileChannel.open(session.getClient().getPath(file.getAbsolute()), StandardOpenOption.READ);
             channel.position(status.getOffset());
-            return Channels.newInputStream(channel);
+            return new FileChannelInputStream(channel);
         }
         catch(IOException e) {
             throw new LocalExceptionMappingService().map("Download {0} failed", e, file);
@@ -22,14 +22,17 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
-import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.PartitionExecutor;
+
+import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +41,7 @@ import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.Region;
 
 public class SwiftMultipleDeleteFeature implements Delete {
+    private static final Logger log = Logger.getLogger(SwiftMultipleDeleteFeature.class);
 
     private final SwiftSession session;
 
@@ -48,6 +52,11 @@ public class SwiftMultipleDeleteFeature implements Delete {
 
     private final SwiftRegionService regionService;
 
+    /**
+     * Bulk delete supported by server. Determined with the first request before further partitions are submitted
+     */
+    private Boolean bulk;
+
     public SwiftMultipleDeleteFeature(final SwiftSession session) {
         this(session, new SwiftSegmentService(session), new SwiftRegionService(session));
     }
@@ -61,19 +70,22 @@ public class SwiftMultipleDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final LoginCallback prompt, final Callback callback) throws BackgroundException {
-        if(files.size() == 1) {
+        if(files.size() == 1 || Boolean.FALSE.equals(bulk)) {
             new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
         }
         else {
             final Map<Path, List<String>> containers = new HashMap<Path, List<String>>();
+            // Delete placeholders after all keys that may be contained
+            final Map<Path, List<String>> placeholders = new HashMap<Path, List<String>>();
             for(Path file : files) {
                 if(containerService.isContainer(file)) {
                     continue;
                 }
                 callback.delete(file);
                 final Path container = containerService.getContainer(file);
-                if(containers.containsKey(container)) {
-                    containers.get(container).add(containerService.getKey(file));
+                final Map<Path, List<String>> target = file.isDirectory() ? placeholders : containers;
+                if(target.containsKey(container)) {
+                    target.get(container).add(containerService.getKey(file));
                 }
                 else {
                     final List<String> keys = new ArrayList<String>();
@@ -82,29 +94,24 @@ public class SwiftMultipleDeleteFeature implements Delete {
                     for(Path segment : segmentService.list(file)) {
                         keys.add(containerService.getKey(segment));
                     }
-                    containers.put(container, keys);
+                    target.put(container, keys);
                 }
             }
             try {
-                for(Map.Entry<Path, List<String>> container : containers.entrySet()) {
-                    final Region region = regionService.lookup(container.getKey());
-                    final List<String> keys = container.getValue();
-                    for(List<String> partition : new Partition<String>(keys, PreferencesFactory.get().getInteger("openstack.delete.multiple.partition"))) {
-                        session.getClient().deleteObjects(region, container.getKey().getName(), partition);
+                for(Map<Path, List<String>> map : Arrays.asList(containers, placeholders)) {
+                    for(Map.Entry<Path, List<String>> container : map.entrySet()) {
+                        this.delete(container.getKey(), container.getValue());
                     }
                 }
             }
-            catch(GenericException e) {
-                if(new SwiftExceptionMappingService().map(e) instanceof InteroperabilityException) {
-                    new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
-                    return;
+            catch(InteroperabilityException e) {
+                if(bulk) {
+                    // Failure after partitions have already been deleted
+                    throw e;
                 }
-                else {
-                    throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, files.iterator().next());
-                }
-            }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, files.iterator().next());
+                log.warn(String.format("Bulk delete not supported. Fallback to single delete requests. %s", e.getMessage()));
+                new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
+                return;
             }
             for(Path file : files) {
                 if(containerService.isContainer(file)) {
@@ -125,6 +132,51 @@ public class SwiftMultipleDeleteFeature implements Delete {
         }
     }
 
+    /**
+     * Run bulk delete requests for partitions of keys concurrently
+     *
+     * @param container Container
+     * @param keys      Object names in container
+     * @throws InteroperabilityException Bulk delete not supported by server when determined with first request
+     */
+    protected void delete(final Path container, final List<String> keys) throws BackgroundException {
+        final Region region = regionService.lookup(container);
+        final int partition = PreferencesFactory.get().getInteger("openstack.delete.multiple.partition");
+        List<String> remaining = keys;
+        if(null == bulk) {
+            // Send first partition on its own to fallback to single delete requests before any files are deleted
+            final List<String> first = keys.subList(0, Math.min(partition, keys.size()));
+            try {
+                this.delete(region, container, first);
+                bulk = true;
+            }
+            catch(InteroperabilityException e) {
+                bulk = false;
+                throw e;
+            }
+            remaining = keys.subList(first.size(), keys.size());
+        }
+        new PartitionExecutor<String>(session.getHost().getHostname(),
+                PreferencesFactory.get().getInteger("openstack.delete.multiple.concurrency"), partition).execute(remaining, new PartitionExecutor.Callback<String>() {
+            @Override
+            public void call(final List<String> partition) throws BackgroundException {
+                delete(region, container, partition);
+            }
+        });
+    }
+
+    private void delete(final Region region, final Path container, final List<String> keys) throws BackgroundException {
+        try {
+            session.getClient().deleteObjects(region, container.getName(), keys);
+        }
+        catch(GenericException e) {
+            throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, container);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, container);
+        }
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return true;
@@ -78,24 +78,7 @@ public class SwiftObjectListService implements ListService {
                         containerService.isContainer(directory) ? StringUtils.EMPTY : containerService.getKey(directory) + Path.DELIMITER,
                         null, limit, marker, Path.DELIMITER);
                 for(StorageObject object : list) {
-                    final PathAttributes attributes = new PathAttributes();
-                    attributes.setOwner(container.attributes().getOwner());
-                    attributes.setRegion(container.attributes().getRegion());
-                    if(StringUtils.isNotBlank(object.getMd5sum())) {
-                        // For manifest files, the ETag in the response for a GET or HEAD on the manifest file is the MD5 sum of
-                        // the concatenated string of ETags for each of the segments in the manifest.
-                        attributes.setChecksum(Checksum.parse(object.getMd5sum()));
-                    }
-                    attributes.setSize(object.getSize());
-                    final String lastModified = object.getLastModified();
-                    if(lastModified != null) {
-                        try {
-                            attributes.setModificationDate(dateParser.parse(lastModified).getTime());
-                        }
-                        catch(InvalidDateException e) {
-                            log.warn(String.format("%s is not ISO 8601 format %s", lastModified, e.getMessage()));
-                        }
-                    }
+                    final PathAttributes attributes = this.toAttributes(container, object);
                     final EnumSet<AbstractPath.Type> types = "application/directory"
                             .equals(object.getMimeType()) ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
                     if(StringUtils.endsWith(object.getName(), String.valueOf(Path.DELIMITER))) {
@@ -120,4 +103,26 @@ public class SwiftObjectListService implements ListService {
             throw new DefaultIOExceptionMappingService().map(e, directory);
         }
     }
+
+    protected PathAttributes toAttributes(final Path container, final StorageObject object) {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setOwner(container.attributes().getOwner());
+        attributes.setRegion(container.attributes().getRegion());
+        if(StringUtils.isNotBlank(object.getMd5sum())) {
+            // For manifest files, the ETag in the response for a GET or HEAD on the manifest file is the MD5 sum of
+            // the concatenated string of ETags for each of the segments in the manifest.
+            attributes.setChecksum(Checksum.parse(object.getMd5sum()));
+        }
+        attributes.setSize(object.getSize());
+        final String lastModified = object.getLastModified();
+        if(lastModified != null) {
+            try {
+                attributes.setModificationDate(dateParser.parse(lastModified).getTime());
+            }
+            catch(InvalidDateException e) {
+                log.warn(String.format("%s is not ISO 8601 format %s", lastModified, e.getMessage()));
+            }
+        }
+        return attributes;
+    }
 }
@@ -0,0 +1,94 @@
+package ch.cyberduck.core.openstack;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import ch.iterate.openstack.swift.exception.GenericException;
+import ch.iterate.openstack.swift.model.StorageObject;
+
+public class SwiftRecursiveListService implements RecursiveListService {
+    private static final Logger log = Logger.getLogger(SwiftRecursiveListService.class);
+
+    private final SwiftSession session;
+
+    private final PathContainerService containerService
+            = new PathContainerService();
+
+    private final SwiftRegionService regionService;
+
+    public SwiftRecursiveListService(final SwiftSession session) {
+        this(session, new SwiftRegionService(session));
+    }
+
+    public SwiftRecursiveListService(final SwiftSession session, final SwiftRegionService regionService) {
+        this.session = session;
+        this.regionService = regionService;
+    }
+
+    @Override
+    public void list(final Path directory, final Listener listener) throws BackgroundException {
+        final Path container = containerService.getContainer(directory);
+        // List all objects with prefix of directory without delimiter to not roll up objects in virtual directories
+        final String prefix = containerService.isContainer(directory) ? StringUtils.EMPTY : containerService.getKey(directory) + Path.DELIMITER;
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List all objects in %s with prefix %s", container, prefix));
+        }
+        try {
+            final SwiftObjectListService service = new SwiftObjectListService(session, regionService);
+            final int chunksize = PreferencesFactory.get().getInteger("openstack.list.object.limit");
+            String marker = null;
+            List<StorageObject> objects;
+            do {
+                objects = session.getClient().listObjectsStartingWith(regionService.lookup(container), container.getName(),
+                        prefix, null, chunksize, marker, null);
+                final List<Path> files = new ArrayList<Path>();
+                for(StorageObject object : objects) {
+                    marker = object.getName();
+                    final EnumSet<AbstractPath.Type> types = "application/directory"
+                            .equals(object.getMimeType()) ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+                    files.add(new Path(String.format("%s%s", container.getAbsolute(), PathNormalizer.normalize(object.getName())),
+                            types, service.toAttributes(container, object)));
+                }
+                if(!listener.chunk(files)) {
+                    return;
+                }
+            }
+            while(objects.size() == chunksize);
+        }
+        catch(GenericException e) {
+            throw new SwiftExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e, directory);
+        }
+    }
+}
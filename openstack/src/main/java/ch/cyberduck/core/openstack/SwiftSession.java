@@ -45,6 +45,7 @@ import ch.cyberduck.core.features.Location;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Search;
 import ch.cyberduck.core.features.Touch;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
@@ -289,6 +290,9 @@ public class SwiftSession extends HttpSession<Client> {
         if(type == Home.class) {
             return (T) new SwiftHomeFinderService(this);
         }
+        if(type == Search.class) {
+            return (T) new SwiftSearchFeature(this, regionService);
+        }
         return super._getFeature(type);
     }
 }
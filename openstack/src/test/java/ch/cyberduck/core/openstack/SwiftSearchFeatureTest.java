@@ -0,0 +1,78 @@
+package ch.cyberduck.core.openstack;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+import ch.cyberduck.ui.browser.SearchFilter;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class SwiftSearchFeatureTest {
+
+    @Test
+    public void testSearch() throws Exception {
+        final Host host = new Host(new SwiftProtocol(), "identity.api.rackspacecloud.com", new Credentials(
+                System.getProperties().getProperty("rackspace.key"), System.getProperties().getProperty("rackspace.secret")
+        ));
+        final SwiftSession session = new SwiftSession(host).withAccountPreload(false).withCdnPreload(false).withContainerPreload(false);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), PathCache.empty());
+        final Path container = new Path("test.cyberduck.ch", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        container.attributes().setRegion("DFW");
+        final String name = new AlphanumericRandomStringService().random();
+        final Path file = new Path(container, name, EnumSet.of(Path.Type.file));
+        new SwiftTouchFeature(session, new SwiftRegionService(session)).touch(file, new TransferStatus());
+        final Path subdir = new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SwiftDirectoryFeature(session).mkdir(subdir, null, new TransferStatus());
+        final Path filesubdir = new Path(subdir, name, EnumSet.of(Path.Type.file));
+        new SwiftTouchFeature(session, new SwiftRegionService(session)).touch(filesubdir, new TransferStatus());
+        final SwiftSearchFeature feature = new SwiftSearchFeature(session);
+        assertTrue(feature.search(container, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
+        // Recursive search
+        assertTrue(feature.search(container, new SearchFilter(name), new DisabledListProgressListener()).contains(filesubdir));
+        assertFalse(feature.search(subdir, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
+        assertTrue(feature.search(subdir, new SearchFilter(name), new DisabledListProgressListener()).contains(filesubdir));
+        PreferencesFactory.get().setProperty("browser.search.limit", 1);
+        try {
+            assertEquals(1, feature.search(container, new SearchFilter(name), new DisabledListProgressListener()).size());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("browser.search.limit");
+        }
+        new SwiftDeleteFeature(session).delete(Arrays.asList(file, filesubdir, subdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+}
@@ -202,7 +202,7 @@ public class BrowserController extends WindowController
      * Caching files listings of previously listed directories
      */
     private final PathCache cache
-            = new PathCache(preferences.getInteger("browser.cache.size"));
+            = PathCache.browser();
 
     @Outlet
     protected NSProgressIndicator statusSpinner;
@@ -2428,7 +2428,7 @@ public class InfoController extends ToolbarWindowController {
     public void calculateSizeButtonClicked(final ID sender) {
         if(this.toggleSizeSettings(false)) {
             controller.background(new WorkerBackgroundAction<Long>(controller, session,
-                    new CalculateSizeWorker(files, controller) {
+                    new CalculateSizeWorker(session, files, controller) {
                         @Override
                         public void cleanup(final Long size) {
                             setSize(size);
@@ -25,7 +25,7 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Encryption;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.preferences.PreferencesFactory;
-import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.PartScheduler;
 import ch.cyberduck.core.threading.ThreadPool;
 
 import org.apache.commons.lang3.StringUtils;
@@ -52,9 +52,6 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
     private final PathContainerService containerService
             = new S3PathContainerService();
 
-    private final ThreadPool pool
-            = new DefaultThreadPool("multipart", PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
-
     /**
      * A split smaller than 5M is not allowed
      */
@@ -82,6 +79,8 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
             if(null != accessControlListFeature) {
                 destination.setAcl(accessControlListFeature.convert(acl));
             }
+            final ThreadPool pool = PartScheduler.get().pool(session.getHost().getHostname(),
+                    PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
             try {
                 final List<MultipartPart> completed = new ArrayList<MultipartPart>();
                 // ID for the initiated multipart upload.
@@ -99,7 +98,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                     // Last part can be less than 5 MB. Adjust part size.
                     final Long length = Math.min(Math.max((size / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
                     // Submit to queue
-                    parts.add(this.submit(source, multipart, partNumber, offset, length));
+                    parts.add(this.submit(pool, source, multipart, partNumber, offset, length));
                     remaining -= length;
                     offset += length;
                 }
@@ -137,7 +136,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
         }
     }
 
-    private Future<MultipartPart> submit(final Path source,
+    private Future<MultipartPart> submit(final ThreadPool pool, final Path source,
                                          final MultipartUpload multipart,
                                          final int partNumber, final long offset, final long length) throws BackgroundException {
         if(log.isInfoEnabled()) {
@@ -0,0 +1,242 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adjusts part size and number of concurrent part uploads from the throughput measured for each round of
+ * completed parts. Concurrency is increased while the aggregate throughput improves and decreased when it
+ * drops. Once the maximum concurrency is reached the part size is doubled and halved again when the throughput
+ * drops. A failed part halves both concurrency and part size. The parameters chosen are recorded for the most
+ * recently used hosts and used as the initial values for the next upload.
+ */
+public class S3MultipartUploadController {
+    private static final Logger log = Logger.getLogger(S3MultipartUploadController.class);
+
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
+    /**
+     * Minimum relative change in throughput to adjust parameters
+     */
+    private static final double THRESHOLD = 0.1d;
+
+    private final String hostname;
+
+    private final long minimumPartsize;
+    private final long maximumPartsize;
+    private final int minimumConcurrency;
+    private final int maximumConcurrency;
+
+    private long partsize;
+    private int concurrency;
+
+    /**
+     * Number of parts currently uploading
+     */
+    private int inflight;
+
+    /**
+     * Bytes and parts completed in current round
+     */
+    private long bytes;
+    private int parts;
+    private long start;
+
+    /**
+     * Throughput in bytes per second measured for previous round. Negative after a failure.
+     */
+    private double throughput;
+
+    /**
+     * @param hostname    Host to record parameters for or null to use fixed part size and concurrency
+     * @param partsize    Part size if no previous parameters are recorded for host
+     * @param concurrency Number of concurrent part uploads if no previous parameters are recorded for host
+     */
+    public S3MultipartUploadController(final String hostname, final long partsize, final int concurrency) {
+        this.hostname = hostname;
+        if(null == hostname) {
+            this.minimumPartsize = this.maximumPartsize = partsize;
+            this.minimumConcurrency = this.maximumConcurrency = concurrency;
+        }
+        else {
+            this.minimumPartsize = Math.min(partsize, preferences.getLong("s3.upload.multipart.partsize.minimum"));
+            this.maximumPartsize = Math.max(partsize, preferences.getLong("s3.upload.multipart.partsize.maximum"));
+            this.minimumConcurrency = 1;
+            this.maximumConcurrency = Math.max(concurrency, preferences.getInteger("s3.upload.multipart.concurrency.maximum"));
+        }
+        this.partsize = partsize;
+        this.concurrency = concurrency;
+        if(null != hostname) {
+            final long recordedPartsize = preferences.getLong(String.format("s3.upload.multipart.size.%s", hostname));
+            if(recordedPartsize > 0) {
+                this.partsize = Math.max(minimumPartsize, Math.min(maximumPartsize, recordedPartsize));
+            }
+            final int recordedConcurrency = preferences.getInteger(String.format("s3.upload.multipart.concurrency.%s", hostname));
+            if(recordedConcurrency > 0) {
+                this.concurrency = Math.max(minimumConcurrency, Math.min(maximumConcurrency, recordedConcurrency));
+            }
+        }
+    }
+
+    public synchronized long getPartsize() {
+        return partsize;
+    }
+
+    public synchronized int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return Maximum number of parts uploaded concurrently
+     */
+    public int getMaximumConcurrency() {
+        return maximumConcurrency;
+    }
+
+    /**
+     * Block until the number of parts uploading is below the current concurrency
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while(inflight >= concurrency) {
+            this.wait();
+        }
+        if(0L == start) {
+            start = System.currentTimeMillis();
+        }
+        inflight++;
+    }
+
+    /**
+     * Release slot for part upload
+     *
+     * @param length Number of bytes uploaded or zero if upload failed
+     */
+    public synchronized void release(final long length) {
+        inflight--;
+        if(0L == length) {
+            this.notifyAll();
+            return;
+        }
+        bytes += length;
+        parts++;
+        if(parts >= concurrency) {
+            final long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+            final double current = bytes * 1000d / elapsed;
+            if(throughput < 0d) {
+                // First round after failure is only used as reference
+            }
+            else if(0d == throughput || current > throughput * (1d + THRESHOLD)) {
+                this.grow();
+            }
+            else if(current < throughput * (1d - THRESHOLD)) {
+                this.shrink();
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Measured throughput %.0f bytes/s. Use part size %d with concurrency %d",
+                        current, partsize, concurrency));
+            }
+            throughput = current;
+            this.reset();
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Failed attempt to upload part
+     */
+    public synchronized void failure() {
+        concurrency = Math.max(minimumConcurrency, concurrency / 2);
+        partsize = Math.max(minimumPartsize, partsize / 2);
+        log.warn(String.format("Part upload failed. Reduce part size to %d with concurrency %d", partsize, concurrency));
+        throughput = -1d;
+        this.reset();
+        this.notifyAll();
+    }
+
+    private void grow() {
+        if(concurrency < maximumConcurrency) {
+            concurrency++;
+        }
+        else if(partsize < maximumPartsize) {
+            partsize = Math.min(maximumPartsize, partsize * 2);
+        }
+    }
+
+    /**
+     * Reverse of grow. Reduce part size first if increased at maximum concurrency
+     */
+    private void shrink() {
+        if(concurrency == maximumConcurrency && partsize > minimumPartsize) {
+            partsize = Math.max(minimumPartsize, partsize / 2);
+        }
+        else if(concurrency > minimumConcurrency) {
+            concurrency--;
+        }
+    }
+
+    private void reset() {
+        bytes = 0L;
+        parts = 0;
+        start = System.currentTimeMillis();
+    }
+
+    /**
+     * Record current parameters for host. Parameters are only kept for the number of most recently used hosts
+     * in s3.upload.multipart.hosts.limit and removed for the least recently used host.
+     */
+    public synchronized void save() {
+        if(null == hostname) {
+            return;
+        }
+        synchronized(S3MultipartUploadController.class) {
+            final List<String> hosts = new ArrayList<String>(preferences.getList("s3.upload.multipart.hosts"));
+            hosts.remove(hostname);
+            hosts.add(hostname);
+            while(hosts.size() > Math.max(0, preferences.getInteger("s3.upload.multipart.hosts.limit"))) {
+                final String expired = hosts.remove(0);
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Remove recorded parameters for %s", expired));
+                }
+                preferences.deleteProperty(String.format("s3.upload.multipart.size.%s", expired));
+                preferences.deleteProperty(String.format("s3.upload.multipart.concurrency.%s", expired));
+            }
+            preferences.setProperty("s3.upload.multipart.hosts", StringUtils.join(hosts, " "));
+            if(hosts.contains(hostname)) {
+                preferences.setProperty(String.format("s3.upload.multipart.size.%s", hostname), partsize);
+                preferences.setProperty(String.format("s3.upload.multipart.concurrency.%s", hostname), concurrency);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("S3MultipartUploadController{");
+        sb.append("partsize=").append(partsize);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append(", throughput=").append(throughput);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -37,7 +37,7 @@ import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.PartScheduler;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -54,6 +54,7 @@ import org.jets3t.service.model.StorageObject;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -82,24 +83,38 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
 
     private final Integer concurrency;
 
+    /**
+     * Adjust part size and concurrency from measured throughput
+     */
+    private final boolean adaptive;
+
     public S3MultipartUploadService(final S3Session session, final Write<StorageObject> writer) {
         this(session, writer, PreferencesFactory.get().getLong("s3.upload.multipart.size"),
-                PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
+                PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"),
+                PreferencesFactory.get().getBoolean("s3.upload.multipart.adaptive"));
     }
 
     public S3MultipartUploadService(final S3Session session, final Write<StorageObject> writer, final Long partsize, final Integer concurrency) {
+        this(session, writer, partsize, concurrency, false);
+    }
+
+    public S3MultipartUploadService(final S3Session session, final Write<StorageObject> writer, final Long partsize, final Integer concurrency,
+                                    final boolean adaptive) {
         super(writer);
         this.session = session;
         this.multipartService = new S3DefaultMultipartService(session);
         this.writer = writer;
         this.partsize = partsize;
         this.concurrency = concurrency;
+        this.adaptive = adaptive;
     }
 
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final DefaultThreadPool pool = new DefaultThreadPool("multipart", concurrency);
+        final S3MultipartUploadController controller = new S3MultipartUploadController(
+                adaptive ? session.getHost().getHostname() : null, partsize, concurrency);
+        final ThreadPool pool = PartScheduler.get().pool(session.getHost().getHostname(), controller.getMaximumConcurrency());
         try {
             MultipartUpload multipart = null;
             if(status.isAppend() || status.isRetry()) {
@@ -125,38 +140,34 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
             else {
                 if(status.isAppend() || status.isRetry()) {
                     // Add already completed parts
-                    completed.addAll(multipartService.list(multipart));
+                    completed.addAll(consecutive(multipartService.list(multipart)));
                 }
             }
             try {
                 final List<Future<MultipartPart>> parts = new ArrayList<Future<MultipartPart>>();
-                long remaining = status.getLength();
-                long offset = 0;
-                for(int partNumber = 1; remaining > 0; partNumber++) {
-                    boolean skip = false;
-                    if(status.isAppend() || status.isRetry()) {
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Determine if part number %d can be skipped", partNumber));
-                        }
-                        for(MultipartPart c : completed) {
-                            if(c.getPartNumber().equals(partNumber)) {
-                                if(log.isInfoEnabled()) {
-                                    log.info(String.format("Skip completed part number %d", partNumber));
-                                }
-                                skip = true;
-                                offset += c.getSize();
-                                break;
-                            }
-                        }
+                // Offset of first part to upload is determined by the recorded size of all previously completed parts
+                long offset = 0L;
+                for(MultipartPart c : completed) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip completed part number %d", c.getPartNumber()));
                     }
-                    if(!skip) {
-                        // Last part can be less than 5 MB. Adjust part size.
-                        final Long length = Math.min(Math.max(((status.getLength() + status.getOffset()) / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
-                        // Submit to queue
-                        parts.add(this.submit(pool, file, local, throttle, listener, status, multipart, partNumber, offset, length, callback));
-                        remaining -= length;
-                        offset += length;
+                    offset += c.getSize();
+                }
+                final long length = status.getOffset() + status.getLength();
+                for(int partNumber = completed.size() + 1; offset < length; partNumber++) {
+                    // Last part can be less than 5 MB. Adjust part size.
+                    final long size = Math.min(Math.max(length / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS, controller.getPartsize()), length - offset);
+                    try {
+                        // Wait for slot
+                        controller.acquire();
+                    }
+                    catch(InterruptedException e) {
+                        status.setCanceled();
+                        throw new ConnectionCanceledException(e);
                     }
+                    // Submit to queue
+                    parts.add(this.submit(pool, controller, file, local, throttle, listener, status, multipart, partNumber, offset, size, callback));
+                    offset += size;
                 }
                 for(Future<MultipartPart> future : parts) {
                     try {
@@ -211,6 +222,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         }
                     }
                 }
+                controller.save();
                 // Mark parent status as complete
                 status.setComplete();
                 final StorageObject object = new StorageObject(containerService.getKey(file));
@@ -227,14 +239,40 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }
     }
 
-    private Future<MultipartPart> submit(final ThreadPool pool, final Path file, final Local local,
+    /**
+     * Part sizes vary when adjusted from measured throughput. The length of a missing part is therefore unknown
+     * and all parts following it are uploaded again replacing any previously completed part with the same number.
+     *
+     * @param parts Completed parts of pending multipart upload
+     * @return Completed parts with consecutive part numbers starting at 1
+     */
+    protected static List<MultipartPart> consecutive(final List<MultipartPart> parts) {
+        final List<MultipartPart> sorted = new ArrayList<MultipartPart>(parts);
+        sorted.sort(new Comparator<MultipartPart>() {
+            @Override
+            public int compare(final MultipartPart o1, final MultipartPart o2) {
+                return o1.getPartNumber().compareTo(o2.getPartNumber());
+            }
+        });
+        final List<MultipartPart> consecutive = new ArrayList<MultipartPart>();
+        for(MultipartPart part : sorted) {
+            if(part.getPartNumber() != consecutive.size() + 1) {
+                log.warn(String.format("Missing part number %d. Discard completed part number %d", consecutive.size() + 1, part.getPartNumber()));
+                break;
+            }
+            consecutive.add(part);
+        }
+        return consecutive;
+    }
+
+    private Future<MultipartPart> submit(final ThreadPool pool, final S3MultipartUploadController controller, final Path file, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final MultipartUpload multipart,
                                          final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws BackgroundException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
-        return pool.execute(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
+        final DefaultRetryCallable<MultipartPart> retry = new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
             @Override
             public MultipartPart call() throws BackgroundException {
                 if(overall.isCanceled()) {
@@ -251,26 +289,35 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setNonces(overall.getNonces());
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum()
-                                .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status)
-                        );
+                        if(!session.isUnsignedPayload()) {
+                            status.setChecksum(writer.checksum()
+                                    .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status)
+                            );
+                        }
                         break;
                 }
                 status.setSegment(true);
-                final StorageObject part = S3MultipartUploadService.super.upload(
-                        file, local, throttle, listener, status, overall, new StreamProgress() {
-                            @Override
-                            public void progress(final long bytes) {
-                                status.progress(bytes);
-                                // Discard sent bytes in overall progress if there is an error reply for segment.
-                                overall.progress(bytes);
-                            }
+                final StorageObject part;
+                try {
+                    part = S3MultipartUploadService.super.upload(
+                            file, local, throttle, listener, status, overall, new StreamProgress() {
+                                @Override
+                                public void progress(final long bytes) {
+                                    status.progress(bytes);
+                                    // Discard sent bytes in overall progress if there is an error reply for segment.
+                                    overall.progress(bytes);
+                                }
 
-                            @Override
-                            public void setComplete() {
-                                status.setComplete();
-                            }
-                        }, callback);
+                                @Override
+                                public void setComplete() {
+                                    status.setComplete();
+                                }
+                            }, callback);
+                }
+                catch(BackgroundException e) {
+                    controller.failure();
+                    throw e;
+                }
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Received response %s for part number %d", part, partNumber));
                 }
@@ -281,7 +328,21 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         part.getContentLength());
 
             }
-        }, overall));
+        }, overall);
+        return pool.execute(new BackgroundExceptionCallable<MultipartPart>() {
+            @Override
+            public MultipartPart call() throws BackgroundException {
+                long uploaded = 0L;
+                try {
+                    final MultipartPart part = retry.call();
+                    uploaded = length;
+                    return part;
+                }
+                finally {
+                    controller.release(uploaded);
+                }
+            }
+        });
     }
 
     @Override
@@ -24,6 +24,8 @@ import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.PartScheduler;
+import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -42,8 +44,15 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPart>> {
@@ -86,7 +95,8 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
         }
-        final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status);
+        final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status,
+                preferences.getInteger("s3.upload.multipart.write.concurrency"));
         return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy,
                 preferences.getInteger("s3.upload.multipart.partsize.minimum"))) {
             @Override
@@ -122,16 +132,44 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         private final List<MultipartPart> completed
                 = new ArrayList<MultipartPart>();
 
+        /**
+         * In-flight parts submitted for upload in pipelined mode in order of part number
+         */
+        private final Queue<Future<MultipartPart>> parts
+                = new LinkedList<Future<MultipartPart>>();
+
         private final MultipartUpload multipart;
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
         private int partNumber;
 
-        public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status) {
+        /**
+         * Pool for in-flight part uploads or null for synchronous upload
+         */
+        private final ThreadPool pool;
+        /**
+         * Permits for part buffers not yet uploaded. Blocks writer when all buffers are in use
+         */
+        private final Semaphore available;
+        /**
+         * Part buffers ready for reuse
+         */
+        private final Queue<byte[]> buffers
+                = new ConcurrentLinkedQueue<byte[]>();
+
+        public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status, final int concurrency) {
             this.multipart = multipart;
             this.file = file;
             this.overall = status;
+            if(concurrency > 1) {
+                this.pool = PartScheduler.get().pool(session.getHost().getHostname(), concurrency);
+                this.available = new Semaphore(concurrency);
+            }
+            else {
+                this.pool = null;
+                this.available = null;
+            }
         }
 
         public List<MultipartPart> getCompleted() {
@@ -145,13 +183,53 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
 
         @Override
         public void write(final byte[] content, final int off, final int len) throws IOException {
+            if(null == pool) {
+                completed.add(this.upload(content, off, len, ++partNumber));
+                return;
+            }
+            // Collect finished parts in order and fail early if previous part failed
+            while(!parts.isEmpty() && parts.peek().isDone()) {
+                completed.add(this.await(parts.poll()));
+            }
+            try {
+                available.acquire();
+            }
+            catch(InterruptedException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            byte[] buffer = buffers.poll();
+            if(null == buffer || buffer.length < len) {
+                buffer = new byte[len];
+            }
+            // Copy as the segment buffer is reused by the caller
+            System.arraycopy(content, off, buffer, 0, len);
+            final byte[] part = buffer;
+            final int number = ++partNumber;
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Submit part %d of %s with %d bytes", number, file, len));
+            }
+            parts.add(pool.execute(new Callable<MultipartPart>() {
+                @Override
+                public MultipartPart call() throws IOException {
+                    try {
+                        return MultipartOutputStream.this.upload(part, 0, len, number);
+                    }
+                    finally {
+                        buffers.offer(part);
+                        available.release();
+                    }
+                }
+            }));
+        }
+
+        private MultipartPart upload(final byte[] content, final int off, final int len, final int partNumber) throws IOException {
             try {
-                completed.add(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
+                return new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
                     @Override
                     public MultipartPart call() throws BackgroundException {
                         final Map<String, String> parameters = new HashMap<String, String>();
                         parameters.put("uploadId", multipart.getUploadId());
-                        parameters.put("partNumber", String.valueOf(++partNumber));
+                        parameters.put("partNumber", String.valueOf(partNumber));
                         final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
                         switch(session.getSignatureVersion()) {
                             case AWS4HMACSHA256:
@@ -179,13 +257,29 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
                                 null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
                                 part.getContentLength());
                     }
-                }, overall).call());
+                }, overall).call();
             }
             catch(Exception e) {
                 throw new IOException(e.getMessage(), e);
             }
         }
 
+        private MultipartPart await(final Future<MultipartPart> part) throws IOException {
+            try {
+                return part.get();
+            }
+            catch(InterruptedException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+
         @Override
         public void close() throws IOException {
             try {
@@ -193,6 +287,17 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
                     log.warn(String.format("Skip double close of stream %s", this));
                     return;
                 }
+                if(pool != null) {
+                    try {
+                        // Wait for in-flight parts
+                        while(!parts.isEmpty()) {
+                            completed.add(this.await(parts.poll()));
+                        }
+                    }
+                    finally {
+                        pool.shutdown(false);
+                    }
+                }
                 if(completed.isEmpty()) {
                     log.warn(String.format("Abort multipart upload %s with no completed parts", multipart));
                     session.getClient().multipartAbortUpload(multipart);
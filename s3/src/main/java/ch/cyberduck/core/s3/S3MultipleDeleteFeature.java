@@ -27,6 +27,7 @@ import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.PartitionExecutor;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -36,6 +37,7 @@ import org.jets3t.service.model.MultipleDeleteResult;
 import org.jets3t.service.model.container.ObjectKeyAndVersion;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +55,11 @@ public class S3MultipleDeleteFeature implements Delete {
 
     private final Versioning versioningService;
 
+    /**
+     * Multifactor authentication token reused for requests of this feature instance until rejected
+     */
+    private Credentials factor;
+
     public S3MultipleDeleteFeature(final S3Session session) {
         this(session, new S3DefaultMultipartService(session));
     }
@@ -65,6 +72,8 @@ public class S3MultipleDeleteFeature implements Delete {
 
     public void delete(final List<Path> files, final LoginCallback prompt, final Callback callback) throws BackgroundException {
         final Map<Path, List<ObjectKeyAndVersion>> map = new HashMap<Path, List<ObjectKeyAndVersion>>();
+        // Delete placeholders after all keys that may be contained
+        final Map<Path, List<ObjectKeyAndVersion>> placeholders = new HashMap<Path, List<ObjectKeyAndVersion>>();
         final List<Path> containers = new ArrayList<Path>();
         for(Path file : files) {
             if(containerService.isContainer(file)) {
@@ -87,18 +96,21 @@ public class S3MultipleDeleteFeature implements Delete {
             final List<ObjectKeyAndVersion> keys = new ArrayList<ObjectKeyAndVersion>();
             // Always returning 204 even if the key does not exist. Does not return 404 for non-existing keys
             keys.add(new ObjectKeyAndVersion(containerService.getKey(file), file.attributes().getVersionId()));
-            if(map.containsKey(container)) {
-                map.get(container).addAll(keys);
+            final Map<Path, List<ObjectKeyAndVersion>> target = file.isDirectory() ? placeholders : map;
+            if(target.containsKey(container)) {
+                target.get(container).addAll(keys);
             }
             else {
-                map.put(container, keys);
+                target.put(container, keys);
             }
         }
         // Iterate over all containers and delete list of keys
-        for(Map.Entry<Path, List<ObjectKeyAndVersion>> entry : map.entrySet()) {
-            final Path container = entry.getKey();
-            final List<ObjectKeyAndVersion> keys = entry.getValue();
-            this.delete(container, keys, prompt);
+        for(Map<Path, List<ObjectKeyAndVersion>> m : Arrays.asList(map, placeholders)) {
+            for(Map.Entry<Path, List<ObjectKeyAndVersion>> entry : m.entrySet()) {
+                final Path container = entry.getKey();
+                final List<ObjectKeyAndVersion> keys = entry.getValue();
+                this.delete(container, keys, prompt);
+            }
         }
         for(Path file : containers) {
             callback.delete(file);
@@ -122,48 +134,31 @@ public class S3MultipleDeleteFeature implements Delete {
         try {
             if(versioningService != null
                     && versioningService.getConfiguration(container).isMultifactor()) {
-                final Credentials factor = versioningService.getToken(prompt);
-                final MultipleDeleteResult result = session.getClient().deleteMultipleObjectsWithMFA(container.getName(),
-                        keys.toArray(new ObjectKeyAndVersion[keys.size()]),
-                        factor.getUsername(),
-                        factor.getPassword(),
-                        // Only include errors in response
-                        true);
-                if(result.hasErrors()) {
-                    for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                        if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                            // Ignore failure deleting placeholder
-                            continue;
-                        }
-                        final ServiceException failure = new ServiceException();
-                        failure.setErrorCode(error.getErrorCode());
-                        failure.setErrorMessage(error.getMessage());
-                        throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                                new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
-                    }
+                // Requests with token are sent in sequence to prompt again once the token is no longer accepted
+                for(List<ObjectKeyAndVersion> partition : new Partition<ObjectKeyAndVersion>(keys,
+                        PreferencesFactory.get().getInteger("s3.delete.multiple.partition"))) {
+                    this.delete(container, partition, prompt, null == factor);
                 }
             }
             else {
                 // Request contains a list of up to 1000 keys that you want to delete
-                for(List<ObjectKeyAndVersion> partition : new Partition<ObjectKeyAndVersion>(keys, PreferencesFactory.get().getInteger("s3.delete.multiple.partition"))) {
-                    final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
-                            partition.toArray(new ObjectKeyAndVersion[partition.size()]),
-                            // Only include errors in response
-                            true);
-                    if(result.hasErrors()) {
-                        for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                            if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                                // Ignore failure deleting placeholder
-                                continue;
-                            }
-                            final ServiceException failure = new ServiceException();
-                            failure.setErrorCode(error.getErrorCode());
-                            failure.setErrorMessage(error.getMessage());
-                            throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                                    new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
+                new PartitionExecutor<ObjectKeyAndVersion>(session.getHost().getHostname(),
+                        PreferencesFactory.get().getInteger("s3.delete.multiple.concurrency"),
+                        PreferencesFactory.get().getInteger("s3.delete.multiple.partition")).execute(keys, new PartitionExecutor.Callback<ObjectKeyAndVersion>() {
+                    @Override
+                    public void call(final List<ObjectKeyAndVersion> partition) throws BackgroundException {
+                        try {
+                            final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
+                                    partition.toArray(new ObjectKeyAndVersion[partition.size()]),
+                                    // Only include errors in response
+                                    true);
+                            verify(container, result);
+                        }
+                        catch(ServiceException e) {
+                            throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
                         }
                     }
-                }
+                });
             }
         }
         catch(ServiceException e) {
@@ -171,6 +166,52 @@ public class S3MultipleDeleteFeature implements Delete {
         }
     }
 
+    /**
+     * @param prompted Token entered for this request. Otherwise prompt for new token when token reused from
+     *                 previous request is rejected
+     */
+    private void delete(final Path container, final List<ObjectKeyAndVersion> partition, final LoginCallback prompt,
+                        final boolean prompted) throws BackgroundException, ServiceException {
+        if(null == factor) {
+            factor = versioningService.getToken(prompt);
+        }
+        try {
+            final MultipleDeleteResult result = session.getClient().deleteMultipleObjectsWithMFA(container.getName(),
+                    partition.toArray(new ObjectKeyAndVersion[partition.size()]),
+                    factor.getUsername(),
+                    factor.getPassword(),
+                    // Only include errors in response
+                    true);
+            this.verify(container, result);
+        }
+        catch(ServiceException e) {
+            if(!prompted && StringUtils.equals("AccessDenied", e.getErrorCode())) {
+                log.warn(String.format("Multifactor authentication token rejected for %s. Prompt for new token", container));
+                // One-time password expired
+                factor = null;
+                this.delete(container, partition, prompt, true);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    private void verify(final Path container, final MultipleDeleteResult result) throws BackgroundException {
+        if(result.hasErrors()) {
+            for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
+                if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
+                    // Ignore failure deleting placeholder
+                    continue;
+                }
+                final ServiceException failure = new ServiceException();
+                failure.setErrorCode(error.getErrorCode());
+                failure.setErrorMessage(error.getMessage());
+                throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
+                        new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
+            }
+        }
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return true;
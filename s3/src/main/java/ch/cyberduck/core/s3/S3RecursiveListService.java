@@ -0,0 +1,88 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListService;
+import ch.cyberduck.core.URIEncoder;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+import org.jets3t.service.ServiceException;
+import org.jets3t.service.StorageObjectsChunk;
+import org.jets3t.service.model.StorageObject;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+public class S3RecursiveListService implements RecursiveListService {
+    private static final Logger log = Logger.getLogger(S3RecursiveListService.class);
+
+    private final S3Session session;
+
+    private final PathContainerService containerService
+            = new S3PathContainerService();
+
+    private final S3AttributesFinderFeature attributes;
+
+    public S3RecursiveListService(final S3Session session) {
+        this.session = session;
+        this.attributes = new S3AttributesFinderFeature(session);
+    }
+
+    @Override
+    public void list(final Path directory, final Listener listener) throws BackgroundException {
+        final Path bucket = containerService.getContainer(directory);
+        // List all keys with prefix of directory omitting the delimiter to not roll up keys in common prefixes
+        final String prefix = new S3ObjectListService(session).createPrefix(directory);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List all keys in %s with prefix %s", bucket, prefix));
+        }
+        try {
+            // Null if listing is complete
+            String priorLastKey = null;
+            do {
+                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                        PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, null,
+                        PreferencesFactory.get().getInteger("s3.listing.chunksize"), priorLastKey);
+                final List<Path> files = new ArrayList<Path>();
+                for(StorageObject object : chunk.getObjects()) {
+                    final String key = PathNormalizer.normalize(object.getKey());
+                    final EnumSet<AbstractPath.Type> types = object.isDirectoryPlaceholder()
+                            ? EnumSet.of(Path.Type.directory, Path.Type.placeholder) : EnumSet.of(Path.Type.file);
+                    final PathAttributes attr = attributes.convert(object);
+                    // Copy bucket location
+                    attr.setRegion(bucket.attributes().getRegion());
+                    files.add(new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr));
+                }
+                if(!listener.chunk(files)) {
+                    return;
+                }
+                priorLastKey = chunk.getPriorLastKey();
+            }
+            while(priorLastKey != null);
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+}
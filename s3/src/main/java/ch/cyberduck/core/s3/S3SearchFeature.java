@@ -15,48 +15,11 @@ package ch.cyberduck.core.s3;
  * GNU General Public License for more details.
  */
 
-import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.Cache;
-import ch.cyberduck.core.DefaultIOExceptionMappingService;
-import ch.cyberduck.core.Filter;
-import ch.cyberduck.core.ListProgressListener;
-import ch.cyberduck.core.Path;
-import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.shared.RecursiveSearchFeature;
 
-import org.jets3t.service.ServiceException;
-
-import java.io.IOException;
-
-public class S3SearchFeature implements Search {
-
-    private final S3Session session;
+public class S3SearchFeature extends RecursiveSearchFeature {
 
     public S3SearchFeature(final S3Session session) {
-        this.session = session;
-    }
-
-    @Override
-    public AttributedList<Path> search(final Path workdir, final Filter<Path> regex, final ListProgressListener listener) throws BackgroundException {
-        final S3ObjectListService list = new S3ObjectListService(session);
-        try {
-            return list.listObjects(workdir, String.format("%s%s", list.createPrefix(workdir), regex.toPattern().pattern()), listener);
-        }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map("Failure to read attributes of {0}", e, workdir);
-        }
-        catch(ServiceException e) {
-            throw new S3ExceptionMappingService().map("Failure to read attributes of {0}", e, workdir);
-        }
-    }
-
-    @Override
-    public boolean isRecursive() {
-        return false;
-    }
-
-    @Override
-    public Search withCache(final Cache<Path> cache) {
-        return this;
+        super(session, new S3RecursiveListService(session));
     }
 }
@@ -139,6 +139,16 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         this.authenticationHeaderSignatureVersion = authenticationHeaderSignatureVersion;
     }
 
+    /**
+     * @return True if the payload of uploads is excluded from the AWS4 signature and only hashed for
+     * verification while uploading. Requires a TLS connection.
+     */
+    public boolean isUnsignedPayload() {
+        return S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256 == authenticationHeaderSignatureVersion
+                && host.getProtocol().isSecure()
+                && preferences.getBoolean("s3.upload.payload.unsigned");
+    }
+
     /**
      * @return header prefix for general Google Storage headers: x-goog-.
      */
@@ -390,6 +400,9 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         if(type == Search.class) {
             return (T) new S3SearchFeature(this);
         }
+        if(type == Size.class) {
+            return (T) new S3SizeFeature(this);
+        }
         return super._getFeature(type);
     }
 }
\ No newline at end of file
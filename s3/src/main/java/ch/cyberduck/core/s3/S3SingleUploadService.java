@@ -27,6 +27,7 @@ import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumCache;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -58,8 +59,9 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
         final S3Protocol.AuthenticationHeaderSignatureVersion signatureVersion = session.getSignatureVersion();
         switch(signatureVersion) {
             case AWS4HMACSHA256:
-                if(Checksum.NONE == status.getChecksum()) {
-                    status.setChecksum(writer.checksum().compute(local.getInputStream(), status));
+                // Payload hash required for signature unless uploaded with unsigned payload
+                if(Checksum.NONE == status.getChecksum() && !session.isUnsignedPayload()) {
+                    status.setChecksum(ChecksumCache.get().compute(local, writer.checksum(), status));
                 }
                 break;
         }
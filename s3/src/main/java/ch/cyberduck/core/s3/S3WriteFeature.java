@@ -33,6 +33,7 @@ import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -132,6 +133,10 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
                     break;
             }
         }
+        else if(session.isUnsignedPayload()) {
+            // Payload is hashed while uploading
+            object.addMetadata("x-amz-content-sha256", "UNSIGNED-PAYLOAD");
+        }
         if(StringUtils.isNotBlank(status.getStorageClass())) {
             if(!S3Object.STORAGE_CLASS_STANDARD.equals(status.getStorageClass())) {
                 // The default setting is STANDARD.
@@ -159,7 +164,7 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
                 final List<MultipartUpload> upload = multipartService.find(file);
                 if(!upload.isEmpty()) {
                     Long size = 0L;
-                    for(MultipartPart completed : multipartService.list(upload.iterator().next())) {
+                    for(MultipartPart completed : S3MultipartUploadService.consecutive(multipartService.list(upload.iterator().next()))) {
                         size += completed.getSize();
                     }
                     return new Append(size);
@@ -185,6 +190,10 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
 
     @Override
     public ChecksumCompute checksum() {
+        if(session.isUnsignedPayload()) {
+            // No need to read file before upload
+            return new DisabledChecksumCompute();
+        }
         return ChecksumComputeFactory.get(HashAlgorithm.sha256);
     }
 }
@@ -0,0 +1,111 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class S3MultipartUploadControllerTest {
+
+    @Test
+    public void testFixed() throws Exception {
+        final S3MultipartUploadController controller = new S3MultipartUploadController(null, 5L * 1024L * 1024L, 2);
+        for(int i = 0; i < 10; i++) {
+            controller.acquire();
+            controller.release(5L * 1024L * 1024L);
+        }
+        controller.failure();
+        assertEquals(2, controller.getConcurrency());
+        assertEquals(5L * 1024L * 1024L, controller.getPartsize());
+    }
+
+    @Test
+    public void testGrowAndShrink() throws Exception {
+        final S3MultipartUploadController controller = new S3MultipartUploadController(UUID.randomUUID().toString(), 5L * 1024L * 1024L, 2);
+        assertEquals(2, controller.getConcurrency());
+        controller.acquire();
+        controller.acquire();
+        Thread.sleep(10L);
+        controller.release(5L * 1024L * 1024L);
+        controller.release(5L * 1024L * 1024L);
+        // First round
+        assertEquals(3, controller.getConcurrency());
+        controller.failure();
+        assertEquals(1, controller.getConcurrency());
+        controller.acquire();
+        controller.release(5L * 1024L * 1024L);
+        // Reference after failure
+        assertEquals(1, controller.getConcurrency());
+        assertEquals(5L * 1024L * 1024L, controller.getPartsize());
+    }
+
+    @Test
+    public void testShrinkPartsize() throws Exception {
+        PreferencesFactory.get().setProperty("s3.upload.multipart.concurrency.maximum", 1);
+        try {
+            final S3MultipartUploadController controller = new S3MultipartUploadController(UUID.randomUUID().toString(), 10L * 1024L * 1024L, 1);
+            controller.acquire();
+            Thread.sleep(10L);
+            controller.release(10L * 1024L * 1024L);
+            // Grow part size at maximum concurrency
+            assertEquals(1, controller.getConcurrency());
+            assertEquals(20L * 1024L * 1024L, controller.getPartsize());
+            controller.failure();
+            assertEquals(1, controller.getConcurrency());
+            assertEquals(10L * 1024L * 1024L, controller.getPartsize());
+            controller.failure();
+            assertEquals(5L * 1024L * 1024L, controller.getPartsize());
+            controller.failure();
+            // Bounded by minimum
+            assertEquals(5L * 1024L * 1024L, controller.getPartsize());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("s3.upload.multipart.concurrency.maximum");
+        }
+    }
+
+    @Test
+    public void testSaveLimitHosts() throws Exception {
+        final Preferences preferences = PreferencesFactory.get();
+        preferences.setProperty("s3.upload.multipart.hosts.limit", 2);
+        try {
+            final String first = UUID.randomUUID().toString();
+            final String second = UUID.randomUUID().toString();
+            final String third = UUID.randomUUID().toString();
+            new S3MultipartUploadController(first, 5L * 1024L * 1024L, 2).save();
+            new S3MultipartUploadController(second, 5L * 1024L * 1024L, 2).save();
+            assertEquals(2, preferences.getInteger(String.format("s3.upload.multipart.concurrency.%s", first)));
+            new S3MultipartUploadController(third, 5L * 1024L * 1024L, 2).save();
+            assertNull(preferences.getProperty(String.format("s3.upload.multipart.concurrency.%s", first)));
+            assertNull(preferences.getProperty(String.format("s3.upload.multipart.size.%s", first)));
+            assertEquals(2, preferences.getInteger(String.format("s3.upload.multipart.concurrency.%s", second)));
+            assertEquals(2, preferences.getInteger(String.format("s3.upload.multipart.concurrency.%s", third)));
+            assertEquals(Arrays.asList(second, third), preferences.getList("s3.upload.multipart.hosts"));
+        }
+        finally {
+            preferences.deleteProperty("s3.upload.multipart.hosts.limit");
+            preferences.deleteProperty("s3.upload.multipart.hosts");
+        }
+    }
+}
@@ -19,12 +19,14 @@ import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.kms.KMSEncryptionFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.jets3t.service.model.MultipartPart;
 import org.jets3t.service.model.S3Object;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -32,7 +34,9 @@ import org.junit.experimental.categories.Category;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Random;
@@ -340,4 +344,89 @@ public class S3MultipartUploadServiceTest {
         local.delete();
         session.close();
     }
+
+    @Test
+    public void testAppendAdaptivePartsize() throws Exception {
+        final Host host = new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                new Credentials(
+                        System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                ));
+        final S3Session session = new S3Session(host);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), PathCache.empty());
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final String name = UUID.randomUUID().toString();
+        final Path test = new Path(container, name, EnumSet.of(Path.Type.file));
+        final byte[] random = new byte[17 * 1024 * 1024];
+        new Random().nextBytes(random);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), name);
+        IOUtils.write(random, local.getOutputStream(false));
+        final String property = String.format("s3.upload.multipart.size.%s", host.getHostname());
+        // Part size recorded for host from previous upload
+        PreferencesFactory.get().setProperty(property, 6L * 1024L * 1024L);
+        final AtomicBoolean started = new AtomicBoolean();
+        final TransferStatus status = new TransferStatus() {
+            @Override
+            public void progress(long bytes) {
+                super.progress(bytes);
+                started.set(true);
+            }
+        };
+        status.setLength(random.length);
+        final AtomicBoolean interrupt = new AtomicBoolean();
+        try {
+            new S3MultipartUploadService(session, new S3WriteFeature(session, new S3DisabledMultipartService()), 5L * 1024L * 1024L, 1, true).upload(test, new Local(System.getProperty("java.io.tmpdir"), name) {
+                        @Override
+                        public InputStream getInputStream() throws AccessDeniedException {
+                            return new CountingInputStream(super.getInputStream()) {
+                                @Override
+                                protected void beforeRead(int n) throws IOException {
+                                    if(started.get()) {
+                                        if(this.getByteCount() >= 7L * 1024L * 1024L) {
+                                            throw new IOException();
+                                        }
+                                    }
+                                }
+                            };
+                        }
+                    },
+                    new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), status,
+                    new DisabledLoginCallback());
+        }
+        catch(BackgroundException e) {
+            // Expected
+            interrupt.set(true);
+        }
+        assertTrue(interrupt.get());
+        assertEquals(6L * 1024L * 1024L, status.getOffset(), 0L);
+        assertFalse(status.isComplete());
+        // Part size recorded for host has changed since first attempt
+        PreferencesFactory.get().setProperty(property, 5L * 1024L * 1024L);
+        final long offset = 6L * 1024L * 1024L;
+        final TransferStatus append = new TransferStatus().append(true).length(random.length - offset).skip(offset);
+        new S3MultipartUploadService(session, new S3WriteFeature(session, new S3DisabledMultipartService()), 5L * 1024L * 1024L, 1, true).upload(test, local,
+                new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), append,
+                new DisabledConnectionCallback());
+        assertTrue(append.isComplete());
+        assertEquals(random.length, new S3AttributesFinderFeature(session).find(test).getSize(), 0L);
+        final byte[] buffer = new byte[random.length];
+        final InputStream in = new S3ReadFeature(session).read(test, new TransferStatus(), new DisabledConnectionCallback());
+        IOUtils.readFully(in, buffer);
+        in.close();
+        assertArrayEquals(random, buffer);
+        new S3DefaultDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        PreferencesFactory.get().deleteProperty(property);
+        session.close();
+    }
+
+    @Test
+    public void testConsecutive() throws Exception {
+        final MultipartPart first = new MultipartPart(1, new Date(), "a", 6L * 1024L * 1024L);
+        final MultipartPart second = new MultipartPart(2, new Date(), "b", 12L * 1024L * 1024L);
+        final MultipartPart fourth = new MultipartPart(4, new Date(), "d", 5L * 1024L * 1024L);
+        assertEquals(Arrays.asList(first, second), S3MultipartUploadService.consecutive(Arrays.asList(fourth, second, first)));
+        assertEquals(Collections.<MultipartPart>emptyList(), S3MultipartUploadService.consecutive(Arrays.asList(second, fourth)));
+        assertEquals(Collections.<MultipartPart>emptyList(), S3MultipartUploadService.consecutive(Collections.<MultipartPart>emptyList()));
+    }
 }
@@ -12,6 +12,7 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
@@ -65,4 +66,45 @@ public class S3MultipartWriteFeatureTest {
         new S3DefaultDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
         session.close();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteConcurrentParts() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), PathCache.empty());
+        PreferencesFactory.get().setProperty("s3.upload.multipart.write.concurrency", 3);
+        try {
+            final S3MultipartWriteFeature feature = new S3MultipartWriteFeature(session);
+            final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.volume));
+            final TransferStatus status = new TransferStatus();
+            status.setLength(-1L);
+            final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            final HttpResponseOutputStream<List<MultipartPart>> out = feature.write(file, status, new DisabledConnectionCallback());
+            final byte[] content = RandomUtils.nextBytes(21 * 1024 * 1024);
+            final ByteArrayInputStream in = new ByteArrayInputStream(content);
+            new StreamCopier(new TransferStatus(), new TransferStatus()).transfer(in, out);
+            in.close();
+            out.close();
+            final List<MultipartPart> parts = out.getStatus();
+            assertEquals(5, parts.size());
+            for(int i = 0; i < parts.size(); i++) {
+                // Completed in order of part number
+                assertEquals(Integer.valueOf(i + 1), parts.get(i).getPartNumber());
+            }
+            final byte[] compare = new byte[content.length];
+            final InputStream stream = new S3ReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+            IOUtils.readFully(stream, compare);
+            stream.close();
+            assertArrayEquals(content, compare);
+            new S3DefaultDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("s3.upload.multipart.write.concurrency");
+        }
+        session.close();
+    }
+}
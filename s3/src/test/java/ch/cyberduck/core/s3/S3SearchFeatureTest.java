@@ -60,14 +60,17 @@ public class S3SearchFeatureTest {
         session.getFeature(Touch.class).touch(file, new TransferStatus());
         final S3SearchFeature feature = new S3SearchFeature(session);
         assertTrue(feature.search(workdir, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
-        // Supports prefix matching only
-        assertFalse(feature.search(workdir, new SearchFilter(StringUtils.substring(name, 2)), new DisabledListProgressListener()).contains(file));
+        assertTrue(feature.search(workdir, new SearchFilter(StringUtils.substring(name, 2)), new DisabledListProgressListener()).contains(file));
         assertTrue(feature.search(workdir, new SearchFilter(StringUtils.substring(name, 0, name.length() - 2)), new DisabledListProgressListener()).contains(file));
         final Path subdir = new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
         assertFalse(feature.search(subdir, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
         new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(subdir, null, new TransferStatus());
         assertFalse(feature.search(subdir, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
-        new S3DefaultDeleteFeature(session).delete(Arrays.asList(file, subdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        final Path filesubdir = new Path(subdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        session.getFeature(Touch.class).touch(filesubdir, new TransferStatus());
+        // Recursive search
+        assertTrue(feature.search(workdir, new SearchFilter(filesubdir.getName()), new DisabledListProgressListener()).contains(filesubdir));
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(file, filesubdir, subdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
         session.close();
     }
 
@@ -18,6 +18,7 @@ import ch.cyberduck.core.features.Logging;
 import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.identity.IdentityConfiguration;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DefaultX509TrustManager;
 import ch.cyberduck.core.ssl.KeychainX509KeyManager;
@@ -320,4 +321,36 @@ public class S3SessionTest {
         session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), PathCache.empty());
         session.close();
     }
+
+    @Test
+    public void testUnsignedPayload() throws Exception {
+        final S3Session session = new S3Session(new Host(new S3Protocol()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        assertTrue(session.isUnsignedPayload());
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS2);
+        assertFalse(session.isUnsignedPayload());
+    }
+
+    @Test
+    public void testUnsignedPayloadDisabled() throws Exception {
+        PreferencesFactory.get().setProperty("s3.upload.payload.unsigned", false);
+        try {
+            final S3Session session = new S3Session(new Host(new S3Protocol()));
+            session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+            assertFalse(session.isUnsignedPayload());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("s3.upload.payload.unsigned");
+        }
+    }
+
+    @Test
+    public void testUnsignedPayloadUnsecured() throws Exception {
+        ProtocolFactory.register(new S3Protocol());
+        final Profile profile = ProfileReaderFactory.get().read(
+                new Local("../profiles/S3 (HTTP).cyberduckprofile"));
+        final S3Session session = new S3Session(new Host(profile, profile.getDefaultHostname()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        assertFalse(session.isUnsignedPayload());
+    }
 }
@@ -15,6 +15,7 @@ package ch.cyberduck.core.s3;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledCancelCallback;
 import ch.cyberduck.core.DisabledHostKeyCallback;
@@ -25,18 +26,25 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.kms.KMSEncryptionFeature;
 import ch.cyberduck.core.local.LocalTouchFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.jets3t.service.model.StorageObject;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -46,6 +54,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -66,6 +75,60 @@ public class S3SingleUploadServiceTest {
         assertNotNull(new S3SingleUploadService(session, new S3WriteFeature(session, new S3DisabledMultipartService())).digest());
     }
 
+    @Test
+    public void testUnsignedPayloadNoChecksum() throws Exception {
+        final S3Session session = new S3Session(new Host(new S3Protocol()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        assertEquals(Checksum.NONE, this.checksum(session));
+    }
+
+    @Test
+    public void testSignedPayloadChecksum() throws Exception {
+        PreferencesFactory.get().setProperty("s3.upload.payload.unsigned", false);
+        try {
+            final S3Session session = new S3Session(new Host(new S3Protocol()));
+            session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+            final Checksum checksum = this.checksum(session);
+            assertEquals(HashAlgorithm.sha256, checksum.algorithm);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("s3.upload.payload.unsigned");
+        }
+    }
+
+    /**
+     * @return Checksum set on transfer status before the upload is started
+     */
+    private Checksum checksum(final S3Session session) throws Exception {
+        final AtomicReference<Checksum> checksum = new AtomicReference<Checksum>();
+        final S3SingleUploadService service = new S3SingleUploadService(session, new S3WriteFeature(session, new S3DisabledMultipartService()) {
+            @Override
+            public HttpResponseOutputStream<StorageObject> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                checksum.set(status.getChecksum());
+                throw new ConnectionCanceledException();
+            }
+        });
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final String random = RandomStringUtils.random(1000);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(random, out, Charset.defaultCharset());
+        out.close();
+        final TransferStatus status = new TransferStatus();
+        status.setLength(random.getBytes().length);
+        try {
+            service.upload(new Path("/test-us-east-1-cyberduck/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                    new DisabledStreamListener(), status, new DisabledLoginCallback());
+            fail();
+        }
+        catch(ConnectionCanceledException e) {
+            //
+        }
+        finally {
+            local.delete();
+        }
+        return checksum.get();
+    }
+
     @Test
     public void testUpload() throws Exception {
         final S3Session session = new S3Session(
@@ -8,20 +8,27 @@ import ch.cyberduck.core.DisabledHostKeyCallback;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Profile;
+import ch.cyberduck.core.ProfileReaderFactory;
+import ch.cyberduck.core.ProtocolFactory;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.SHA256ChecksumCompute;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.jets3t.service.model.S3Object;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -187,4 +194,45 @@ public class S3WriteFeatureTest {
             session.close();
         }
     }
+
+    @Test
+    public void testUnsignedPayload() throws Exception {
+        final S3Session session = new S3Session(new Host(new S3Protocol()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        final S3WriteFeature feature = new S3WriteFeature(session, new S3DisabledMultipartService());
+        // No checksum computed before upload
+        assertTrue(feature.checksum() instanceof DisabledChecksumCompute);
+        final S3Object object = feature.getDetails("k", new TransferStatus());
+        assertEquals("UNSIGNED-PAYLOAD", object.getMetadata("x-amz-content-sha256"));
+    }
+
+    @Test
+    public void testSignedPayloadUnsecured() throws Exception {
+        ProtocolFactory.register(new S3Protocol());
+        final Profile profile = ProfileReaderFactory.get().read(
+                new Local("../profiles/S3 (HTTP).cyberduckprofile"));
+        final S3Session session = new S3Session(new Host(profile, profile.getDefaultHostname()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        final S3WriteFeature feature = new S3WriteFeature(session, new S3DisabledMultipartService());
+        assertTrue(feature.checksum() instanceof SHA256ChecksumCompute);
+        final TransferStatus status = new TransferStatus();
+        assertFalse(feature.getDetails("k", status).containsMetadata("x-amz-content-sha256"));
+        status.setChecksum(feature.checksum().compute(new ByteArrayInputStream(new byte[0]), status));
+        assertEquals(status.getChecksum().hash, feature.getDetails("k", status).getMetadata("x-amz-content-sha256"));
+    }
+
+    @Test
+    public void testSignedPayloadDisabled() throws Exception {
+        PreferencesFactory.get().setProperty("s3.upload.payload.unsigned", false);
+        try {
+            final S3Session session = new S3Session(new Host(new S3Protocol()));
+            session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+            final S3WriteFeature feature = new S3WriteFeature(session, new S3DisabledMultipartService());
+            assertTrue(feature.checksum() instanceof SHA256ChecksumCompute);
+            assertFalse(feature.getDetails("k", new TransferStatus()).containsMetadata("x-amz-content-sha256"));
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("s3.upload.payload.unsigned");
+        }
+    }
 }
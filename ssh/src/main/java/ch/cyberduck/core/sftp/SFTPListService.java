@@ -26,17 +26,27 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.FileMode;
-import net.schmizz.sshj.sftp.RemoteDirectory;
-import net.schmizz.sshj.sftp.RemoteResourceFilter;
-import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
@@ -48,40 +58,63 @@ public class SFTPListService implements ListService {
 
     private final SFTPAttributesFinderFeature feature;
 
+    /**
+     * Number of outstanding READDIR requests
+     */
+    private final int maxunconfirmed;
+
     public SFTPListService(final SFTPSession session) {
+        this(session, PreferencesFactory.get().getInteger("sftp.readdir.maxunconfirmed"));
+    }
+
+    public SFTPListService(final SFTPSession session, final int maxunconfirmed) {
         this.session = session;
         this.feature = new SFTPAttributesFinderFeature(session);
+        this.maxunconfirmed = Math.max(1, maxunconfirmed);
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
+            final SFTPEngine sftp = session.sftp();
             final AttributedList<Path> children = new AttributedList<Path>();
-            final RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute());
-            for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
-                @Override
-                public boolean accept(RemoteResourceInfo remoteResourceInfo) {
-                    return true;
-                }
-            })) {
-                final PathAttributes attributes = feature.convert(f.getAttributes());
-                final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
-                if(f.getAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
-                    type.add(Path.Type.directory);
-                }
-                if(f.getAttributes().getType().equals(FileMode.Type.REGULAR)) {
-                    type.add(Path.Type.file);
+            final byte[] handle = sftp.request(sftp.newRequest(PacketType.OPENDIR).putString(directory.getAbsolute()))
+                    .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensurePacketTypeIs(PacketType.HANDLE).readBytes();
+            try {
+                final Deque<Promise<Response, SFTPException>> requests = new ArrayDeque<Promise<Response, SFTPException>>();
+                boolean eof = false;
+                while(!eof || !requests.isEmpty()) {
+                    // Keep requests for the next entries outstanding while waiting for the response
+                    while(!eof && requests.size() < maxunconfirmed) {
+                        requests.add(sftp.request(sftp.newRequest(PacketType.READDIR).putString(handle)));
+                    }
+                    final Response response = requests.remove().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                    switch(response.getType()) {
+                        case NAME:
+                            for(Path file : this.post(sftp, this.parse(directory, response))) {
+                                children.add(file);
+                            }
+                            listener.chunk(directory, children);
+                            break;
+                        case STATUS:
+                            // Responses to remaining requests are expected to be end of file as well
+                            response.ensureStatusIs(Response.StatusCode.EOF);
+                            eof = true;
+                            break;
+                        default:
+                            throw new SFTPException(String.format("Unexpected packet %s", response.getType()));
+                    }
                 }
-                if(f.getAttributes().getType().equals(FileMode.Type.SYMLINK)) {
-                    type.add(Path.Type.symboliclink);
+            }
+            finally {
+                try {
+                    sftp.request(sftp.newRequest(PacketType.CLOSE).putString(handle))
+                            .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensureStatusIs(Response.StatusCode.OK);
                 }
-                final Path file = new Path(directory, normalizer.normalize(f.getName()), type, attributes);
-                if(this.post(file)) {
-                    children.add(file);
-                    listener.chunk(directory, children);
+                catch(IOException e) {
+                    log.warn(String.format("Failure closing handle for directory %s. %s", directory, e.getMessage()));
                 }
             }
-            handle.close();
             return children;
         }
         catch(IOException e) {
@@ -89,12 +122,66 @@ public class SFTPListService implements ListService {
         }
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
+    /**
+     * @param directory Parent directory
+     * @param response  Response to READDIR request
+     * @return Files in response
+     */
+    private List<Path> parse(final Path directory, final Response response) throws IOException {
+        final int count = response.readUInt32AsInt();
+        final List<Path> files = new ArrayList<Path>(count);
+        for(int i = 0; i < count; i++) {
+            final String name = response.readString();
+            // Long name ignored
+            response.readString();
+            final FileAttributes attr = response.readFileAttributes();
+            if(".".equals(name) || "..".equals(name)) {
+                continue;
+            }
+            final PathAttributes attributes = feature.convert(attr);
+            final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+            if(attr.getType().equals(FileMode.Type.DIRECTORY)) {
+                type.add(Path.Type.directory);
+            }
+            if(attr.getType().equals(FileMode.Type.REGULAR)) {
+                type.add(Path.Type.file);
+            }
+            if(attr.getType().equals(FileMode.Type.SYMLINK)) {
+                type.add(Path.Type.symboliclink);
+            }
+            files.add(new Path(directory, normalizer.normalize(name), type, attributes));
+        }
+        return files;
+    }
+
+    /**
+     * Resolve targets of symbolic links with all READLINK and STAT requests for the files outstanding concurrently
+     *
+     * @param files Files from single READDIR response
+     * @return Files excluding symbolic links failed to read
+     */
+    protected List<Path> post(final SFTPEngine sftp, final List<Path> files) throws IOException, BackgroundException {
+        final Map<Path, Promise<Response, SFTPException>> links = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        for(Path file : files) {
+            if(file.isSymbolicLink()) {
+                links.put(file, sftp.request(sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute())));
+            }
+        }
+        if(links.isEmpty()) {
+            return files;
+        }
+        final Map<Path, Path> targets = new LinkedHashMap<Path, Path>();
+        final Map<Path, Promise<Response, SFTPException>> stats = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : links.entrySet()) {
+            final Path file = entry.getKey();
             try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+                final Response response = entry.getValue().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .ensurePacketTypeIs(PacketType.NAME);
+                if(response.readUInt32AsInt() != 1) {
+                    throw new SFTPException(String.format("Unexpected data in %s packet", response.getType()));
+                }
+                final String link = response.readString();
+                final Path target;
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
                     target = new Path(link, EnumSet.of(Path.Type.file));
                 }
@@ -102,40 +189,60 @@ public class SFTPListService implements ListService {
                     target = new Path(String.format("%s/%s", file.getParent().getAbsolute(), link),
                             EnumSet.of(Path.Type.file));
                 }
-                try {
-                    if(session.sftp().stat(target.getAbsolute()).getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
-                    }
+                targets.put(file, target);
+                stats.put(file, sftp.request(sftp.newRequest(PacketType.STAT).putString(target.getAbsolute())));
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+            }
+        }
+        final List<Path> resolved = new ArrayList<Path>(files.size());
+        for(Path file : files) {
+            if(!file.isSymbolicLink()) {
+                resolved.add(file);
+                continue;
+            }
+            if(!stats.containsKey(file)) {
+                // Failure reading link
+                continue;
+            }
+            final Path target = targets.get(file);
+            Path.Type type;
+            try {
+                if(stats.get(file).retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
                 }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
-                    }
+                else {
                     type = Path.Type.file;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                file.setSymlinkTarget(target);
+            }
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
             }
             catch(IOException e) {
                 log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                continue;
             }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            target.setType(EnumSet.of(type));
+            file.setSymlinkTarget(target);
+            resolved.add(file);
         }
-        return true;
+        return resolved;
     }
-}
\ No newline at end of file
+}
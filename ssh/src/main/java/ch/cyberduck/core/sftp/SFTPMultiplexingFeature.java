@@ -0,0 +1,62 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.HostKeyCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Multiplexing;
+
+import org.apache.log4j.Logger;
+
+import java.security.PublicKey;
+
+public class SFTPMultiplexingFeature implements Multiplexing {
+    private static final Logger log = Logger.getLogger(SFTPMultiplexingFeature.class);
+
+    private final SFTPSession session;
+
+    public SFTPMultiplexingFeature(final SFTPSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public Session<?> open(final Cache<Path> cache) throws BackgroundException {
+        if(!session.isConnected()) {
+            throw new ConnectionCanceledException();
+        }
+        final SFTPSession channel = new SFTPSession(session);
+        channel.open(new HostKeyCallback() {
+            @Override
+            public boolean verify(final String hostname, final int port, final PublicKey key) throws ConnectionCanceledException {
+                // Connection of parent session closed in the meantime
+                throw new ConnectionCanceledException();
+            }
+        });
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Open SFTP subsystem on connection of session %s", session));
+        }
+        channel.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), cache);
+        return channel;
+    }
+}
@@ -33,6 +33,7 @@ import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.Move;
+import ch.cyberduck.core.features.Multiplexing;
 import ch.cyberduck.core.features.Quota;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Symlink;
@@ -60,6 +61,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.schmizz.concurrent.Promise;
 import net.schmizz.keepalive.KeepAlive;
@@ -96,6 +98,27 @@ public class SFTPSession extends Session<SSHClient> {
 
     private final SocketFactory socketFactory;
 
+    /**
+     * Session with connection to open a channel on or null
+     */
+    private final SFTPSession parent;
+
+    /**
+     * Session that opened the connection in use by this session or null if not connected
+     */
+    private final AtomicReference<SFTPSession> owner
+            = new AtomicReference<SFTPSession>();
+
+    /**
+     * Connection opened by this session. Only closed when no longer in use by this or any session sharing it.
+     */
+    private SSHClient transport;
+
+    /**
+     * Number of sessions using the connection opened by this session including itself
+     */
+    private int references;
+
     public SFTPSession(final Host h) {
         this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h)));
     }
@@ -107,6 +130,64 @@ public class SFTPSession extends Session<SSHClient> {
     public SFTPSession(final Host h, final SocketFactory socketFactory) {
         super(h);
         this.socketFactory = socketFactory;
+        this.parent = null;
+    }
+
+    /**
+     * Session using a new SFTP subsystem channel on the authenticated connection of the parent session if connected.
+     *
+     * @param parent Session with connection to share
+     */
+    public SFTPSession(final SFTPSession parent) {
+        super(parent.getHost());
+        this.socketFactory = parent.socketFactory;
+        this.parent = parent;
+    }
+
+    /**
+     * @return True if the connection is shared with the parent session
+     */
+    public boolean isMultiplexed() {
+        final SFTPSession o = owner.get();
+        return o != null && o != this;
+    }
+
+    /**
+     * @return Connection with reference added for session sharing it or null if already closed
+     */
+    protected synchronized SSHClient retain() {
+        if(0 == references || !transport.isConnected()) {
+            return null;
+        }
+        references++;
+        return transport;
+    }
+
+    /**
+     * Remove reference to connection and close it if no longer used by any session
+     *
+     * @return True if connection is closed
+     */
+    protected synchronized boolean release() throws IOException {
+        if(0 == references) {
+            return true;
+        }
+        if(--references > 0) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Keep connection open for %d sessions", references));
+            }
+            return false;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Close connection %s no longer in use", transport));
+        }
+        try {
+            transport.close();
+        }
+        finally {
+            transport = null;
+        }
+        return true;
     }
 
     @Override
@@ -119,6 +200,16 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public SSHClient connect(final HostKeyCallback key) throws BackgroundException {
+        if(parent != null) {
+            final SSHClient shared = parent.retain();
+            if(shared != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Share connection of session %s", parent));
+                }
+                owner.set(parent);
+                return shared;
+            }
+        }
         try {
             final DefaultConfig configuration = new DefaultConfig();
             if("zlib".equals(preferences.getProperty("ssh.compression"))) {
@@ -139,7 +230,13 @@ public class SFTPSession extends Session<SSHClient> {
                 heartbeat = KeepAliveProvider.HEARTBEAT;
             }
             configuration.setKeepAliveProvider(heartbeat);
-            return this.connect(key, configuration);
+            final SSHClient connection = this.connect(key, configuration);
+            synchronized(this) {
+                transport = connection;
+                references = 1;
+            }
+            owner.set(this);
+            return connection;
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map(e);
@@ -220,6 +317,11 @@ public class SFTPSession extends Session<SSHClient> {
     @Override
     public void login(final HostPasswordStore keychain, final LoginCallback prompt, final CancelCallback cancel,
                       final Cache<Path> cache) throws BackgroundException {
+        if(this.isMultiplexed()) {
+            // Connection already authenticated
+            this.init();
+            return;
+        }
         final List<SFTPAuthentication> methods = new ArrayList<SFTPAuthentication>();
         final Credentials credentials = host.getCredentials();
         if(credentials.isAnonymousLogin()) {
@@ -309,6 +411,13 @@ public class SFTPSession extends Session<SSHClient> {
                 throw lastFailure;
             }
         }
+        this.init();
+    }
+
+    /**
+     * Open SFTP subsystem channel
+     */
+    private void init() throws BackgroundException {
         try {
             sftp = new SFTPEngine(client, String.valueOf(Path.DELIMITER)) {
                 @Override
@@ -348,7 +457,15 @@ public class SFTPSession extends Session<SSHClient> {
     @Override
     public void disconnect() {
         try {
-            client.close();
+            final SFTPSession o = owner.getAndSet(null);
+            if(o != null) {
+                if(!o.release()) {
+                    // Only close channel of connection still in use by other sessions
+                    if(sftp != null) {
+                        sftp.close();
+                    }
+                }
+            }
         }
         catch(IOException e) {
             log.warn(String.format("Ignore disconnect failure %s", e.getMessage()));
@@ -409,6 +526,12 @@ public class SFTPSession extends Session<SSHClient> {
         if(type == Quota.class) {
             return (T) new SFTPQuotaFeature(this);
         }
+        if(type == Multiplexing.class) {
+            if(null == parent) {
+                return (T) new SFTPMultiplexingFeature(this);
+            }
+            return null;
+        }
         return super._getFeature(type);
     }
 
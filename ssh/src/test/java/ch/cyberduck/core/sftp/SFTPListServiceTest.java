@@ -18,6 +18,7 @@ package ch.cyberduck.core.sftp;
  */
 
 import ch.cyberduck.core.*;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -26,10 +27,13 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -89,6 +93,102 @@ public class SFTPListServiceTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListMultipleResponses() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final List<Path> files = new ArrayList<Path>();
+        // More entries than returned in a single READDIR response
+        for(int i = 0; i < 250; i++) {
+            final Path file = new Path(directory, String.format("f-%d", i), EnumSet.of(Path.Type.file));
+            new SFTPTouchFeature(session).touch(file, new TransferStatus());
+            files.add(file);
+        }
+        final List<Path> symlinks = new ArrayList<Path>();
+        for(int i = 0; i < 10; i++) {
+            final Path symlink = new Path(directory, String.format("s-%d", i), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(symlink, files.get(i).getName());
+            symlinks.add(symlink);
+        }
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new SFTPListService(session, 2).list(directory, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) throws ListCanceledException {
+                chunks.incrementAndGet();
+            }
+        });
+        assertTrue(chunks.get() > 1);
+        assertEquals(260, list.size());
+        for(Path file : files) {
+            assertTrue(list.contains(file));
+        }
+        for(int i = 0; i < symlinks.size(); i++) {
+            assertTrue(list.contains(symlinks.get(i)));
+            assertEquals(files.get(i), list.get(symlinks.get(i)).getSymlinkTarget());
+        }
+        final List<Path> delete = new ArrayList<Path>(symlinks);
+        delete.addAll(files);
+        delete.add(directory);
+        new SFTPDeleteFeature(session).delete(delete, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
+    @Test
+    public void testListDanglingSymlink() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new SFTPTouchFeature(session).touch(file, new TransferStatus());
+        final Path symlink = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        final String target = new AlphanumericRandomStringService().random();
+        new SFTPSymlinkFeature(session).symlink(symlink, target);
+        final AttributedList<Path> list = new SFTPListService(session).list(directory, new DisabledListProgressListener());
+        assertEquals(2, list.size());
+        assertTrue(list.contains(file));
+        assertTrue(list.contains(symlink));
+        assertEquals(EnumSet.of(Path.Type.file, Path.Type.symboliclink), list.get(symlink).getType());
+        assertEquals(new Path(directory, target, EnumSet.of(Path.Type.file)), list.get(symlink).getSymlinkTarget());
+        new SFTPDeleteFeature(session).delete(Arrays.asList(symlink, file, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
+    @Test
+    public void testListSymlinkDirectory() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final Path symlink = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory, Path.Type.symboliclink));
+        new SFTPSymlinkFeature(session).symlink(symlink, directory.getName());
+        final AttributedList<Path> list = new SFTPListService(session).list(home, new DisabledListProgressListener());
+        assertTrue(list.contains(directory));
+        assertTrue(list.contains(symlink));
+        assertEquals(EnumSet.of(Path.Type.directory, Path.Type.symboliclink), list.get(symlink).getType());
+        assertEquals(directory, list.get(symlink).getSymlinkTarget());
+        assertTrue(list.get(symlink).getSymlinkTarget().isDirectory());
+        new SFTPDeleteFeature(session).delete(Arrays.asList(symlink, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
@@ -3,6 +3,7 @@ package ch.cyberduck.core.sftp;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledCancelCallback;
 import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.DisabledProgressListener;
@@ -70,6 +71,29 @@ public class SFTPSessionTest {
         assertFalse(session.isConnected());
     }
 
+    @Test
+    public void testCloseWithMultiplexedSessionOpen() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback(), PathCache.empty());
+        final SSHClient client = session.getClient();
+        final SFTPSession channel = (SFTPSession) new SFTPMultiplexingFeature(session).open(PathCache.empty());
+        assertTrue(channel.isMultiplexed());
+        assertSame(client, channel.getClient());
+        // Destroy session owning connection
+        session.interrupt();
+        assertFalse(session.isConnected());
+        assertTrue(client.isConnected());
+        assertTrue(channel.isConnected());
+        assertNotNull(channel.list(new SFTPHomeDirectoryService(channel).find(), new DisabledListProgressListener()));
+        channel.close();
+        assertFalse(channel.isConnected());
+        assertFalse(client.isConnected());
+    }
+
     @Test
     public void testAllHMAC() throws Exception {
         final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch");